@@ -0,0 +1,54 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import chess.engine.BatchAnalyzer;
+import chess.engine.SearchEngine;
+
+/**
+ * Analisa um arquivo de posições em FEN, uma por linha, e grava o melhor lance
+ * de cada posição na ordem da entrada. O desempenho é informado na saída de
+ * erro, em posições por segundo.
+ *
+ * Uso: BatchAnalysis entrada [saída|-] [profundidade] [tempo por posição em ms]
+ * [threads]
+ */
+public class BatchAnalysis {
+
+	public static void main(String[] args) throws Exception {
+
+		if (args.length == 0) {
+			System.err.println("Uso: BatchAnalysis entrada [saída|-] [profundidade] [ms por posição] [threads]");
+			System.exit(1);
+		}
+
+		Path input = Path.of(args[0]);
+		String output = args.length > 1 ? args[1] : "-";
+		int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		long budget = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+		int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+		BatchAnalyzer analyzer = new BatchAnalyzer(new SearchEngine(), depth, budget, threads);
+
+		long start = System.nanoTime();
+		long positions;
+
+		try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+				Writer out = output.equals("-")
+						? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+						: Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+			positions = analyzer.analyze(in, out);
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.err.printf("%d posições em %.1f s: %.1f posições/s (%d threads, profundidade %d)%n", positions, seconds,
+				positions / seconds, threads, depth);
+	}
+
+}// class BatchAnalysis
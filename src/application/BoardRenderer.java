@@ -0,0 +1,201 @@
+package application;
+
+import static util.Messages.ANSI_BLUE_BACKGROUND;
+import static util.Messages.ANSI_CLEAR_SCREEN;
+import static util.Messages.ANSI_RESET;
+import static util.Messages.ANSI_WHITE;
+import static util.Messages.ANSI_YELLOW;
+import static util.Messages.COLUMN_HEADERS;
+import static util.Messages.WITHOUT_PIECE;
+
+import java.io.PrintStream;
+
+import chess.ChessPiece;
+import chess.Color;
+
+/**
+ * Desenha o tabuleiro no terminal montando cada quadro em um único buffer
+ * reutilizável. O quadro anterior é mantido e, a partir do segundo quadro,
+ * apenas as casas alteradas são reescritas usando movimentos de cursor ANSI. O
+ * quadro inteiro é enviado em uma única escrita.
+ *
+ * O tabuleiro ocupa uma região fixa no topo da tela, que só é limpa no quadro
+ * completo. Ao fim de cada quadro o cursor vai para a linha abaixo do tabuleiro
+ * e apenas dali para baixo a tela é limpa, antes que quem chamou escreva o
+ * estado da partida e o prompt.
+ */
+public class BoardRenderer {
+
+	private static final int BOARD_TOP = 2;
+	private static final int LABEL_COLUMN = 9;
+	private static final int FIRST_CELL_COLUMN = LABEL_COLUMN + 2;
+
+	private static final int HIGHLIGHT = 1;
+	private static final int WHITE_PIECE = 2;
+	private static final int HAS_PIECE = 4;
+	private static final int SYMBOL_SHIFT = 3;
+
+	private static final String ANSI_CLEAR_BELOW = "\033[J";
+
+	private final PrintStream out;
+
+	private byte[] buffer = new byte[4096];
+	private int length;
+
+	private int[] previous;
+	private int[] current;
+
+	/**
+	 * Cria um renderizador que escreve no fluxo especificado.
+	 *
+	 * @param out o fluxo de saída do terminal
+	 */
+	public BoardRenderer(PrintStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Descarta o quadro anterior, forçando o próximo quadro a ser desenhado por
+	 * completo.
+	 */
+	public void invalidate() {
+		previous = null;
+	}
+
+	/**
+	 * Desenha o tabuleiro e posiciona o cursor logo abaixo dele, limpando o
+	 * restante da tela. A região do tabuleiro não é apagada.
+	 *
+	 * @param pieces        a matriz de peças no tabuleiro
+	 * @param possibleMoves a matriz de movimentos a destacar, ou null
+	 */
+	public void render(ChessPiece[][] pieces, boolean[][] possibleMoves) {
+
+		int rows = pieces.length;
+		int columns = rows == 0 ? 0 : pieces[0].length;
+
+		if (current == null || current.length != rows * columns)
+			current = new int[rows * columns];
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++)
+				current[i * columns + j] = encode(pieces[i][j], possibleMoves != null && possibleMoves[i][j]);
+		}
+
+		length = 0;
+
+		if (previous == null || previous.length != current.length) {
+
+			append(ANSI_CLEAR_SCREEN);
+
+			for (int i = 0; i < rows; i++) {
+				moveTo(BOARD_TOP + i, LABEL_COLUMN);
+				appendInt(rows - i);
+				append(' ');
+
+				for (int j = 0; j < columns; j++)
+					appendCell(current[i * columns + j]);
+			}
+
+			moveTo(BOARD_TOP + rows, 1);
+			append(COLUMN_HEADERS);
+		} else {
+
+			for (int k = 0; k < current.length; k++) {
+				if (current[k] != previous[k]) {
+					moveTo(BOARD_TOP + k / columns, FIRST_CELL_COLUMN + 2 * (k % columns));
+					appendCell(current[k]);
+				}
+			}
+		}
+
+		moveTo(BOARD_TOP + rows + 1, 1);
+		append(ANSI_CLEAR_BELOW);
+
+		out.write(buffer, 0, length);
+		out.flush();
+
+		int[] aux = previous;
+		previous = current;
+		current = aux;
+	}
+
+	/**
+	 * Retorna o número de bytes do último quadro desenhado.
+	 *
+	 * @return o tamanho do último quadro em bytes
+	 */
+	public int getLastFrameSize() {
+		return length;
+	}
+
+	/**
+	 * Codifica o conteúdo de uma casa em um inteiro para comparação entre quadros.
+	 */
+	private static int encode(ChessPiece piece, boolean highlight) {
+
+		int cell = highlight ? HIGHLIGHT : 0;
+
+		if (piece != null) {
+			cell |= HAS_PIECE | (piece.toString().charAt(0) << SYMBOL_SHIFT);
+			if (piece.getColor() == Color.WHITE)
+				cell |= WHITE_PIECE;
+		}
+
+		return cell;
+	}
+
+	private void appendCell(int cell) {
+
+		if ((cell & HIGHLIGHT) != 0)
+			append(ANSI_BLUE_BACKGROUND);
+
+		if ((cell & HAS_PIECE) == 0) {
+			append(WITHOUT_PIECE);
+		} else {
+			append((cell & WHITE_PIECE) != 0 ? ANSI_WHITE : ANSI_YELLOW);
+			append((char) (cell >>> SYMBOL_SHIFT));
+		}
+
+		append(ANSI_RESET);
+		append(' ');
+	}
+
+	private void moveTo(int row, int column) {
+		append('\033');
+		append('[');
+		appendInt(row);
+		append(';');
+		appendInt(column);
+		append('H');
+	}
+
+	private void appendInt(int value) {
+
+		if (value >= 10)
+			appendInt(value / 10);
+
+		append((char) ('0' + value % 10));
+	}
+
+	private void append(String str) {
+		for (int i = 0; i < str.length(); i++)
+			append(str.charAt(i));
+	}
+
+	/**
+	 * Adiciona um caractere ao buffer. Todo o conteúdo do quadro é ASCII, então
+	 * cada caractere ocupa exatamente um byte.
+	 */
+	private void append(char c) {
+
+		if (length == buffer.length) {
+			byte[] aux = new byte[buffer.length * 2];
+			System.arraycopy(buffer, 0, aux, 0, length);
+			buffer = aux;
+		}
+
+		buffer[length++] = (byte) c;
+	}
+
+}// class BoardRenderer
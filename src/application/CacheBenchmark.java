@@ -0,0 +1,124 @@
+package application;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import chess.analysis.AnalysisCache;
+import chess.analysis.AnalysisResult;
+
+/**
+ * Compara a taxa de acerto do AnalysisCache com um LRU simples de mesma
+ * capacidade, em uma carga com posições populares (distribuição de Zipf)
+ * misturada a posições consultadas uma única vez. Também mede quantas análises
+ * são calculadas quando várias threads pedem a mesma posição ao mesmo tempo.
+ *
+ * Uso: CacheBenchmark [capacidade] [consultas] [threads]
+ */
+public class CacheBenchmark {
+
+	private static final int POSITIONS = 100_000;
+	private static final double ZIPF_EXPONENT = 0.9;
+
+	public static void main(String[] args) throws Exception {
+
+		int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+		int requests = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+		double[] cdf = zipf(POSITIONS, ZIPF_EXPONENT);
+		long[] keys = new long[requests];
+		Random random = new Random(42);
+		long unique = POSITIONS;
+
+		for (int i = 0; i < requests; i++)
+			keys[i] = (i % 3 == 2) ? unique++ : sample(cdf, random);
+
+		AnalysisCache cache = new AnalysisCache(capacity);
+		long start = System.nanoTime();
+		for (long key : keys)
+			cache.get(key, 1, () -> new AnalysisResult(key, 1, 0, (short) 0, 0));
+		long cacheTime = System.nanoTime() - start;
+
+		Map<Long, AnalysisResult> lru = new LinkedHashMap<>(capacity, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, AnalysisResult> eldest) {
+				return size() > capacity;
+			}
+		};
+
+		long lruHits = 0;
+		for (long key : keys) {
+			if (lru.get(key) != null)
+				lruHits++;
+			else
+				lru.put(key, new AnalysisResult(key, 1, 0, (short) 0, 0));
+		}
+
+		System.out.printf("W-TinyLFU: acerto %.1f%% (%.0f ns/consulta)%n", 100 * cache.getHitRate(),
+				(double) cacheTime / requests);
+		System.out.printf("LRU:       acerto %.1f%%%n", 100.0 * lruHits / requests);
+
+		AnalysisCache shared = new AnalysisCache(capacity);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch ready = new CountDownLatch(1);
+
+		for (int t = 0; t < threads; t++) {
+			executor.execute(() -> {
+				try {
+					ready.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				shared.get(1L, 8, () -> {
+					try {
+						Thread.sleep(50);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return new AnalysisResult(1L, 8, 0, (short) 0, 0);
+				});
+				shared.get(1L, 4, () -> new AnalysisResult(1L, 4, 0, (short) 0, 0));
+			});
+		}
+
+		ready.countDown();
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+
+		System.out.printf("single-flight: %d threads, %d análise(s), %d compartilhada(s), %d acerto(s)%n", threads,
+				shared.getLoadCount(), shared.getSharedLoadCount(), shared.getHitCount());
+	}
+
+	/**
+	 * Retorna a distribuição acumulada de Zipf para o número de posições.
+	 */
+	private static double[] zipf(int size, double exponent) {
+
+		double[] cdf = new double[size];
+		double sum = 0;
+
+		for (int i = 0; i < size; i++) {
+			sum += 1.0 / Math.pow(i + 1, exponent);
+			cdf[i] = sum;
+		}
+
+		for (int i = 0; i < size; i++)
+			cdf[i] /= sum;
+
+		return cdf;
+	}
+
+	private static long sample(double[] cdf, Random random) {
+		int index = Arrays.binarySearch(cdf, random.nextDouble());
+		return (index >= 0) ? index : -index - 1;
+	}
+
+}// class CacheBenchmark
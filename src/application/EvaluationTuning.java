@@ -0,0 +1,77 @@
+package application;
+
+import java.nio.file.Path;
+
+import chess.engine.EvaluationTuner;
+import chess.engine.Evaluator;
+import chess.engine.TuningPositions;
+
+/**
+ * Ajusta os pesos da avaliação a partir de um arquivo de partidas, em duas
+ * etapas: a extração das posições quietas e o ajuste dos pesos sobre elas. O
+ * ajuste parte dos pesos carregados pelo avaliador e grava o arquivo de pesos
+ * ao fim de cada passada, então pode ser interrompido e retomado.
+ *
+ * Uso: EvaluationTuning extract arquivo-de-partidas posições [threads]
+ * <br>
+ * Uso: EvaluationTuning tune posições [arquivo de pesos] [passadas] [threads]
+ */
+public class EvaluationTuning {
+
+	public static void main(String[] args) throws Exception {
+
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		if (args.length >= 3 && args[0].equals("extract")) {
+
+			if (args.length > 3)
+				threads = Integer.parseInt(args[3]);
+
+			long start = System.nanoTime();
+			long count = TuningPositions.extract(Path.of(args[1]), Path.of(args[2]), threads);
+
+			System.out.printf("%d posições em %.1f s%n", count, (System.nanoTime() - start) / 1e9);
+
+		} else if (args.length >= 2 && args[0].equals("tune")) {
+
+			Path weightsFile = Path.of(args.length > 2 ? args[2] : Evaluator.WEIGHTS_FILE);
+			int passes = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+			if (args.length > 4)
+				threads = Integer.parseInt(args[4]);
+
+			tune(Path.of(args[1]), weightsFile, passes, threads);
+
+		} else {
+			System.err.println("Uso: EvaluationTuning extract arquivo-de-partidas posições [threads]");
+			System.err.println("     EvaluationTuning tune posições [arquivo de pesos] [passadas] [threads]");
+			System.exit(1);
+		}
+	}
+
+	private static void tune(Path positions, Path weightsFile, int passes, int threads) throws Exception {
+
+		int[] weights = new Evaluator().getWeights();
+
+		try (EvaluationTuner tuner = new EvaluationTuner(positions, threads)) {
+
+			long start = System.nanoTime();
+			double scale = tuner.fitScale(weights);
+			double error = tuner.error(weights);
+
+			System.out.printf("%d posições, constante %.3f, erro inicial %.6f (%.1f s)%n", tuner.getPositionCount(),
+					scale, error, (System.nanoTime() - start) / 1e9);
+
+			for (int pass = 1; pass <= passes && !tuner.isConverged(); pass++) {
+
+				start = System.nanoTime();
+				error = tuner.improve(weights);
+				Evaluator.writeWeights(weights, weightsFile);
+
+				System.out.printf("passada %d: erro %.6f (%.1f s)%n", pass, error, (System.nanoTime() - start) / 1e9);
+			}
+		}
+
+		System.out.println("pesos gravados em " + weightsFile);
+	}
+
+}// class EvaluationTuning
@@ -0,0 +1,187 @@
+package application;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.archive.Continuation;
+import chess.archive.GameArchiveReader;
+import chess.archive.GameArchiveWriter;
+import chess.archive.GameCursor;
+import chess.archive.GameRecord;
+import chess.archive.GameResult;
+import chess.archive.MoveCodec;
+import chess.archive.PositionIndex;
+import chess.archive.PositionIndexBuilder;
+
+/**
+ * Mede a geração do índice de posições e o tempo de consulta de uma posição,
+ * comparado com a reprodução de todas as partidas do arquivo a cada consulta.
+ *
+ * Uso: ExplorerBenchmark [partidas] [lances por partida] [threads]
+ */
+public class ExplorerBenchmark {
+
+	private static final int TEMPLATES = 64;
+	private static final int QUERIES = 100_000;
+
+	public static void main(String[] args) throws Exception {
+
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		int plies = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		Random random = new Random(42);
+		List<short[]> templates = new ArrayList<>();
+		for (int i = 0; i < TEMPLATES; i++)
+			templates.add(randomGame(random, plies));
+
+		Path dir = Files.createTempDirectory("explorer-bench");
+		Path archive = dir.resolve("games");
+		Path index = dir.resolve("index");
+
+		long startKey = new ChessMatch().getPositionKey();
+		GameResult[] results = { GameResult.WHITE_WINS, GameResult.DRAW, GameResult.BLACK_WINS };
+
+		try (GameArchiveWriter writer = new GameArchiveWriter(archive, 4 << 20)) {
+			for (int i = 0; i < games; i++)
+				writer.append(new GameRecord(results[random.nextInt(results.length)], i, i + 1, startKey,
+						templates.get(i % TEMPLATES)));
+		}
+
+		long start = System.nanoTime();
+		int built = PositionIndexBuilder.build(archive, index, threads);
+		long buildTime = System.nanoTime() - start;
+
+		PositionIndex positionIndex = new PositionIndex(index);
+
+		long[] keys = new long[TEMPLATES];
+		for (int i = 0; i < TEMPLATES; i++)
+			keys[i] = keyAfter(templates.get(i), 4);
+
+		long sink = 0;
+		start = System.nanoTime();
+		for (int i = 0; i < QUERIES; i++) {
+			List<Continuation> continuations = positionIndex.getContinuations(keys[i % TEMPLATES]);
+			sink += continuations.size() + positionIndex.getGameCount(keys[i % TEMPLATES]);
+		}
+		long queryTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		sink += scan(archive, keys[0]);
+		long scanTime = System.nanoTime() - start;
+
+		System.out.printf("índice: %d partidas, %d segmentos em %.2f s (%d threads)%n", games, built,
+				buildTime / 1e9, threads);
+		System.out.printf("consulta: %.2f us (índice) vs %.0f ms (reprodução) [%d]%n", queryTime / 1e3 / QUERIES,
+				scanTime / 1e6, sink);
+		System.out.println("posição inicial: " + positionIndex.getContinuations(startKey));
+
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	/**
+	 * Conta as partidas em que a posição ocorre reproduzindo todo o arquivo, como
+	 * seria feito sem o índice.
+	 */
+	private static int scan(Path archive, long key) throws Exception {
+
+		GameArchiveReader reader = new GameArchiveReader(archive);
+		int count = 0;
+
+		for (int s = 0; s < reader.getSegmentCount(); s++) {
+
+			GameCursor cursor = reader.cursor(s);
+
+			while (cursor.next()) {
+
+				ChessMatch chessMatch = new ChessMatch();
+				chessMatch.setReplayMode(true);
+				boolean found = chessMatch.getPositionKey() == key;
+
+				for (int i = 0; i < cursor.getMoveCount() && !found; i++) {
+					GameCursor.play(chessMatch, cursor.getMove(i));
+					found = chessMatch.getPositionKey() == key;
+				}
+
+				if (found)
+					count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Retorna a chave da posição após os primeiros lances de uma partida.
+	 */
+	private static long keyAfter(short[] moves, int plies) {
+
+		ChessMatch chessMatch = new ChessMatch();
+
+		for (int i = 0; i < Math.min(plies, moves.length); i++)
+			GameCursor.play(chessMatch, moves[i]);
+
+		return chessMatch.getPositionKey();
+	}
+
+	/**
+	 * Gera uma partida com lances aleatórios, interrompida ao fim da partida ou
+	 * após o número de lances especificado.
+	 */
+	private static short[] randomGame(Random random, int plies) {
+
+		ChessMatch chessMatch = new ChessMatch();
+		short[] moves = new short[plies];
+		int count = 0;
+
+		while (count < plies && !chessMatch.isCheckMate() && !chessMatch.isDraw()) {
+
+			List<ChessPosition> sources = new ArrayList<>();
+			ChessPiece[][] pieces = chessMatch.getPieces();
+
+			for (int i = 0; i < 8; i++) {
+				for (int j = 0; j < 8; j++) {
+					if (pieces[i][j] != null && pieces[i][j].getColor() == chessMatch.getCurrentPlayer())
+						sources.add(ChessPosition.of((char) ('a' + j), 8 - i));
+				}
+			}
+
+			ChessPosition source = sources.get(random.nextInt(sources.size()));
+			boolean[][] possibleMoves;
+
+			try {
+				possibleMoves = chessMatch.possibleMoves(source);
+			} catch (ChessException e) {
+				continue;
+			}
+
+			List<ChessPosition> targets = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				for (int j = 0; j < 8; j++) {
+					if (possibleMoves[i][j])
+						targets.add(ChessPosition.of((char) ('a' + j), 8 - i));
+				}
+			}
+
+			ChessPosition target = targets.get(random.nextInt(targets.size()));
+			chessMatch.performChessMove(source, target);
+			moves[count++] = MoveCodec.encode(source, target, null);
+		}
+
+		short[] game = new short[count];
+		System.arraycopy(moves, 0, game, 0, count);
+		return game;
+	}
+
+}// class ExplorerBenchmark
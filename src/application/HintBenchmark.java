@@ -0,0 +1,87 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.ChessMatch;
+import chess.analysis.AnalysisResult;
+import chess.engine.SearchEngine;
+
+/**
+ * Mede a latência e a profundidade das sugestões de lance com um prazo fixo,
+ * com várias threads pedindo sugestões ao mesmo tempo.
+ *
+ * Uso: HintBenchmark [prazo em ms] [sugestões por thread] [threads]
+ */
+public class HintBenchmark {
+
+	private static final int POSITIONS = 16;
+
+	public static void main(String[] args) throws Exception {
+
+		long budget = args.length > 0 ? Long.parseLong(args[0]) : 50;
+		int hints = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+		List<ChessMatch> positions = new ArrayList<>();
+		Random random = new Random(42);
+		short[] moves = new short[256];
+
+		for (int i = 0; i < POSITIONS; i++) {
+
+			ChessMatch chessMatch = new ChessMatch();
+
+			for (int ply = 0; ply < 2 * i; ply++) {
+				int count = chessMatch.legalMoves(moves);
+				if (count == 0)
+					break;
+				chessMatch.makeSearchMove(moves[random.nextInt(count)]);
+			}
+
+			positions.add(chessMatch);
+		}
+
+		SearchEngine engine = new SearchEngine();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<long[]>> futures = new ArrayList<>();
+
+		for (int t = 0; t < threads; t++) {
+			int first = t;
+			futures.add(executor.submit(() -> {
+				long[] samples = new long[2 * hints];
+				for (int i = 0; i < hints; i++) {
+					long start = System.nanoTime();
+					AnalysisResult result = engine.hint(positions.get((first + i) % POSITIONS), budget);
+					samples[2 * i] = System.nanoTime() - start;
+					samples[2 * i + 1] = result.getDepth();
+				}
+				return samples;
+			}));
+		}
+
+		long[] latencies = new long[threads * hints];
+		long depthSum = 0;
+		int n = 0;
+
+		for (Future<long[]> future : futures) {
+			long[] samples = future.get();
+			for (int i = 0; i < hints; i++) {
+				latencies[n++] = samples[2 * i];
+				depthSum += samples[2 * i + 1];
+			}
+		}
+
+		executor.shutdown();
+		Arrays.sort(latencies);
+
+		System.out.printf("prazo %d ms, %d threads: p50 %.1f ms, p99 %.1f ms, máx %.1f ms, profundidade média %.1f%n",
+				budget, threads, latencies[n / 2] / 1e6, latencies[Math.min(n - 1, n * 99 / 100)] / 1e6,
+				latencies[n - 1] / 1e6, (double) depthSum / n);
+	}
+
+}// class HintBenchmark
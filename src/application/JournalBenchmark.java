@@ -0,0 +1,136 @@
+package application;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.archive.MoveCodec;
+import chess.journal.JournalRecovery;
+import chess.journal.MoveJournal;
+
+/**
+ * Mede a gravação do journal de movimentos com várias partidas simultâneas e o
+ * tempo de recuperação de todas as partidas em andamento.
+ *
+ * Uso: JournalBenchmark [partidas] [lances por partida] [threads de gravação]
+ */
+public class JournalBenchmark {
+
+	private static final int TEMPLATES = 16;
+
+	public static void main(String[] args) throws Exception {
+
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int plies = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+		int writers = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+		List<short[]> templates = new ArrayList<>();
+		Random random = new Random(42);
+		for (int i = 0; i < TEMPLATES; i++)
+			templates.add(randomGame(random, plies));
+
+		Path dir = Files.createTempDirectory("journal-bench");
+		Path path = dir.resolve("moves.wal");
+
+		long records = 0;
+		for (int i = 0; i < games; i++)
+			records += templates.get(i % TEMPLATES).length + 1;
+
+		long start = System.nanoTime();
+		long commits;
+
+		try (MoveJournal journal = new MoveJournal(path)) {
+
+			ExecutorService executor = Executors.newFixedThreadPool(writers);
+
+			for (int w = 0; w < writers; w++) {
+				int first = w;
+				executor.execute(() -> {
+					for (int game = first; game < games; game += writers) {
+						journal.append(game, MoveJournal.TYPE_START, (short) 0);
+						for (short move : templates.get(game % TEMPLATES))
+							journal.append(game, MoveJournal.TYPE_MOVE, move);
+					}
+				});
+			}
+
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.DAYS);
+			commits = journal.getCommitCount();
+		}
+
+		long writeTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		Map<Long, ChessMatch> recovered = JournalRecovery.recover(path, Runtime.getRuntime().availableProcessors());
+		long recoveryTime = System.nanoTime() - start;
+
+		System.out.printf("journal: %d registros, %d commits (%.1f registros/commit), %.0f registros/s%n", records,
+				commits, (double) records / commits, records / (writeTime / 1e9));
+		System.out.printf("recuperação: %d partidas em %.2f s (%d threads)%n", recovered.size(), recoveryTime / 1e9,
+				Runtime.getRuntime().availableProcessors());
+
+		Files.delete(path);
+		Files.delete(dir);
+	}
+
+	/**
+	 * Gera uma partida com lances aleatórios, interrompida ao fim da partida ou
+	 * após o número de lances especificado.
+	 */
+	private static short[] randomGame(Random random, int plies) {
+
+		ChessMatch chessMatch = new ChessMatch();
+		short[] moves = new short[plies];
+		int count = 0;
+
+		while (count < plies && !chessMatch.isCheckMate() && !chessMatch.isDraw()) {
+
+			List<ChessPosition> sources = new ArrayList<>();
+			ChessPiece[][] pieces = chessMatch.getPieces();
+
+			for (int i = 0; i < 8; i++) {
+				for (int j = 0; j < 8; j++) {
+					if (pieces[i][j] != null && pieces[i][j].getColor() == chessMatch.getCurrentPlayer())
+						sources.add(ChessPosition.of((char) ('a' + j), 8 - i));
+				}
+			}
+
+			ChessPosition source = sources.get(random.nextInt(sources.size()));
+			boolean[][] possibleMoves;
+
+			try {
+				possibleMoves = chessMatch.possibleMoves(source);
+			} catch (ChessException e) {
+				continue;
+			}
+
+			List<ChessPosition> targets = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				for (int j = 0; j < 8; j++) {
+					if (possibleMoves[i][j])
+						targets.add(ChessPosition.of((char) ('a' + j), 8 - i));
+				}
+			}
+
+			ChessPosition target = targets.get(random.nextInt(targets.size()));
+			chessMatch.performChessMove(source, target);
+			moves[count++] = MoveCodec.encode(source, target, null);
+		}
+
+		short[] game = new short[count];
+		System.arraycopy(moves, 0, game, 0, count);
+		return game;
+	}
+
+}// class JournalBenchmark
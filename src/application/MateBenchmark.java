@@ -0,0 +1,70 @@
+package application;
+
+import java.util.EnumSet;
+
+import chess.ChessMatch;
+import chess.analysis.AnalysisResult;
+import chess.engine.MateResult;
+import chess.engine.Evaluator;
+import chess.engine.MateSolver;
+import chess.engine.Pruning;
+import chess.engine.SearchEngine;
+
+/**
+ * Compara o solucionador de mates com a busca alfa-beta na mesma profundidade
+ * em problemas de mate em 1 a 5 lances. A busca roda sem podas, que podem
+ * esconder mates perto do horizonte. Os mates em 5 (dama e torre contra rei
+ * sozinho) levam segundos no solucionador e mais ainda na busca.
+ *
+ * Uso: MateBenchmark [lances máximos]
+ */
+public class MateBenchmark {
+
+	private static final String[] PUZZLES = { "6k1/5ppp/8/8/8/8/1Q3PPP/4R1K1 w - - 0 1",
+			"r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 2 3",
+			"kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1",
+			"r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - 1 1",
+			"7k/8/5K2/8/8/8/8/R7 w - - 0 1", "k7/8/8/3K4/8/8/8/7R w - - 0 1",
+			"1k6/8/8/8/3K4/8/8/6Q1 w - - 0 1", "3Q4/8/2k5/4K3/8/8/8/8 w - - 0 1",
+			"8/Q7/8/7k/2K5/8/8/8 w - - 0 1", "1k6/4K3/8/8/8/8/4R3/8 w - - 0 1" };
+
+	private static final long NO_BUDGET = 3_600_000_000_000L;
+
+	public static void main(String[] args) {
+
+		int maxMoves = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+		MateSolver solver = new MateSolver();
+		SearchEngine engine = new SearchEngine(new Evaluator(), null, EnumSet.noneOf(Pruning.class));
+		long solverTotal = 0;
+		long searchTotal = 0;
+
+		for (String fen : PUZZLES) {
+
+			ChessMatch chessMatch = new ChessMatch(fen);
+
+			long start = System.nanoTime();
+			MateResult result = solver.solve(chessMatch, maxMoves);
+			long solverTime = System.nanoTime() - start;
+			solverTotal += solverTime;
+
+			System.out.printf("%s%n  solucionador %7.1f ms, %6d posições (%.1f us/posição): %s%n", fen,
+					solverTime / 1e6, result.getNodes(), solverTime / 1e3 / Math.max(1, result.getNodes()), result);
+
+			if (!result.isMate())
+				continue;
+
+			// A busca só reconhece o mate na folha com um meio-lance a mais
+			start = System.nanoTime();
+			AnalysisResult search = engine.search(chessMatch, 2 * result.getMoves(), NO_BUDGET);
+			long searchTime = System.nanoTime() - start;
+			searchTotal += searchTime;
+
+			System.out.printf("  alfa-beta    %7.1f ms, %6d posições: avaliação %d%n", searchTime / 1e6,
+					search.getNodes(), search.getScore());
+		}
+
+		System.out.printf("total: solucionador %.1f ms, alfa-beta %.1f ms%n", solverTotal / 1e6, searchTotal / 1e6);
+	}
+
+}// class MateBenchmark
@@ -0,0 +1,59 @@
+package application;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.MoveStatus;
+
+/**
+ * Compara o custo de tentativas de movimentos inválidos pela API com exceções
+ * (performChessMove) e pela API com códigos de retorno (tryMove).
+ */
+public class MoveApiBenchmark {
+
+	private static final int ITERATIONS = 2_000_000;
+	private static final int ROUNDS = 5;
+
+	private static final ChessPosition[][] ILLEGAL_MOVES = {
+			{ ChessPosition.of('e', 4), ChessPosition.of('e', 5) }, // no piece on source
+			{ ChessPosition.of('e', 7), ChessPosition.of('e', 5) }, // not your piece
+			{ ChessPosition.of('a', 1), ChessPosition.of('a', 3) }, // no possible moves
+			{ ChessPosition.of('e', 2), ChessPosition.of('e', 5) }, // can't move to target
+	};
+
+	public static void main(String[] args) {
+
+		ChessMatch chessMatch = new ChessMatch();
+
+		for (int round = 0; round < ROUNDS; round++) {
+
+			long start = System.nanoTime();
+			int failures = 0;
+
+			for (int i = 0; i < ITERATIONS; i++) {
+				ChessPosition[] move = ILLEGAL_MOVES[i & 3];
+				try {
+					chessMatch.performChessMove(move[0], move[1]);
+				} catch (ChessException e) {
+					failures++;
+				}
+			}
+
+			long exceptionTime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+
+			for (int i = 0; i < ITERATIONS; i++) {
+				ChessPosition[] move = ILLEGAL_MOVES[i & 3];
+				if (chessMatch.tryMove(move[0], move[1], null) != MoveStatus.OK)
+					failures--;
+			}
+
+			long statusTime = System.nanoTime() - start;
+
+			System.out.printf("rodada %d: performChessMove %6.1f ns/tentativa, tryMove %6.1f ns/tentativa (%d)%n",
+					round + 1, (double) exceptionTime / ITERATIONS, (double) statusTime / ITERATIONS, failures);
+		}
+	}
+
+}// class MoveApiBenchmark
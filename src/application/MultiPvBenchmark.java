@@ -0,0 +1,95 @@
+package application;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.analysis.AnalysisLine;
+import chess.engine.Evaluator;
+import chess.engine.Pruning;
+import chess.engine.SearchEngine;
+
+/**
+ * Compara o custo de obter as N melhores linhas até uma profundidade fixa com a
+ * busca multi-PV e com uma busca separada para cada lance da raiz, além do custo
+ * de uma busca comum (uma linha) como referência. As buscas rodam sem podas:
+ * com elas, o resultado depende da janela de cada busca, e as linhas do
+ * multi-PV não precisam coincidir com as buscas separadas.
+ *
+ * Uso: MultiPvBenchmark [linhas] [profundidade]
+ */
+public class MultiPvBenchmark {
+
+	private static final String[][] OPENINGS = { {}, { "e2e4", "e7e5", "g1f3", "b8c6" },
+			{ "d2d4", "d7d5", "c2c4", "e7e6", "b1c3", "g8f6" }, { "e2e4", "c7c5", "g1f3", "d7d6", "d2d4", "c5d4" } };
+
+	private static final long NO_BUDGET = 3_600_000_000_000L;
+
+	public static void main(String[] args) {
+
+		int lines = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+		SearchEngine engine = new SearchEngine(new Evaluator(), null, EnumSet.noneOf(Pruning.class));
+		long multiPv = 0;
+		long separate = 0;
+		long single = 0;
+
+		for (String[] opening : OPENINGS) {
+
+			ChessMatch chessMatch = new ChessMatch();
+			for (String move : opening)
+				chessMatch.performChessMove(ChessPosition.of(move.charAt(0), move.charAt(1) - '0'),
+						ChessPosition.of(move.charAt(2), move.charAt(3) - '0'));
+
+			long start = System.nanoTime();
+			List<AnalysisLine> result = engine.analyze(chessMatch, lines, depth, NO_BUDGET,
+					l -> System.out.println("  profundidade " + l.get(0).getDepth() + ": " + l.get(0)));
+			multiPv += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			int[] scores = separate(engine, chessMatch, depth);
+			separate += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			engine.search(chessMatch, depth, NO_BUDGET);
+			single += System.nanoTime() - start;
+
+			System.out.println(String.join(" ", opening));
+			for (int i = 0; i < result.size(); i++)
+				System.out.printf("  %s (busca separada: %d)%n", result.get(i), scores[i]);
+		}
+
+		System.out.printf("%d linhas, profundidade %d: multi-PV %.1f ms, buscas separadas %.1f ms, uma linha %.1f ms%n",
+				lines, depth, multiPv / 1e6, separate / 1e6, single / 1e6);
+	}
+
+	/**
+	 * Avalia cada lance da raiz com uma busca própria e retorna as avaliações em
+	 * ordem decrescente.
+	 */
+	private static int[] separate(SearchEngine engine, ChessMatch chessMatch, int depth) {
+
+		short[] moves = new short[256];
+		int count = chessMatch.legalMoves(moves);
+		int[] scores = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			ChessMatch copy = new ChessMatch(chessMatch);
+			copy.makeSearchMove(moves[i]);
+			scores[i] = -engine.search(copy, depth - 1, NO_BUDGET).getScore();
+		}
+
+		Arrays.sort(scores);
+		for (int i = 0; i < count / 2; i++) {
+			int score = scores[i];
+			scores[i] = scores[count - 1 - i];
+			scores[count - 1 - i] = score;
+		}
+
+		return scores;
+	}
+
+}// class MultiPvBenchmark
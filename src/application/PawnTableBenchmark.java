@@ -0,0 +1,63 @@
+package application;
+
+import java.util.EnumSet;
+
+import chess.ChessMatch;
+import chess.analysis.AnalysisResult;
+import chess.engine.Evaluator;
+import chess.engine.Pruning;
+import chess.engine.SearchEngine;
+
+/**
+ * Mede a tabela de peões: busca posições de meio-jogo na mesma profundidade com
+ * a tabela ativada e desativada, e informa o tempo de cada uma e a taxa de
+ * acertos da tabela.
+ *
+ * Uso: PawnTableBenchmark [profundidade]
+ */
+public class PawnTableBenchmark {
+
+	private static final String[] POSITIONS = {
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+			"r2q1rk1/ppp2ppp/2np1n2/2b1p1B1/2B1P1b1/2NP1N2/PPP2PPP/R2Q1RK1 w - - 0 8",
+			"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+			"2r3k1/pp3ppp/2n1b3/3p4/3P4/2NB1N2/PP3PPP/2R3K1 b - - 3 20" };
+
+	private static final long NO_BUDGET = 3_600_000_000_000L;
+
+	public static void main(String[] args) {
+
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		int[] weights = new Evaluator().getWeights();
+
+		Evaluator cached = new Evaluator(weights);
+		Evaluator uncached = new Evaluator(weights, 0);
+
+		// Uma rodada de aquecimento para cada avaliador antes da medição
+		run(uncached, depth);
+		run(cached, depth);
+
+		double hitRate = cached.getPawnTableHitRate();
+		long withoutTable = run(uncached, depth);
+		long withTable = run(cached, depth);
+
+		System.out.printf("profundidade %d: sem tabela %.0f ms, com tabela %.0f ms, acertos %.1f%%%n", depth,
+				withoutTable / 1e6, withTable / 1e6, 100 * hitRate);
+	}
+
+	private static long run(Evaluator evaluator, int depth) {
+
+		SearchEngine engine = new SearchEngine(evaluator, null, EnumSet.allOf(Pruning.class));
+		long start = System.nanoTime();
+
+		for (String fen : POSITIONS) {
+			AnalysisResult result = engine.search(new ChessMatch(fen), depth, NO_BUDGET);
+			if (result.getDepth() != depth)
+				throw new IllegalStateException(fen);
+		}
+
+		return System.nanoTime() - start;
+	}
+
+}// class PawnTableBenchmark
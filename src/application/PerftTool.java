@@ -0,0 +1,115 @@
+package application;
+
+import java.util.Map;
+
+import chess.ChessMatch;
+import chess.engine.Perft;
+
+/**
+ * Conta as folhas da árvore de lances legais (perft) de uma posição e mostra a
+ * contagem de cada lance da raiz (divide), no formato "e2e4: 20", para comparar
+ * com outro gerador de lances. Com --verify, confere as contagens de referência
+ * das posições de teste padrão e termina com erro se alguma divergir.
+ *
+ * Uso: PerftTool profundidade [FEN] [threads] [bits da tabela]
+ * <br>
+ * Uso: PerftTool --verify [threads] [bits da tabela]
+ */
+public class PerftTool {
+
+	private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+	private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+	private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+	private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+	private static final String POSITION_4_MIRRORED = "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1";
+	private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+	private static final String POSITION_6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+	/**
+	 * Contagens de referência: FEN e folhas nas profundidades 1, 2, 3...
+	 */
+	private static final Object[][] REFERENCE = { { START, new long[] { 20, 400, 8902, 197281, 4865609 } },
+			{ KIWIPETE, new long[] { 48, 2039, 97862, 4085603 } },
+			{ POSITION_3, new long[] { 14, 191, 2812, 43238, 674624 } },
+			{ POSITION_4, new long[] { 6, 264, 9467, 422333 } },
+			{ POSITION_4_MIRRORED, new long[] { 6, 264, 9467, 422333 } },
+			{ POSITION_5, new long[] { 44, 1486, 62379, 2103487 } },
+			{ POSITION_6, new long[] { 46, 2079, 89890, 3894594 } } };
+
+	private static final int DEFAULT_TABLE_BITS = 20;
+
+	public static void main(String[] args) {
+
+		if (args.length == 0) {
+			System.err.println("Uso: PerftTool profundidade [FEN] [threads] [bits da tabela]");
+			System.err.println("     PerftTool --verify [threads] [bits da tabela]");
+			System.exit(1);
+		}
+
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		if (args[0].equals("--verify")) {
+
+			if (args.length > 1)
+				threads = Integer.parseInt(args[1]);
+			int bits = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TABLE_BITS;
+
+			System.exit(verify(new Perft(bits, threads)) ? 0 : 1);
+		}
+
+		int depth = Integer.parseInt(args[0]);
+		String fen = args.length > 1 ? args[1] : START;
+		if (args.length > 2)
+			threads = Integer.parseInt(args[2]);
+		int bits = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_TABLE_BITS;
+
+		Perft perft = new Perft(bits, threads);
+		long start = System.nanoTime();
+		Map<String, Long> divide = perft.divide(new ChessMatch(fen), depth);
+		long elapsed = System.nanoTime() - start;
+		perft.shutdown();
+
+		// Na profundidade 0 a única folha é a própria posição
+		long total = (depth < 1) ? 1 : 0;
+		for (Map.Entry<String, Long> entry : divide.entrySet()) {
+			System.out.println(entry.getKey() + ": " + entry.getValue());
+			total += entry.getValue();
+		}
+
+		System.out.printf("%nlances %d, folhas %d em %.2f s (%.0f folhas/s)%n", divide.size(), total, elapsed / 1e9,
+				total / (elapsed / 1e9));
+	}
+
+	/**
+	 * Confere todas as contagens de referência.
+	 */
+	private static boolean verify(Perft perft) {
+
+		boolean ok = true;
+		long start = System.nanoTime();
+
+		for (Object[] reference : REFERENCE) {
+
+			String fen = (String) reference[0];
+			long[] expected = (long[]) reference[1];
+
+			for (int depth = 1; depth <= expected.length; depth++) {
+
+				long count = perft.count(new ChessMatch(fen), depth);
+				boolean match = count == expected[depth - 1];
+				ok &= match;
+
+				System.out.printf("%s %-80s profundidade %d: %d%s%n", match ? "ok  " : "ERRO", fen, depth, count,
+						match ? "" : " (esperado " + expected[depth - 1] + ")");
+			}
+		}
+
+		perft.shutdown();
+
+		System.out.printf("%s em %.1f s%n", ok ? "todas as contagens conferem" : "há contagens divergentes",
+				(System.nanoTime() - start) / 1e9);
+
+		return ok;
+	}
+
+}// class PerftTool
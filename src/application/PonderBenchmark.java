@@ -0,0 +1,86 @@
+package application;
+
+import chess.ChessMatch;
+import chess.analysis.AnalysisResult;
+import chess.archive.MoveCodec;
+import chess.engine.Ponderer;
+import chess.engine.SearchEngine;
+
+/**
+ * Compara o tempo de resposta e a profundidade do motor com e sem ponder em
+ * partidas contra um oponente simulado, que escolhe o lance com uma busca curta
+ * e depois "pensa" por um tempo fixo.
+ *
+ * Uso: PonderBenchmark [tempo por lance em ms] [tempo do oponente em ms] [lances]
+ */
+public class PonderBenchmark {
+
+	private static final long OPPONENT_SEARCH = 100;
+
+	public static void main(String[] args) throws Exception {
+
+		long budget = args.length > 0 ? Long.parseLong(args[0]) : 300;
+		long think = args.length > 1 ? Long.parseLong(args[1]) : 500;
+		int moves = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+
+		SearchEngine engine = new SearchEngine();
+
+		long[] plain = play(engine, null, budget, think, moves);
+
+		try (Ponderer ponderer = new Ponderer(engine)) {
+			long[] pondering = play(engine, ponderer, budget, think, moves);
+
+			report("sem ponder", plain);
+			report("com ponder", pondering);
+			System.out.printf("acertos %d, erros %d%n", ponderer.getHitCount(), ponderer.getMissCount());
+		}
+	}
+
+	/**
+	 * Joga uma partida e retorna o tempo total de resposta do motor em
+	 * nanossegundos, a soma das profundidades e o número de lances do motor.
+	 */
+	private static long[] play(SearchEngine engine, Ponderer ponderer, long budget, long think, int moves)
+			throws InterruptedException {
+
+		ChessMatch chessMatch = new ChessMatch();
+		SearchEngine opponent = new SearchEngine();
+		long[] totals = new long[3];
+
+		for (int i = 0; i < moves && !chessMatch.isCheckMate() && !chessMatch.isDraw(); i++) {
+
+			long start = System.nanoTime();
+			AnalysisResult result = (ponderer == null) ? engine.search(chessMatch, SearchEngine.MAX_DEPTH, budget * 1_000_000L)
+					: ponderer.respond(chessMatch, budget);
+			totals[0] += System.nanoTime() - start;
+			totals[1] += result.getDepth();
+			totals[2]++;
+
+			play(chessMatch, result.getBestMove());
+			if (chessMatch.isCheckMate() || chessMatch.isDraw())
+				break;
+
+			// O lance do oponente é escolhido antes do ponder para não disputar a CPU
+			AnalysisResult reply = opponent.hint(chessMatch, OPPONENT_SEARCH);
+
+			if (ponderer != null)
+				ponderer.start(chessMatch);
+
+			Thread.sleep(think);
+			play(chessMatch, reply.getBestMove());
+		}
+
+		return totals;
+	}
+
+	private static void play(ChessMatch chessMatch, short move) {
+		chessMatch.performChessMove(MoveCodec.toChessPosition(MoveCodec.source(move)),
+				MoveCodec.toChessPosition(MoveCodec.target(move)), MoveCodec.promotion(move));
+	}
+
+	private static void report(String name, long[] totals) {
+		System.out.printf("%-12s resposta média %6.1f ms, profundidade média %.2f%n", name,
+				totals[0] / 1e6 / totals[2], (double) totals[1] / totals[2]);
+	}
+
+}// class PonderBenchmark
@@ -1,12 +1,12 @@
 package application;
 
+import static util.Messages.MSG_ENGINE_MOVE;
 import static util.Messages.MSG_ENTER_PROMOTION_PIECE;
 import static util.Messages.MSG_ERROR_INVALID_VALUE;
 import static util.Messages.MSG_SOURCE_PROMPT;
 import static util.Messages.MSG_TARGET_PROMPT;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
@@ -15,6 +15,11 @@ import chess.ChessException;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.Color;
+import chess.analysis.AnalysisResult;
+import chess.archive.MoveCodec;
+import chess.engine.Ponderer;
+import chess.engine.SearchEngine;
 import util.Pieces;
 
 /**
@@ -26,24 +31,41 @@ public class Program {
 	private static ChessMatch chessMatch = new ChessMatch();
 	private static List<ChessPiece> captured = new ArrayList<>();
 
+	private static final long DEFAULT_ENGINE_BUDGET = 1000;
+
+	private static Ponderer ponderer;
+	private static long engineBudget;
+	private static String engineMove;
+
 	/**
 	 * Método principal que inicia o jogo.
 	 * 
-	 * @param args argumentos da linha de comando (não utilizados)
+	 * @param args "bot" para jogar contra o motor, que joga com as pretas,
+	 *             seguido opcionalmente do tempo por lance em milissegundos
 	 */
 	public static void main(String[] args) {
+
+		if (args.length > 0 && args[0].equals("bot")) {
+			engineBudget = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_ENGINE_BUDGET;
+			ponderer = new Ponderer(new SearchEngine());
+		}
+
 		runGame();
 	}
 
 	/**
-	 * Método que controla a execução do jogo até que haja um cheque-mate.
+	 * Método que controla a execução do jogo até que haja um cheque-mate ou um
+	 * empate.
 	 */
 	private static void runGame() {
 
-		while (!chessMatch.isCheckMate()) {
+		while (!chessMatch.isCheckMate() && !chessMatch.isDraw()) {
 
 			try {
-				performTurn();
+				if (ponderer != null && chessMatch.getCurrentPlayer() == Color.BLACK)
+					performEngineTurn();
+				else
+					performTurn();
 			} catch (ChessException e) {
 				System.out.println(e.getMessage());
 				scanner.nextLine();
@@ -62,15 +84,16 @@ public class Program {
 	 */
 	private static void performTurn() {
 
-		UI.clearScreen();
 		UI.printMatch(chessMatch, captured);
 		System.out.println();
 
+		if (engineMove != null)
+			System.out.println(MSG_ENGINE_MOVE + engineMove);
+
 		System.out.print(MSG_SOURCE_PROMPT);
 		ChessPosition source = UI.readChessPosition(scanner);
 
 		boolean[][] possibleMoves = chessMatch.possibleMoves(source);
-		UI.clearScreen();
 		UI.printBoard(chessMatch.getPieces(), possibleMoves);
 
 		System.out.println();
@@ -78,39 +101,67 @@ public class Program {
 		System.out.print(MSG_TARGET_PROMPT);
 		ChessPosition target = UI.readChessPosition(scanner);
 
-		ChessPiece capturedPiece = chessMatch.performChessMove(source, target);
+		Pieces promotion = null;
+		if (chessMatch.isPromotionMove(source, target))
+			promotion = handlePromotion();
+
+		ChessPiece capturedPiece = chessMatch.performChessMove(source, target, promotion);
+		if (capturedPiece != null)
+			captured.add(capturedPiece);
+	}
+
+	/**
+	 * Método que realiza o turno do motor. O lance é buscado dentro do tempo por
+	 * lance e, em seguida, o motor passa a analisar em segundo plano a resposta
+	 * mais provável enquanto o jogador pensa.
+	 */
+	private static void performEngineTurn() {
+
+		AnalysisResult result = ponderer.respond(chessMatch, engineBudget);
+		short move = result.getBestMove();
+
+		ChessPosition source = MoveCodec.toChessPosition(MoveCodec.source(move));
+		ChessPosition target = MoveCodec.toChessPosition(MoveCodec.target(move));
+
+		ChessPiece capturedPiece = chessMatch.performChessMove(source, target, MoveCodec.promotion(move));
 		if (capturedPiece != null)
 			captured.add(capturedPiece);
 
-		if (chessMatch.getPromoted() != null)
-			handlePromotion();
+		engineMove = source.toString() + target.toString();
+
+		if (!chessMatch.isCheckMate() && !chessMatch.isDraw())
+			ponderer.start(chessMatch);
 	}
 
 	/**
 	 * Método que lida com a promoção de peões. Solicita ao usuário o tipo de peça
-	 * para a promoção e realiza a substituição.
+	 * para a promoção antes do movimento ser executado.
+	 * 
+	 * @return o tipo de peça escolhido
 	 */
-	private static void handlePromotion() {
+	private static Pieces handlePromotion() {
 
-		String type;
-		List<String> validPieces = Arrays.asList(Pieces.pieces());
+		Pieces type;
 
 		do {
 	        System.out.print(MSG_ENTER_PROMOTION_PIECE);
-	        type = scanner.nextLine().toUpperCase();
-	        if (!validPieces.contains(type)) {
+	        type = Pieces.fromAcronym(scanner.nextLine().toUpperCase());
+	        if (type == null || !type.isPromotionPiece()) {
 	            System.out.println(MSG_ERROR_INVALID_VALUE);
 	        }
-	    } while (!validPieces.contains(type));
+	    } while (type == null || !type.isPromotionPiece());
 
-		chessMatch.replacePromotedPiece(type);
+		return type;
 	}
 
 	/**
 	 * Método que exibe o estado final do jogo após o término.
 	 */
 	private static void endGame() {
-		UI.clearScreen();
+
+		if (ponderer != null)
+			ponderer.close();
+
 		UI.printMatch(chessMatch, captured);
 	}
 
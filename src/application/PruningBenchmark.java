@@ -0,0 +1,81 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import chess.ChessMatch;
+import chess.analysis.AnalysisResult;
+import chess.engine.Evaluator;
+import chess.engine.Pruning;
+import chess.engine.SearchEngine;
+
+/**
+ * Compara as podas da busca com o mesmo tempo por posição: sem podas, cada
+ * poda isolada e todas juntas. Informa a profundidade média alcançada, as
+ * posições visitadas e quantos lances coincidem com os da busca sem podas.
+ *
+ * Uso: PruningBenchmark [tempo por posição em ms]
+ */
+public class PruningBenchmark {
+
+	private static final String[] POSITIONS = { "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+			"r2q1rk1/ppp2ppp/2np1n2/2b1p1B1/2B1P1b1/2NP1N2/PPP2PPP/R2Q1RK1 w - - 0 8",
+			"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"6k1/pp3ppp/4p3/8/3P4/P4N2/1P3PPP/6K1 w - - 0 30",
+			"2r3k1/pp3ppp/2n1b3/3p4/3P4/2NB1N2/PP3PPP/2R3K1 b - - 3 20" };
+
+	public static void main(String[] args) {
+
+		long budget = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+
+		List<Set<Pruning>> configurations = new ArrayList<>();
+		configurations.add(EnumSet.noneOf(Pruning.class));
+		for (Pruning pruning : Pruning.values())
+			configurations.add(EnumSet.of(pruning));
+		configurations.add(EnumSet.allOf(Pruning.class));
+
+		short[] reference = new short[POSITIONS.length];
+
+		for (Set<Pruning> pruning : configurations) {
+
+			SearchEngine engine = new SearchEngine(new Evaluator(), null, pruning);
+			int depths = 0;
+			long nodes = 0;
+			int agree = 0;
+
+			for (int i = 0; i < POSITIONS.length; i++) {
+
+				AnalysisResult result = engine.hint(new ChessMatch(POSITIONS[i]), budget);
+
+				depths += result.getDepth();
+				nodes += result.getNodes();
+
+				if (pruning.isEmpty())
+					reference[i] = result.getBestMove();
+				if (result.getBestMove() == reference[i])
+					agree++;
+			}
+
+			System.out.printf("%s%n  profundidade média %.2f, %,d posições, %d/%d lances iguais%n", title(pruning),
+					(double) depths / POSITIONS.length, nodes, agree, POSITIONS.length);
+		}
+	}
+
+	private static String title(Set<Pruning> pruning) {
+
+		if (pruning.isEmpty())
+			return "sem podas";
+
+		List<String> titles = new ArrayList<>();
+		for (Pruning p : pruning)
+			titles.add(p.getTitle());
+
+		return String.join(", ", titles);
+	}
+
+}// class PruningBenchmark
@@ -0,0 +1,148 @@
+package application;
+
+import static util.Messages.ANSI_BLUE_BACKGROUND;
+import static util.Messages.ANSI_CLEAR_SCREEN;
+import static util.Messages.ANSI_RESET;
+import static util.Messages.ANSI_WHITE;
+import static util.Messages.ANSI_YELLOW;
+import static util.Messages.COLUMN_HEADERS;
+import static util.Messages.SPACE;
+import static util.Messages.TAB;
+import static util.Messages.WITHOUT_PIECE;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Color;
+
+/**
+ * Compara o desenho do tabuleiro com chamadas individuais de print (como era
+ * feito pela UI) com o BoardRenderer, medindo bytes e escritas por quadro em
+ * dois cenários: o destaque dos movimentos ligado e desligado a cada quadro, e
+ * o regime permanente de uma partida, com um lance alterando o tabuleiro a cada
+ * quadro. O tamanho do quadro completo do BoardRenderer também é informado.
+ *
+ * As escritas são contadas no fluxo abaixo do PrintStream, onde cada escrita
+ * corresponde a uma chamada de sistema em um terminal real.
+ */
+public class RenderBenchmark {
+
+	private static final int FRAMES = 10_000;
+
+	public static void main(String[] args) {
+
+		ChessMatch chessMatch = new ChessMatch();
+		chessMatch.performChessMove(ChessPosition.of('e', 2), ChessPosition.of('e', 4));
+
+		ChessPiece[][] pieces = chessMatch.getPieces();
+		boolean[][] possibleMoves = chessMatch.possibleMoves(ChessPosition.of('b', 8));
+
+		chessMatch.performChessMove(ChessPosition.of('e', 7), ChessPosition.of('e', 5));
+		ChessPiece[][] afterMove = chessMatch.getPieces();
+
+		ChessPiece[][][] highlightBoards = { pieces, pieces };
+		boolean[][][] highlightMoves = { null, possibleMoves };
+		ChessPiece[][][] moveBoards = { pieces, afterMove };
+		boolean[][][] noMoves = { null, null };
+
+		System.out.println("destaque alternado:");
+		compare(highlightBoards, highlightMoves);
+
+		System.out.println("um lance por quadro:");
+		compare(moveBoards, noMoves);
+
+		BoardRenderer renderer = new BoardRenderer(new PrintStream(new CountingStream()));
+		renderer.render(pieces, null);
+		System.out.printf("quadro completo do BoardRenderer: %d bytes%n", renderer.getLastFrameSize());
+	}
+
+	/**
+	 * Desenha os quadros alternando entre os dois tabuleiros especificados, pelos
+	 * dois caminhos.
+	 */
+	private static void compare(ChessPiece[][][] boards, boolean[][][] moves) {
+
+		CountingStream legacyCounter = new CountingStream();
+		PrintStream legacyOut = new PrintStream(new BufferedOutputStream(legacyCounter, 8192), true);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			legacyOut.print(ANSI_CLEAR_SCREEN);
+			legacyOut.flush();
+			printLegacy(legacyOut, boards[i & 1], moves[i & 1]);
+		}
+		long legacyTime = System.nanoTime() - start;
+
+		CountingStream rendererCounter = new CountingStream();
+		BoardRenderer renderer = new BoardRenderer(new PrintStream(new BufferedOutputStream(rendererCounter, 8192)));
+
+		start = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++)
+			renderer.render(boards[i & 1], moves[i & 1]);
+		long rendererTime = System.nanoTime() - start;
+
+		report("print por casa", legacyCounter, legacyTime);
+		report("BoardRenderer", rendererCounter, rendererTime);
+	}
+
+	private static void report(String name, CountingStream counter, long nanos) {
+		System.out.printf("  %-16s %8.1f bytes/quadro %6.2f escritas/quadro %8.2f us/quadro%n", name,
+				(double) counter.bytes / FRAMES, (double) counter.writes / FRAMES, nanos / 1000.0 / FRAMES);
+	}
+
+	/**
+	 * Reproduz o desenho anterior do tabuleiro, com um print por elemento.
+	 */
+	private static void printLegacy(PrintStream out, ChessPiece[][] pieces, boolean[][] possibleMoves) {
+
+		out.println();
+
+		for (int i = 0; i < pieces.length; i++) {
+
+			out.print(TAB + (8 - i) + SPACE);
+			for (int j = 0; j < pieces.length; j++) {
+
+				if (possibleMoves != null && possibleMoves[i][j])
+					out.print(ANSI_BLUE_BACKGROUND);
+
+				ChessPiece piece = pieces[i][j];
+				if (piece == null)
+					out.print(WITHOUT_PIECE + ANSI_RESET);
+				else
+					out.print((piece.getColor() == Color.WHITE ? ANSI_WHITE : ANSI_YELLOW) + piece + ANSI_RESET);
+
+				out.print(SPACE);
+			}
+
+			out.println();
+		}
+
+		out.println(COLUMN_HEADERS);
+	}
+
+	/**
+	 * Fluxo que descarta os dados, contando bytes e chamadas de escrita.
+	 */
+	private static class CountingStream extends OutputStream {
+
+		private long bytes;
+		private long writes;
+
+		@Override
+		public void write(int b) {
+			bytes++;
+			writes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+			writes++;
+		}
+	}
+
+}// class RenderBenchmark
@@ -0,0 +1,158 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.archive.MoveCodec;
+import chess.engine.Evaluator;
+import chess.engine.StaticExchange;
+import util.Pieces;
+
+/**
+ * Compara a avaliação estática de trocas (SEE) com a resolução da mesma troca
+ * por tentativas com makeSearchMove e undoSearchMove, em capturas de posições
+ * de partidas aleatórias. Informa o tempo por captura e a concordância entre os
+ * dois métodos (o SEE ignora pinos, então pode divergir em poucos casos).
+ *
+ * Uso: SeeBenchmark [partidas] [rodadas]
+ */
+public class SeeBenchmark {
+
+	public static void main(String[] args) {
+
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		Evaluator evaluator = new Evaluator();
+		StaticExchange exchange = new StaticExchange(evaluator);
+
+		List<ChessPiece[][]> boards = new ArrayList<>();
+		List<ChessMatch> matches = new ArrayList<>();
+		List<Short> captures = new ArrayList<>();
+		collect(new Random(42), games, boards, matches, captures);
+
+		int n = captures.size();
+		int[] see = new int[n];
+		int[] trial = new int[n];
+		long sink = 0;
+
+		for (int round = 0; round < rounds; round++) {
+
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++)
+				see[i] = exchange.evaluate(boards.get(i), captures.get(i));
+			long seeTime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++)
+				trial[i] = trial(matches.get(i), evaluator, captures.get(i));
+			long trialTime = System.nanoTime() - start;
+
+			for (int value : see)
+				sink += value;
+
+			System.out.printf("rodada %d: %d capturas, SEE %.2f us/captura, tentativas %.1f us/captura%n", round + 1,
+					n, seeTime / 1e3 / n, trialTime / 1e3 / n);
+		}
+
+		int agree = 0;
+		for (int i = 0; i < n; i++) {
+			if (see[i] == trial[i])
+				agree++;
+		}
+
+		System.out.printf("concordância %d/%d (%.1f%%) [%d]%n", agree, n, 100.0 * agree / n, sink);
+	}
+
+	/**
+	 * Joga partidas aleatórias e guarda as capturas legais de cada posição.
+	 */
+	private static void collect(Random random, int games, List<ChessPiece[][]> boards, List<ChessMatch> matches,
+			List<Short> captures) {
+
+		short[] moves = new short[256];
+
+		for (int g = 0; g < games; g++) {
+
+			ChessMatch chessMatch = new ChessMatch();
+
+			for (int ply = 0; ply < 80; ply++) {
+
+				int count = chessMatch.legalMoves(moves);
+				if (count == 0)
+					break;
+
+				ChessPiece[][] pieces = chessMatch.getPieces();
+
+				for (int i = 0; i < count; i++) {
+					int target = MoveCodec.target(moves[i]);
+					if (pieces[7 - target / 8][target % 8] != null) {
+						boards.add(pieces);
+						matches.add(new ChessMatch(chessMatch));
+						captures.add(moves[i]);
+					}
+				}
+
+				chessMatch.makeSearchMove(moves[random.nextInt(count)]);
+			}
+		}
+	}
+
+	/**
+	 * Resolve a troca jogando as recapturas legais na casa de destino, sempre com
+	 * a peça de menor valor, e permitindo que cada lado pare quando quiser.
+	 */
+	private static int trial(ChessMatch chessMatch, Evaluator evaluator, short move) {
+
+		ChessPiece[][] pieces = chessMatch.getPieces();
+		int target = MoveCodec.target(move);
+		ChessPiece victim = pieces[7 - target / 8][target % 8];
+
+		chessMatch.makeSearchMove(move);
+		int score = evaluator.value(victim.getType()) - recapture(chessMatch, evaluator, target);
+		chessMatch.undoSearchMove();
+
+		return score;
+	}
+
+	private static int recapture(ChessMatch chessMatch, Evaluator evaluator, int target) {
+
+		short[] moves = new short[256];
+		int count = chessMatch.legalMoves(moves);
+		ChessPiece[][] pieces = chessMatch.getPieces();
+
+		short best = 0;
+		int bestValue = Integer.MAX_VALUE;
+
+		for (int i = 0; i < count; i++) {
+
+			if (MoveCodec.target(moves[i]) != target || (MoveCodec.promotion(moves[i]) != null
+					&& MoveCodec.promotion(moves[i]) != Pieces.QUEEN))
+				continue;
+
+			int source = MoveCodec.source(moves[i]);
+			ChessPiece attacker = pieces[7 - source / 8][source % 8];
+			int value = (attacker.getType() == Pieces.KING) ? 20_000 : evaluator.value(attacker.getType());
+
+			if (value < bestValue) {
+				best = moves[i];
+				bestValue = value;
+			}
+		}
+
+		if (best == 0)
+			return 0;
+
+		ChessPiece victim = pieces[7 - target / 8][target % 8];
+
+		chessMatch.makeSearchMove(best);
+		int score = evaluator.value(victim.getType()) - recapture(chessMatch, evaluator, target);
+		chessMatch.undoSearchMove();
+
+		return Math.max(0, score);
+	}
+
+}// class SeeBenchmark
@@ -0,0 +1,49 @@
+package application;
+
+import java.nio.file.Path;
+
+import chess.engine.Evaluator;
+import chess.engine.SearchEngine;
+import chess.engine.Sprt;
+import chess.engine.Tournament;
+import chess.engine.TournamentResult;
+
+/**
+ * Joga um torneio entre dois conjuntos de pesos da avaliação e decide pelo SPRT
+ * se o primeiro é mais forte: H0 é Elo 0 e H1 é Elo 5, com alfa e beta de 5%.
+ * Um arquivo de pesos "-" usa os pesos carregados pelo avaliador.
+ *
+ * Uso: SelfPlayTournament pesos-candidato [pesos-base] [partidas] [tempo base em
+ * ms] [incremento em ms] [threads]
+ */
+public class SelfPlayTournament {
+
+	public static void main(String[] args) throws Exception {
+
+		if (args.length == 0) {
+			System.err.println(
+					"Uso: SelfPlayTournament pesos-candidato [pesos-base] [partidas] [ms base] [ms incremento] [threads]");
+			System.exit(1);
+		}
+
+		Evaluator candidate = evaluator(args[0]);
+		Evaluator baseline = evaluator(args.length > 1 ? args[1] : "-");
+		int games = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		long base = args.length > 3 ? Long.parseLong(args[3]) : 10_000;
+		long increment = args.length > 4 ? Long.parseLong(args[4]) : 100;
+		int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+		Tournament tournament = new Tournament(new SearchEngine(candidate, null), new SearchEngine(baseline, null),
+				Tournament.DEFAULT_OPENINGS, base, increment, new Sprt(0, 5, 0.05, 0.05));
+
+		long start = System.nanoTime();
+		TournamentResult result = tournament.run(games, threads, System.out::println);
+
+		System.out.printf("%s em %.1f s%n", result, (System.nanoTime() - start) / 1e9);
+	}
+
+	private static Evaluator evaluator(String weights) throws Exception {
+		return weights.equals("-") ? new Evaluator() : Evaluator.load(Path.of(weights));
+	}
+
+}// class SelfPlayTournament
@@ -18,12 +18,15 @@ import static util.Messages.*;
  */
 public class UI {
 
+	private static final BoardRenderer renderer = new BoardRenderer(System.out);
+
 	/**
-	 * Limpa a tela do console.
+	 * Limpa a tela do console. O próximo tabuleiro será desenhado por completo.
 	 */
 	public static void clearScreen() {
 		System.out.print(ANSI_CLEAR_SCREEN);
 		System.out.flush();
+		renderer.invalidate();
 	}
 
 	/**
@@ -40,7 +43,7 @@ public class UI {
 			char column = str.charAt(0);
 			int row = Integer.parseInt(str.substring(1));
 
-			return new ChessPosition(column, row);
+			return ChessPosition.of(column, row);
 		} catch (RuntimeException e) {
 			throw new InputMismatchException(MSG_ERROR_READING_POSITION);
 		}
@@ -62,37 +65,29 @@ public class UI {
 
 		System.out.println(MSG_TURN_PROMPT + chessMatch.getTurn());
 
-		if (!chessMatch.isCheckMate()) {
+		if (chessMatch.isCheckMate()) {
+			System.out.println(CHECK_MATE);
+			System.out.println(WINNER + chessMatch.getCurrentPlayer());
+		} else if (chessMatch.isDraw()) {
+			System.out.println(DRAW + chessMatch.getDrawReason().getTitle());
+		} else {
 			System.out.println(MSG_WAITING_PLAYER + chessMatch.getCurrentPlayer());
 
 			if (chessMatch.isCheck())
 				System.out.println(CHECK);
-		} else {
-			System.out.println(CHECK_MATE);
-			System.out.println(WINNER + chessMatch.getCurrentPlayer());
 		}
 
 	}
 
 	/**
-	 * Imprime o tabuleiro de xadrez com as peças na tela.
+	 * Imprime o tabuleiro de xadrez com as peças na tela. Apenas as casas alteradas
+	 * desde o último tabuleiro desenhado são reescritas, e o restante da tela
+	 * abaixo do tabuleiro é limpo.
 	 * 
 	 * @param pieces A matriz de peças no tabuleiro.
 	 */
 	public static void printBoard(ChessPiece[][] pieces) {
-
-		System.out.println();
-
-		for (int i = 0; i < pieces.length; i++) {
-
-			System.out.print(TAB + (8 - i) + SPACE);
-			for (int j = 0; j < pieces.length; j++)
-				printPiece(pieces[i][j], false);
-
-			System.out.println();
-		}
-
-		System.out.println(COLUMN_HEADERS);
+		renderer.render(pieces, null);
 	}
 
 	/**
@@ -102,38 +97,7 @@ public class UI {
 	 * @param possibleMoves A matriz de movimentos possíveis.
 	 */
 	public static void printBoard(ChessPiece[][] pieces, boolean[][] possibleMoves) {
-
-		System.out.println();
-
-		for (int i = 0; i < pieces.length; i++) {
-
-			System.out.print(TAB + (8 - i) + SPACE);
-			for (int j = 0; j < pieces.length; j++)
-				printPiece(pieces[i][j], possibleMoves[i][j]);
-
-			System.out.println();
-		}
-
-		System.out.println(COLUMN_HEADERS);
-	}
-
-	/**
-	 * Imprime uma peça de xadrez na tela, com a cor de fundo opcional.
-	 * 
-	 * @param piece A peça a ser impressa.
-	 * @param background Se deve ou não destacar o fundo.
-	 */
-	private static void printPiece(ChessPiece piece, boolean background) {
-
-		if (background)
-			System.out.print(ANSI_BLUE_BACKGROUND);
-
-		if (piece == null)
-			System.out.print(WITHOUT_PIECE + ANSI_RESET);
-		else
-			System.out.print((piece.getColor() == Color.WHITE ? ANSI_WHITE : ANSI_YELLOW) + piece + ANSI_RESET);
-
-		System.out.print(SPACE);
+		renderer.render(pieces, possibleMoves);
 	}
 
     /**
@@ -116,7 +116,7 @@ public class Board {
 	 * @param column o índice da coluna
 	 * @return true se a posição existir no tabuleiro, false caso contrário
 	 */
-	private boolean positionExists(int row, int column) {
+	public boolean positionExists(int row, int column) {
 		return row >= 0 && row < rows && column >= 0 && column < columns;
 	}
 
@@ -5,11 +5,23 @@ import static util.Messages.STR_POSITION_TOSTRING;
 /**
  * Representa uma posição em um tabuleiro de jogo, identificada por suas
  * coordenadas de linha e coluna.
+ *
+ * As posições são imutáveis. As posições de um tabuleiro 8x8 são criadas uma
+ * única vez e compartilhadas; use {@link #of(int, int)} para obtê-las.
  */
 public class Position {
 
-	private int row;
-	private int colunm;
+	public static final int SIZE = 8;
+
+	private static final Position[] CACHE = new Position[SIZE * SIZE];
+
+	static {
+		for (int i = 0; i < CACHE.length; i++)
+			CACHE[i] = new Position(i / SIZE, i % SIZE);
+	}
+
+	private final int row;
+	private final int colunm;
 
 	/**
 	 * Constrói uma posição com as coordenadas de linha e coluna especificadas.
@@ -17,25 +29,52 @@ public class Position {
 	 * @param row    a coordenada da linha
 	 * @param column a coordenada da coluna
 	 */
-	public Position(int row, int colunm) {
+	private Position(int row, int colunm) {
 		this.row = row;
 		this.colunm = colunm;
 	}
 
-	public int getRow() {
-		return row;
+	/**
+	 * Retorna a posição com as coordenadas especificadas. Posições dentro de um
+	 * tabuleiro 8x8 são compartilhadas e não geram alocação.
+	 * 
+	 * @param row    a coordenada da linha
+	 * @param column a coordenada da coluna
+	 * @return a posição correspondente
+	 */
+	public static Position of(int row, int column) {
+
+		if (row >= 0 && row < SIZE && column >= 0 && column < SIZE)
+			return CACHE[row * SIZE + column];
+
+		return new Position(row, column);
 	}
 
-	public void setRow(int row) {
-		this.row = row;
+	/**
+	 * Retorna a posição de um índice de casa de um tabuleiro 8x8.
+	 * 
+	 * @param index o índice da casa (linha * 8 + coluna)
+	 * @return a posição correspondente
+	 */
+	public static Position of(int index) {
+		return CACHE[index];
+	}
+
+	public int getRow() {
+		return row;
 	}
 
 	public int getColumn() {
 		return colunm;
 	}
 
-	public void setColunm(int colunm) {
-		this.colunm = colunm;
+	/**
+	 * Retorna o índice da casa em um tabuleiro 8x8.
+	 * 
+	 * @return o índice da casa (linha * 8 + coluna)
+	 */
+	public int getIndex() {
+		return row * SIZE + colunm;
 	}
 
 	@Override
@@ -43,15 +82,4 @@ public class Position {
 		return String.format(STR_POSITION_TOSTRING, row, colunm);
 	}
 
-	/**
-	 * Define novos valores para as coordenadas de linha e coluna.
-	 * 
-	 * @param row    a nova coordenada da linha
-	 * @param column a nova coordenada da coluna
-	 */
-	public void setValues(int row, int column) {
-		this.row = row;
-		this.colunm = column;
-	}
-
 }// class Position
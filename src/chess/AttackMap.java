@@ -0,0 +1,230 @@
+package chess;
+
+import java.util.Arrays;
+
+import boardgame.Board;
+import util.Pieces;
+
+/**
+ * Mapas de ataque das duas cores: para cada casa, quantas peças de cada cor a
+ * atacam. Uma casa ocupada por peça da mesma cor também conta como atacada
+ * (defendida), e os peões atacam apenas na diagonal.
+ *
+ * Os mapas são atualizados a cada movimento em vez de recalculados: antes da
+ * alteração, removem-se os ataques das peças nas casas alteradas e das peças de
+ * longo alcance (bispo, torre e rainha) cujos raios alcançam essas casas; depois
+ * dela, os ataques das mesmas peças são somados de novo. As demais peças não
+ * mudam de ataques, pois os seus raios não passam pelas casas alteradas.
+ *
+ * As casas são indexadas por linha * 8 + coluna do tabuleiro (a8 = 0).
+ */
+final class AttackMap {
+
+	private static final int SIZE = 8;
+
+	private static final int[][] KNIGHT_STEPS = { { -2, -1 }, { -2, 1 }, { -1, -2 }, { -1, 2 }, { 1, -2 }, { 1, 2 },
+			{ 2, -1 }, { 2, 1 } };
+	private static final int[][] KING_STEPS = { { -1, -1 }, { -1, 0 }, { -1, 1 }, { 0, -1 }, { 0, 1 }, { 1, -1 },
+			{ 1, 0 }, { 1, 1 } };
+	private static final int[][] ORTHOGONAL = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+	private static final int[][] DIAGONAL = { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+
+	private final Board board;
+	private final int[][] counts = new int[2][SIZE * SIZE];
+
+	// Peças de longo alcance afetadas pela atualização em andamento
+	private final int[] sliders = new int[32];
+	private int sliderCount;
+	private final int[] changed = new int[4];
+	private int changedCount;
+
+	AttackMap(Board board) {
+		this.board = board;
+	}
+
+	/**
+	 * Retorna o número de peças da cor especificada que atacam uma casa.
+	 */
+	int count(Color color, int square) {
+		return counts[color.ordinal()][square];
+	}
+
+	/**
+	 * Recalcula os mapas a partir de todas as peças do tabuleiro.
+	 */
+	void rebuild() {
+
+		for (int[] map : counts)
+			Arrays.fill(map, 0);
+
+		for (int square = 0; square < SIZE * SIZE; square++)
+			apply(square, 1);
+	}
+
+	/**
+	 * Inicia a atualização de uma alteração no tabuleiro, removendo os ataques
+	 * que podem mudar. Deve ser chamado antes da alteração e seguido de
+	 * {@link #endUpdate()}.
+	 *
+	 * As casas cuja ocupação vai mudar são informadas nos parâmetros; -1 indica
+	 * casa não usada e casas extras são permitidas.
+	 */
+	void beginUpdate(int first, int second, int third, int fourth) {
+
+		changedCount = 0;
+		sliderCount = 0;
+
+		addChanged(first);
+		addChanged(second);
+		addChanged(third);
+		addChanged(fourth);
+
+		for (int i = 0; i < changedCount; i++)
+			collectSliders(changed[i]);
+
+		for (int i = 0; i < changedCount; i++)
+			apply(changed[i], -1);
+
+		for (int i = 0; i < sliderCount; i++)
+			apply(sliders[i], -1);
+	}
+
+	/**
+	 * Conclui a atualização iniciada por beginUpdate, somando os ataques das
+	 * peças afetadas na nova posição.
+	 */
+	void endUpdate() {
+
+		for (int i = 0; i < changedCount; i++)
+			apply(changed[i], 1);
+
+		for (int i = 0; i < sliderCount; i++)
+			apply(sliders[i], 1);
+	}
+
+	private void addChanged(int square) {
+		if (square >= 0 && !contains(changed, changedCount, square))
+			changed[changedCount++] = square;
+	}
+
+	/**
+	 * Guarda as peças de longo alcance, fora das casas alteradas, cujos raios
+	 * alcançam a casa especificada.
+	 */
+	private void collectSliders(int square) {
+
+		int row = square / SIZE;
+		int column = square % SIZE;
+
+		for (int[] step : ORTHOGONAL)
+			collectSlider(row, column, step, Pieces.ROOK);
+
+		for (int[] step : DIAGONAL)
+			collectSlider(row, column, step, Pieces.BISHOP);
+	}
+
+	private void collectSlider(int row, int column, int[] step, Pieces type) {
+
+		int r = row + step[0];
+		int c = column + step[1];
+
+		while (inside(r, c)) {
+
+			ChessPiece piece = (ChessPiece) board.piece(r, c);
+
+			if (piece != null) {
+
+				int square = r * SIZE + c;
+
+				if ((piece.getType() == type || piece.getType() == Pieces.QUEEN)
+						&& !contains(changed, changedCount, square) && !contains(sliders, sliderCount, square))
+					sliders[sliderCount++] = square;
+				return;
+			}
+
+			r += step[0];
+			c += step[1];
+		}
+	}
+
+	/**
+	 * Soma (ou subtrai) os ataques da peça de uma casa, se houver.
+	 */
+	private void apply(int square, int delta) {
+
+		int row = square / SIZE;
+		int column = square % SIZE;
+		ChessPiece piece = (ChessPiece) board.piece(row, column);
+
+		if (piece == null)
+			return;
+
+		int[] map = counts[piece.getColor().ordinal()];
+
+		switch (piece.getType()) {
+		case PAWN:
+			int forward = (piece.getColor() == Color.WHITE) ? -1 : 1;
+			step(map, row + forward, column - 1, delta);
+			step(map, row + forward, column + 1, delta);
+			break;
+		case KNIGHT:
+			for (int[] s : KNIGHT_STEPS)
+				step(map, row + s[0], column + s[1], delta);
+			break;
+		case KING:
+			for (int[] s : KING_STEPS)
+				step(map, row + s[0], column + s[1], delta);
+			break;
+		case BISHOP:
+			rays(map, row, column, DIAGONAL, delta);
+			break;
+		case ROOK:
+			rays(map, row, column, ORTHOGONAL, delta);
+			break;
+		default:
+			rays(map, row, column, DIAGONAL, delta);
+			rays(map, row, column, ORTHOGONAL, delta);
+			break;
+		}
+	}
+
+	private void step(int[] map, int row, int column, int delta) {
+		if (inside(row, column))
+			map[row * SIZE + column] += delta;
+	}
+
+	private void rays(int[] map, int row, int column, int[][] steps, int delta) {
+
+		for (int[] s : steps) {
+
+			int r = row + s[0];
+			int c = column + s[1];
+
+			while (inside(r, c)) {
+
+				map[r * SIZE + c] += delta;
+
+				if (board.piece(r, c) != null)
+					break;
+
+				r += s[0];
+				c += s[1];
+			}
+		}
+	}
+
+	private static boolean inside(int row, int column) {
+		return row >= 0 && row < SIZE && column >= 0 && column < SIZE;
+	}
+
+	private static boolean contains(int[] values, int count, int value) {
+
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value)
+				return true;
+		}
+
+		return false;
+	}
+
+}// class AttackMap
@@ -1,12 +1,7 @@
 package chess;
 
-import static util.Messages.MSG_ERROR_CANT_MOVE_TOPOSITION;
+import static util.Messages.MSG_ERROR_INVALID_FEN;
 import static util.Messages.MSG_ERROR_KING_COLOR;
-import static util.Messages.MSG_ERROR_NOT_CHECK;
-import static util.Messages.MSG_ERROR_NOT_PIECE_PROMOTED;
-import static util.Messages.MSG_ERROR_NOT_PIECE_SOURCE;
-import static util.Messages.MSG_ERROR_NOT_POSSIBLE_MOVES;
-import static util.Messages.MSG_ERROR_PIECE_NOT_YOURS;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +11,12 @@ import java.util.stream.Collectors;
 import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
+import chess.archive.MoveCodec;
+import chess.jfr.CheckMateTestEvent;
+import chess.jfr.CheckTestEvent;
+import chess.jfr.MoveValidationEvent;
+import chess.jfr.PromotionEvent;
+import chess.metrics.MatchMetrics;
 import chess.pieces.Bishop;
 import chess.pieces.King;
 import chess.pieces.Knight;
@@ -29,9 +30,14 @@ import util.Pieces;
  */
 public class ChessMatch {
 
+	private static final int HISTORY_SIZE = 128;
+	private static final int HISTORY_MASK = HISTORY_SIZE - 1;
+	private static final int FIFTY_MOVE_PLIES = 100;
+
 	private int turn;
 	private Color currentPlayer;
 	private Board board;
+	private AttackMap attacks;
 	private boolean check;
 	private boolean checkMate;
 	private ChessPiece enPassantVulnerable;
@@ -40,12 +46,39 @@ public class ChessMatch {
 	private List<Piece> piecesOnTheBoard;
 	private List<Piece> capturedPieces;
 
+	private long positionKey;
+	private long pawnKey;
+
+	private long legalMovesKey;
+	private Color legalMovesColor;
+	private boolean[][][] legalMoves;
+	private int[] legalMoveCounts;
+	private int legalMoveTotal;
+
+	private final long[] keyHistory = new long[HISTORY_SIZE];
+	private int historyCount;
+	private int halfmoveClock;
+	private int reversiblePlies;
+	private DrawReason drawReason;
+
+	private boolean replayMode;
+	private boolean checkPending;
+	private boolean statusPending;
+
+	private MatchJournal journal;
+
+	private ChessPiece lastCapturedPiece;
+
+	private SearchState[] searchStack = new SearchState[0];
+	private int searchDepth;
+
 	/**
 	 * Constrói uma nova partida de xadrez e inicializa o tabuleiro e as peças.
 	 */
 	public ChessMatch() {
 
 		board = new Board(8, 8);
+		attacks = new AttackMap(board);
 		turn = 1;
 		currentPlayer = Color.WHITE;
 		check = false;
@@ -54,6 +87,115 @@ public class ChessMatch {
 		capturedPieces = new ArrayList<>();
 
 		initialSetup();
+		attacks.rebuild();
+
+		positionKey = computePositionKey(currentPlayer);
+		pawnKey = computePawnKey();
+		keyHistory[historyCount++ & HISTORY_MASK] = positionKey;
+	}
+
+	/**
+	 * Constrói uma cópia independente de uma partida, com novas peças nas mesmas
+	 * casas e o mesmo estado (jogador atual, direitos de roque, en passant e
+	 * histórico de posições). A cópia não tem journal e não está no modo de
+	 * reprodução; é usada para analisar a posição sem alterar a partida original.
+	 * 
+	 * @param other a partida a ser copiada
+	 */
+	public ChessMatch(ChessMatch other) {
+
+		board = new Board(8, 8);
+		attacks = new AttackMap(board);
+		turn = other.turn;
+		currentPlayer = other.currentPlayer;
+		check = other.check;
+		checkMate = other.checkMate;
+		checkPending = other.checkPending;
+		statusPending = other.statusPending;
+
+		piecesOnTheBoard = new ArrayList<>();
+		capturedPieces = new ArrayList<>();
+
+		for (Piece piece : other.piecesOnTheBoard) {
+
+			ChessPiece original = (ChessPiece) piece;
+			ChessPiece copy = newPiece(original.getType(), original.getColor());
+
+			for (int i = 0; i < original.getMoveCount(); i++)
+				copy.increaseMoveCount();
+
+			board.placePiece(copy, original.getChessPosition().toPosition());
+			piecesOnTheBoard.add(copy);
+
+			if (original == other.enPassantVulnerable)
+				enPassantVulnerable = copy;
+			if (original == other.promoted)
+				promoted = copy;
+		}
+
+		attacks.rebuild();
+
+		positionKey = other.positionKey;
+		pawnKey = other.pawnKey;
+		System.arraycopy(other.keyHistory, 0, keyHistory, 0, HISTORY_SIZE);
+		historyCount = other.historyCount;
+		halfmoveClock = other.halfmoveClock;
+		reversiblePlies = other.reversiblePlies;
+		drawReason = other.drawReason;
+	}
+
+	/**
+	 * Constrói uma partida a partir de uma posição em notação FEN. Os campos do
+	 * relógio de meios-lances e do número do lance são opcionais. Como não há
+	 * histórico, a repetição só é contada a partir desta posição.
+	 * 
+	 * @param fen a posição em notação FEN
+	 * @throws ChessException se a notação for inválida
+	 */
+	public ChessMatch(String fen) {
+
+		board = new Board(8, 8);
+		attacks = new AttackMap(board);
+		piecesOnTheBoard = new ArrayList<>();
+		capturedPieces = new ArrayList<>();
+
+		String[] fields = fen.trim().split("\\s+");
+
+		if (fields.length < 4 || fields.length > 6)
+			throw invalidFen(fen, "fields");
+
+		placeFenPieces(fen, fields[0]);
+
+		if (fields[1].equals("w"))
+			currentPlayer = Color.WHITE;
+		else if (fields[1].equals("b"))
+			currentPlayer = Color.BLACK;
+		else
+			throw invalidFen(fen, "side to move");
+
+		setFenCastlingRights(fen, fields[2]);
+		setFenEnPassant(fen, fields[3]);
+		attacks.rebuild();
+
+		try {
+			halfmoveClock = (fields.length > 4) ? Integer.parseInt(fields[4]) : 0;
+			int fullmove = (fields.length > 5) ? Integer.parseInt(fields[5]) : 1;
+			if (halfmoveClock < 0 || fullmove < 1)
+				throw invalidFen(fen, "move counters");
+			turn = 2 * (fullmove - 1) + ((currentPlayer == Color.WHITE) ? 1 : 2);
+		} catch (NumberFormatException e) {
+			throw invalidFen(fen, "move counters");
+		}
+
+		if (testCheck(opponent(currentPlayer)))
+			throw invalidFen(fen, "side not to move in check");
+
+		positionKey = computePositionKey(currentPlayer);
+		pawnKey = computePawnKey();
+		keyHistory[historyCount++ & HISTORY_MASK] = positionKey;
+
+		checkPending = true;
+		statusPending = true;
 	}
 
 	public int getTurn() {
@@ -65,13 +207,59 @@ public class ChessMatch {
 	}
 
 	public boolean isCheck() {
+		resolveCheck();
 		return check;
 	}
 
 	public boolean isCheckMate() {
+		resolveStatus();
 		return checkMate;
 	}
 
+	public boolean isDraw() {
+		resolveStatus();
+		return drawReason != null;
+	}
+
+	public DrawReason getDrawReason() {
+		resolveStatus();
+		return drawReason;
+	}
+
+	public boolean isReplayMode() {
+		return replayMode;
+	}
+
+	/**
+	 * Ativa ou desativa o modo de reprodução, usado para aplicar em lote partidas
+	 * já validadas (arquivo e journal). Nesse modo um movimento só é verificado
+	 * contra os movimentos possíveis da peça, sem testar se deixa o rei em xeque,
+	 * e o xeque, o xeque-mate e o empate só são calculados quando consultados.
+	 * 
+	 * Enquanto o estado não é consultado o turno sempre passa ao oponente; ao
+	 * detectar o xeque-mate o jogador atual volta a ser o vencedor, como no modo
+	 * normal.
+	 * 
+	 * @param replayMode true para ativar o modo de reprodução
+	 */
+	public void setReplayMode(boolean replayMode) {
+		this.replayMode = replayMode;
+	}
+
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+
+	/**
+	 * Define o journal que registra os movimentos da partida antes de serem
+	 * aplicados.
+	 * 
+	 * @param journal o journal da partida, ou null para não registrar
+	 */
+	public void setJournal(MatchJournal journal) {
+		this.journal = journal;
+	}
+
 	public ChessPiece getEnPassantVulnerable() {
 		return enPassantVulnerable;
 	}
@@ -80,6 +268,112 @@ public class ChessMatch {
 		return promoted;
 	}
 
+	public ChessPiece getLastCapturedPiece() {
+		return lastCapturedPiece;
+	}
+
+	/**
+	 * Retorna o hash Zobrist da posição atual, incluindo o lado a jogar, os
+	 * direitos de roque e a coluna de en passant.
+	 * 
+	 * @return a chave da posição atual
+	 */
+	public long getPositionKey() {
+		return positionKey;
+	}
+
+	/**
+	 * Retorna o hash Zobrist apenas dos peões do tabuleiro, que identifica a
+	 * estrutura de peões da posição. É atualizado a cada movimento de peão,
+	 * captura de peão e promoção.
+	 * 
+	 * @return a chave da estrutura de peões
+	 */
+	public long getPawnKey() {
+		return pawnKey;
+	}
+
+	/**
+	 * Retorna o número de peças da cor especificada que atacam uma casa. Uma peça
+	 * da mesma cor na casa conta como defendida. A consulta não gera movimentos:
+	 * os mapas de ataque são mantidos a cada movimento.
+	 * 
+	 * @param position a casa consultada
+	 * @param color    a cor das peças atacantes
+	 * @return o número de atacantes
+	 */
+	public int getAttackCount(ChessPosition position, Color color) {
+		return attacks.count(color, position.toPosition().getIndex());
+	}
+
+	/**
+	 * Retorna a posição atual em notação FEN, no formato aceito pelo construtor
+	 * ChessMatch(String). A casa de en passant é informada sempre que um peão
+	 * acabou de avançar duas casas.
+	 * 
+	 * @return a posição em notação FEN
+	 */
+	public String getFen() {
+
+		StringBuilder fen = new StringBuilder();
+
+		for (int i = 0; i < board.getRows(); i++) {
+
+			int empty = 0;
+
+			for (int j = 0; j < board.getColumns(); j++) {
+
+				ChessPiece piece = (ChessPiece) board.piece(i, j);
+
+				if (piece == null) {
+					empty++;
+					continue;
+				}
+
+				if (empty > 0)
+					fen.append(empty);
+				empty = 0;
+
+				String acronym = piece.getType().getAcronym();
+				fen.append((piece.getColor() == Color.WHITE) ? acronym : acronym.toLowerCase());
+			}
+
+			if (empty > 0)
+				fen.append(empty);
+			if (i < board.getRows() - 1)
+				fen.append('/');
+		}
+
+		fen.append((currentPlayer == Color.WHITE) ? " w " : " b ");
+
+		int rights = castlingRights();
+		if (rights == 0)
+			fen.append('-');
+		if ((rights & Zobrist.CASTLE_WHITE_KINGSIDE) != 0)
+			fen.append('K');
+		if ((rights & Zobrist.CASTLE_WHITE_QUEENSIDE) != 0)
+			fen.append('Q');
+		if ((rights & Zobrist.CASTLE_BLACK_KINGSIDE) != 0)
+			fen.append('k');
+		if ((rights & Zobrist.CASTLE_BLACK_QUEENSIDE) != 0)
+			fen.append('q');
+
+		fen.append(' ');
+
+		if (enPassantVulnerable == null) {
+			fen.append('-');
+		} else {
+			// A casa de captura fica atrás do peão que avançou
+			ChessPosition pawn = enPassantVulnerable.getChessPosition();
+			int rank = pawn.getRow() + ((enPassantVulnerable.getColor() == Color.WHITE) ? -1 : 1);
+			fen.append(pawn.getColumn()).append(rank);
+		}
+
+		fen.append(' ').append(halfmoveClock).append(' ').append((turn + 1) / 2);
+
+		return fen.toString();
+	}
+
 	/**
 	 * Retorna uma matriz de peças de xadrez representando o estado atual do
 	 * tabuleiro.
@@ -88,6 +382,8 @@ public class ChessMatch {
 	 */
 	public ChessPiece[][] getPieces() {
 
+		MatchMetrics.getPieces();
+
 		ChessPiece[][] matrix = new ChessPiece[board.getRows()][board.getColumns()];
 
 		for (int i = 0; i < board.getRows(); i++) {
@@ -99,8 +395,35 @@ public class ChessMatch {
 	}
 
 	/**
-	 * Retorna uma matriz de booleanos representando os movimentos possíveis para
-	 * uma peça na posição de origem especificada.
+	 * Copia as peças do tabuleiro para uma matriz 8x8 existente, sem alocar e sem
+	 * contar a consulta nas métricas. Usado pela busca, que consulta o tabuleiro
+	 * em todos os nós.
+	 * 
+	 * @param matrix a matriz que recebe as peças
+	 * @return as casas ocupadas, um bit por casa (linha * 8 + coluna, a8 = 0)
+	 */
+	public long copyPieces(ChessPiece[][] matrix) {
+
+		long occupied = 0L;
+
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+
+				ChessPiece piece = (ChessPiece) board.piece(i, j);
+				matrix[i][j] = piece;
+
+				if (piece != null)
+					occupied |= 1L << (i * 8 + j);
+			}
+		}
+
+		return occupied;
+	}
+
+	/**
+	 * Retorna uma matriz de booleanos representando os movimentos legais para uma
+	 * peça na posição de origem especificada. Movimentos que deixam o próprio rei
+	 * em xeque não são incluídos.
 	 * 
 	 * @param sourcePosition a posição de origem
 	 * @return uma matriz de booleanos dos movimentos possíveis
@@ -108,9 +431,303 @@ public class ChessMatch {
 	public boolean[][] possibleMoves(ChessPosition sourcePosition) {
 
 		Position position = sourcePosition.toPosition();
-		validadeSourcePosition(position);
+		MoveStatus status = validadeSourcePosition(position);
+
+		if (status != MoveStatus.OK)
+			throw new ChessException(status.getMessage());
+
+		boolean[][] matrix = legalMoves[position.getIndex()];
+		boolean[][] copy = new boolean[matrix.length][];
+
+		for (int i = 0; i < matrix.length; i++)
+			copy[i] = matrix[i].clone();
+
+		return copy;
+	}
+
+	/**
+	 * Verifica se o jogador atual possui pelo menos um movimento legal.
+	 * 
+	 * @return true se houver algum movimento legal, false caso contrário
+	 */
+	public boolean isThereAnyLegalMove() {
+		ensureLegalMoves(currentPlayer);
+		return legalMoveTotal > 0;
+	}
+
+	/**
+	 * Preenche o vetor com os movimentos legais do jogador atual, codificados com
+	 * MoveCodec. Um movimento de promoção aparece uma vez para cada peça de
+	 * promoção (Q, R, B e N).
+	 * 
+	 * @param moves o vetor que recebe os movimentos (256 posições bastam)
+	 * @return o número de movimentos legais
+	 */
+	public int legalMoves(short[] moves) {
+
+		ensureLegalMoves(currentPlayer);
+
+		int count = 0;
+
+		for (int square = 0; square < legalMoveCounts.length; square++) {
+
+			if (legalMoveCounts[square] == 0)
+				continue;
+
+			ChessPosition source = ChessPosition.of(square);
+			boolean pawn = board.piece(Position.of(square)) instanceof Pawn;
+			boolean[][] matrix = legalMoves[square];
+
+			for (int i = 0; i < matrix.length; i++) {
+				for (int j = 0; j < matrix[i].length; j++) {
+
+					if (!matrix[i][j])
+						continue;
+
+					ChessPosition target = ChessPosition.of(i * board.getColumns() + j);
 
-		return board.piece(position).possibleMoves();
+					if (pawn && (i == 0 || i == board.getRows() - 1)) {
+						moves[count++] = MoveCodec.encode(source, target, Pieces.QUEEN);
+						moves[count++] = MoveCodec.encode(source, target, Pieces.ROOK);
+						moves[count++] = MoveCodec.encode(source, target, Pieces.BISHOP);
+						moves[count++] = MoveCodec.encode(source, target, Pieces.KNIGHT);
+					} else {
+						moves[count++] = MoveCodec.encode(source, target, null);
+					}
+				}
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Executa um movimento legal durante uma busca, sem validação, sem journal e
+	 * sem métricas de tempo. Como no modo de reprodução, o xeque, o xeque-mate e o
+	 * empate só são calculados quando consultados. O movimento deve ser desfeito
+	 * com undoSearchMove, na ordem inversa.
+	 * 
+	 * @param move o movimento codificado com MoveCodec (promoção nula vale Rainha)
+	 */
+	public void makeSearchMove(short move) {
+
+		SearchState state = pushSearchState();
+
+		Position source = MoveCodec.toChessPosition(MoveCodec.source(move)).toPosition();
+		Position target = MoveCodec.toChessPosition(MoveCodec.target(move)).toPosition();
+		Pieces promotion = MoveCodec.promotion(move);
+
+		state.save(this, source, target);
+
+		Piece capturedPiece = applyMove(source, target,
+				isPromotion(source, target) ? (promotion == null ? Pieces.QUEEN : promotion) : null);
+
+		state.capturedPiece = capturedPiece;
+		lastCapturedPiece = (ChessPiece) capturedPiece;
+
+		nextTurn();
+		checkMate = false;
+		drawReason = null;
+		checkPending = true;
+		statusPending = true;
+	}
+
+	/**
+	 * Desfaz o último movimento executado com makeSearchMove.
+	 */
+	public void undoSearchMove() {
+
+		SearchState state = searchStack[--searchDepth];
+
+		if (promoted != null) {
+			attacks.beginUpdate(state.target.getIndex(), -1, -1, -1);
+			board.removePiece(state.target);
+			piecesOnTheBoard.remove(promoted);
+			board.placePiece(state.movedPiece, state.target);
+			piecesOnTheBoard.add(state.movedPiece);
+			attacks.endUpdate();
+			togglePawn(state.movedPiece, state.target);
+		}
+
+		enPassantVulnerable = state.enPassantVulnerable;
+		undoMove(state.source, state.target, state.capturedPiece);
+
+		historyCount--;
+		state.restore(this);
+	}
+
+	/**
+	 * Verifica se um movimento legal dá xeque, sem executá-lo. O xeque direto é
+	 * testado pela geometria da peça na casa de destino. O descoberto só é
+	 * procurado quando a casa de origem está alinhada com o rei do oponente e é
+	 * atacada por alguma peça do jogador, segundo os mapas de ataque. O roque e o
+	 * en passant, que alteram outras casas, são executados e desfeitos.
+	 * 
+	 * @param move o movimento codificado com MoveCodec (promoção nula vale Rainha)
+	 * @return true se o movimento deixar o oponente em xeque
+	 */
+	public boolean givesCheck(short move) {
+
+		Position source = MoveCodec.toChessPosition(MoveCodec.source(move)).toPosition();
+		Position target = MoveCodec.toChessPosition(MoveCodec.target(move)).toPosition();
+		ChessPiece piece = (ChessPiece) board.piece(source);
+		Pieces type = piece.getType();
+		int columnDelta = target.getColumn() - source.getColumn();
+
+		if ((type == Pieces.KING && Math.abs(columnDelta) == 2)
+				|| (type == Pieces.PAWN && columnDelta != 0 && !board.thereIsAPiece(target))) {
+			makeSearchMove(move);
+			boolean check = isCheck();
+			undoSearchMove();
+			return check;
+		}
+
+		if (isPromotion(source, target))
+			type = (MoveCodec.promotion(move) == null) ? Pieces.QUEEN : MoveCodec.promotion(move);
+
+		Position king = king(opponent(piece.getColor())).getChessPosition().toPosition();
+
+		if (attacksKing(type, piece.getColor(), target, king, source))
+			return true;
+
+		return aligned(king, source) && attacks.count(piece.getColor(), source.getIndex()) > 0
+				&& discoversCheck(piece.getColor(), king, source, target);
+	}
+
+	/**
+	 * Verifica se uma peça na casa de destino ataca o rei, considerando vazia a
+	 * casa de origem do movimento.
+	 */
+	private boolean attacksKing(Pieces type, Color color, Position target, Position king, Position source) {
+
+		int rows = king.getRow() - target.getRow();
+		int columns = king.getColumn() - target.getColumn();
+
+		switch (type) {
+		case PAWN:
+			return rows == ((color == Color.WHITE) ? -1 : 1) && Math.abs(columns) == 1;
+		case KNIGHT:
+			return Math.abs(rows * columns) == 2;
+		case BISHOP:
+			return Math.abs(rows) == Math.abs(columns) && isClear(target, king, source);
+		case ROOK:
+			return (rows == 0 || columns == 0) && isClear(target, king, source);
+		case QUEEN:
+			return aligned(target, king) && isClear(target, king, source);
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Verifica se, ao sair da casa de origem, a peça abre o raio de um bispo,
+	 * torre ou rainha do jogador até o rei do oponente.
+	 */
+	private boolean discoversCheck(Color color, Position king, Position source, Position target) {
+
+		int rowStep = Integer.signum(source.getRow() - king.getRow());
+		int columnStep = Integer.signum(source.getColumn() - king.getColumn());
+		int row = king.getRow() + rowStep;
+		int column = king.getColumn() + columnStep;
+
+		for (; row >= 0 && row < 8 && column >= 0 && column < 8; row += rowStep, column += columnStep) {
+
+			if (row == target.getRow() && column == target.getColumn())
+				return false;
+			if (row == source.getRow() && column == source.getColumn())
+				continue;
+
+			ChessPiece piece = (ChessPiece) board.piece(row, column);
+
+			if (piece != null)
+				return piece.getColor() == color && (piece.getType() == Pieces.QUEEN
+						|| piece.getType() == ((rowStep == 0 || columnStep == 0) ? Pieces.ROOK : Pieces.BISHOP));
+		}
+
+		return false;
+	}
+
+	/**
+	 * Verifica se as casas entre duas casas alinhadas estão vazias, exceto pela
+	 * casa que está sendo desocupada.
+	 */
+	private boolean isClear(Position from, Position to, Position vacated) {
+
+		int rowStep = Integer.signum(to.getRow() - from.getRow());
+		int columnStep = Integer.signum(to.getColumn() - from.getColumn());
+		int row = from.getRow() + rowStep;
+		int column = from.getColumn() + columnStep;
+
+		for (; row != to.getRow() || column != to.getColumn(); row += rowStep, column += columnStep) {
+			if (board.piece(row, column) != null && (row != vacated.getRow() || column != vacated.getColumn()))
+				return false;
+		}
+
+		return true;
+	}
+
+	private static boolean aligned(Position first, Position second) {
+
+		int rows = first.getRow() - second.getRow();
+		int columns = first.getColumn() - second.getColumn();
+
+		return (rows == 0 || columns == 0 || Math.abs(rows) == Math.abs(columns)) && (rows != 0 || columns != 0);
+	}
+
+	/**
+	 * Passa a vez ao oponente sem mover nenhuma peça (lance nulo), para a poda
+	 * por lance nulo da busca. O en passant deixa de valer e as posições
+	 * anteriores não contam para a repetição. Deve ser desfeito com
+	 * undoNullMove, na ordem inversa dos demais movimentos de busca.
+	 */
+	public void makeNullMove() {
+
+		SearchState state = pushSearchState();
+		state.save(this, null, null);
+
+		positionKey ^= Zobrist.side();
+		if (enPassantVulnerable != null)
+			positionKey ^= Zobrist.enPassant(enPassantVulnerable.getChessPosition().getColumn() - 'a');
+
+		enPassantVulnerable = null;
+		promoted = null;
+		halfmoveClock++;
+		reversiblePlies = 0;
+		keyHistory[historyCount++ & HISTORY_MASK] = positionKey;
+		lastCapturedPiece = null;
+
+		nextTurn();
+		checkMate = false;
+		drawReason = null;
+		checkPending = true;
+		statusPending = true;
+	}
+
+	/**
+	 * Desfaz o último lance nulo executado com makeNullMove.
+	 */
+	public void undoNullMove() {
+
+		SearchState state = searchStack[--searchDepth];
+
+		historyCount--;
+		state.restore(this);
+	}
+
+	/**
+	 * Reserva o estado do próximo movimento de busca na pilha.
+	 * 
+	 * @return o estado reservado
+	 */
+	private SearchState pushSearchState() {
+
+		if (searchDepth == searchStack.length) {
+			searchStack = Arrays.copyOf(searchStack, Math.max(16, searchDepth * 2));
+			for (int i = searchDepth; i < searchStack.length; i++)
+				searchStack[i] = new SearchState();
+		}
+
+		return searchStack[searchDepth++];
 	}
 
 	/**
@@ -120,40 +737,165 @@ public class ChessMatch {
 	 * @param sourcePosition a posição de origem
 	 * @param targetPosition a posição de destino
 	 * @return a peça capturada durante o movimento, se houver
+	 * @throws ChessException se o movimento não for válido
 	 */
 	public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
+		return performChessMove(sourcePosition, targetPosition, null);
+	}
+
+	/**
+	 * Executa um movimento de xadrez, promovendo o peão para a peça especificada
+	 * caso ele alcance a última linha. A troca do peão e o cálculo de xeque e
+	 * xeque-mate são feitos uma única vez, já com a peça escolhida.
+	 * 
+	 * @param sourcePosition a posição de origem
+	 * @param targetPosition a posição de destino
+	 * @param promotion      a peça de promoção (B, N, R ou Q), ou null para Rainha
+	 * @return a peça capturada durante o movimento, se houver
+	 * @throws ChessException se o movimento não for válido
+	 */
+	public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition,
+			Pieces promotion) {
+
+		MoveStatus status = tryMove(sourcePosition, targetPosition, promotion);
+
+		if (status != MoveStatus.OK)
+			throw new ChessException(status.getMessage());
+
+		return lastCapturedPiece;
+	}
+
+	/**
+	 * Verifica se um movimento é válido e promove um peão, ou seja, se a peça de
+	 * promoção deve ser escolhida antes de executá-lo.
+	 * 
+	 * @param sourcePosition a posição de origem
+	 * @param targetPosition a posição de destino
+	 * @return true se o movimento for válido e promover um peão
+	 */
+	public boolean isPromotionMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
 
 		Position source = sourcePosition.toPosition();
 		Position target = targetPosition.toPosition();
 
-		validadeSourcePosition(source);
-		validadeTargetPosition(source, target);
+		return validadeSourcePosition(source) == MoveStatus.OK
+				&& validadeTargetPosition(source, target) == MoveStatus.OK && isPromotion(source, target);
+	}
+
+	/**
+	 * Tenta executar um movimento de xadrez sem lançar exceções. Um movimento
+	 * inválido não altera a partida e é informado apenas pelo código de retorno,
+	 * sem construção de exceções ou mensagens. A peça capturada por um movimento
+	 * executado fica disponível em getLastCapturedPiece().
+	 * 
+	 * @param sourcePosition a posição de origem
+	 * @param targetPosition a posição de destino
+	 * @param promotion      a peça de promoção, caso o movimento promova um peão
+	 *                       (null para Rainha)
+	 * @return MoveStatus.OK se o movimento foi executado, ou o motivo da recusa
+	 */
+	public MoveStatus tryMove(ChessPosition sourcePosition, ChessPosition targetPosition, Pieces promotion) {
+
+		if (!MatchMetrics.ENABLED)
+			return executeChessMove(sourcePosition, targetPosition, promotion);
+
+		long start = System.nanoTime();
+
+		try {
+			return executeChessMove(sourcePosition, targetPosition, promotion);
+		} finally {
+			MatchMetrics.performChessMove(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Valida e executa um movimento de xadrez, atualizando o estado da partida.
+	 * 
+	 * @param sourcePosition a posição de origem
+	 * @param targetPosition a posição de destino
+	 * @param promotion      a peça de promoção, ou null para Rainha
+	 * @return MoveStatus.OK se o movimento foi executado, ou o motivo da recusa
+	 */
+	private MoveStatus executeChessMove(ChessPosition sourcePosition, ChessPosition targetPosition,
+			Pieces promotion) {
+
+		Position source = sourcePosition.toPosition();
+		Position target = targetPosition.toPosition();
+
+		MoveStatus status;
+
+		if (replayMode) {
+			status = validadeReplayMove(source, target);
+		} else {
+			resolveStatus();
+
+			status = validadeSourcePosition(source);
+
+			if (status == MoveStatus.OK)
+				status = validadeTargetPosition(source, target);
+		}
+
+		if (status != MoveStatus.OK)
+			return status;
+
+		boolean promotes = isPromotion(source, target);
+
+		if (promotes && promotion != null && !promotion.isPromotionPiece())
+			return MoveStatus.INVALID_PROMOTION_PIECE;
+
+		Pieces promotionType = promotes ? (promotion == null ? Pieces.QUEEN : promotion) : null;
+
+		if (journal != null)
+			journal.recordMove(sourcePosition, targetPosition, promotionType);
+
+		Piece capturedPiece = applyMove(source, target, promotionType);
+
+		lastCapturedPiece = (ChessPiece) capturedPiece;
+
+		if (replayMode) {
+			nextTurn();
+			checkPending = true;
+			statusPending = true;
+			return MoveStatus.OK;
+		}
+
+		check = (testCheck(opponent(currentPlayer))) ? true : false;
+
+		if (testCheckMate(opponent(currentPlayer))) {
+			checkMate = true;
+		} else {
+			nextTurn();
+			drawReason = testDraw();
+		}
+
+		if (journal != null && (checkMate || drawReason != null))
+			journal.recordEnd();
+
+		return MoveStatus.OK;
+	}
+
+	/**
+	 * Aplica um movimento ao tabuleiro, trocando o peão promovido e atualizando o
+	 * en passant, a chave da posição, os contadores de meios-lances e o histórico
+	 * de chaves. O jogador atual não é trocado.
+	 * 
+	 * @param source        a posição de origem
+	 * @param target        a posição de destino
+	 * @param promotionType a peça de promoção, ou null se o movimento não promove
+	 * @return a peça capturada, se houver
+	 */
+	private Piece applyMove(Position source, Position target, Pieces promotionType) {
+
+		int castlingRightsBefore = castlingRights();
 
 		Piece capturedPiece = makeMove(source, target);
 
-		if (testCheck(currentPlayer)) {
-			undoMove(source, target, capturedPiece);
-			throw new ChessException(MSG_ERROR_NOT_CHECK);
-		}
-
 		ChessPiece movedPiece = (ChessPiece) board.piece(target);
 
 		// #specialmove promotion
 		promoted = null;
-		if (movedPiece instanceof Pawn) {
-			if ((movedPiece.getColor() == Color.WHITE && target.getRow() == 0)
-					|| (movedPiece.getColor() == Color.BLACK && target.getRow() == 7)) {
-				promoted = (ChessPiece) board.piece(target);
-				promoted = replacePromotedPiece("Q");
-			}
-		}
-
-		check = (testCheck(opponent(currentPlayer))) ? true : false;
-
-		if (testCheckMate(opponent(currentPlayer)))
-			checkMate = true;
-		else
-			nextTurn();
+		if (promotionType != null)
+			promoted = placePromotedPiece(target, promotionType);
 
 		// #specialmove en passant
 		if (movedPiece instanceof Pawn
@@ -162,53 +904,89 @@ public class ChessMatch {
 		else
 			enPassantVulnerable = null;
 
-		return (ChessPiece) capturedPiece;
+		positionKey = computePositionKey(opponent(currentPlayer));
+
+		// Irreversible moves: the position before them can never occur again
+		boolean resetsClock = capturedPiece != null || movedPiece instanceof Pawn;
+		halfmoveClock = resetsClock ? 0 : halfmoveClock + 1;
+		reversiblePlies = (resetsClock || castlingRights() != castlingRightsBefore) ? 0 : reversiblePlies + 1;
+		keyHistory[historyCount++ & HISTORY_MASK] = positionKey;
+
+		return capturedPiece;
 	}
 
 	/**
-	 * Substitui a peça promovida durante um movimento especial de promoção.
+	 * Verifica se o movimento leva um peão à última linha do tabuleiro.
 	 * 
-	 * @param type o tipo de peça para a promoção (B, N, R ou Q)
-	 * @return a nova peça promovida
+	 * @param source a posição de origem
+	 * @param target a posição de destino
+	 * @return true se o movimento promove um peão
 	 */
-	public ChessPiece replacePromotedPiece(String type) {
+	private boolean isPromotion(Position source, Position target) {
+
+		ChessPiece piece = (ChessPiece) board.piece(source);
+
+		return piece instanceof Pawn && ((piece.getColor() == Color.WHITE && target.getRow() == 0)
+				|| (piece.getColor() == Color.BLACK && target.getRow() == 7));
+	}
 
-		if (promoted == null)
-			throw new IllegalStateException(MSG_ERROR_NOT_PIECE_PROMOTED);
+	/**
+	 * Troca o peão promovido por uma nova peça do tipo especificado.
+	 * 
+	 * @param position a posição do peão promovido
+	 * @param type     o tipo de peça para a promoção (B, N, R ou Q)
+	 * @return a nova peça promovida
+	 */
+	private ChessPiece placePromotedPiece(Position position, Pieces type) {
 
-		List<String> validPieces = Arrays.asList(Pieces.pieces());
-		if (!validPieces.contains(type))
-			return promoted;
+		PromotionEvent event = new PromotionEvent();
+		event.begin();
 
-		Position pos = promoted.getChessPosition().toPosition();
+		attacks.beginUpdate(position.getIndex(), -1, -1, -1);
 
-		Piece piece = board.removePiece(pos);
-		piecesOnTheBoard.remove(piece);
+		ChessPiece pawn = (ChessPiece) board.removePiece(position);
+		piecesOnTheBoard.remove(pawn);
+		togglePawn(pawn, position);
 
-		ChessPiece newPiece = newPiece(type, promoted.getColor());
-		board.placePiece(newPiece, pos);
+		ChessPiece newPiece = newPiece(type, pawn.getColor());
+		board.placePiece(newPiece, position);
 		piecesOnTheBoard.add(newPiece);
 
+		attacks.endUpdate();
+
+		if (event.shouldCommit()) {
+			event.positionKey = positionKey;
+			event.piecesOnBoard = piecesOnTheBoard.size();
+			event.piece = type.getAcronym();
+			event.commit();
+		}
+
 		return newPiece;
 	}
 
 	/**
 	 * Cria uma nova peça do tipo especificado e cor especificada.
 	 * 
-	 * @param type  o tipo da peça (B, N, R ou Q)
+	 * @param type  o tipo da peça
 	 * @param color a cor da peça
 	 * @return a nova peça criada
 	 */
-	private ChessPiece newPiece(String type, Color color) {
+	private ChessPiece newPiece(Pieces type, Color color) {
 
-		if (type.equals("B"))
+		switch (type) {
+		case BISHOP:
 			return new Bishop(board, color);
-		if (type.equals("N"))
+		case KNIGHT:
 			return new Knight(board, color);
-		if (type.equals("Q"))
+		case QUEEN:
 			return new Queen(board, color);
-
-		return new Rook(board, color);
+		case KING:
+			return new King(board, color, this);
+		case PAWN:
+			return new Pawn(board, color, this);
+		default:
+			return new Rook(board, color);
+		}
 	}
 
 	/**
@@ -221,12 +999,20 @@ public class ChessMatch {
 	 */
 	private Piece makeMove(Position source, Position target) {
 
+		MatchMetrics.makeMove();
+
+		beginAttackUpdate(source, target, (ChessPiece) board.piece(source));
+
 		ChessPiece piece = (ChessPiece) board.removePiece(source);
 		piece.increaseMoveCount();
 
 		Piece capturedPiece = board.removePiece(target);
 		board.placePiece(piece, target);
 
+		togglePawn(piece, source);
+		togglePawn(piece, target);
+		togglePawn(capturedPiece, target);
+
 		if (capturedPiece != null) {
 			piecesOnTheBoard.remove(capturedPiece);
 			capturedPieces.add(capturedPiece);
@@ -236,8 +1022,14 @@ public class ChessMatch {
 		handleCastling(source, target, piece, true);
 
 		// Handle enPassant move
+		Piece targetPiece = capturedPiece;
 		capturedPiece = handleEnPassant(source, target, piece, capturedPiece, null);
 
+		if (capturedPiece != targetPiece)
+			togglePawn(capturedPiece, Position.of(source.getRow(), target.getColumn()));
+
+		attacks.endUpdate();
+
 		return capturedPiece;
 	}
 
@@ -251,6 +1043,10 @@ public class ChessMatch {
 	 */
 	private void undoMove(Position source, Position target, Piece capturedPiece) {
 
+		MatchMetrics.undoMove();
+
+		beginAttackUpdate(source, target, (ChessPiece) board.piece(target));
+
 		ChessPiece piece = (ChessPiece) board.removePiece(target);
 		piece.decreaseMoveCount();
 
@@ -267,6 +1063,53 @@ public class ChessMatch {
 
 		// Handle enPassant move
 		handleEnPassant(source, target, piece, capturedPiece, enPassantVulnerable);
+
+		togglePawn(piece, source);
+		togglePawn(piece, target);
+		if (capturedPiece != null)
+			togglePawn(capturedPiece, ((ChessPiece) capturedPiece).getChessPosition().toPosition());
+
+		attacks.endUpdate();
+	}
+
+	/**
+	 * Inclui ou retira um peão da chave da estrutura de peões. Outras peças são
+	 * ignoradas.
+	 * 
+	 * @param piece    a peça, ou null
+	 * @param position a casa do peão
+	 */
+	private void togglePawn(Piece piece, Position position) {
+		if (piece instanceof Pawn)
+			pawnKey ^= Zobrist.piece(((ChessPiece) piece).getColor(), Pieces.PAWN, position.getIndex());
+	}
+
+	/**
+	 * Inicia a atualização dos mapas de ataque para o movimento de uma peça. Além
+	 * da origem e do destino, inclui as casas da torre no roque e a casa do peão
+	 * capturado en passant.
+	 * 
+	 * @param source a posição de origem
+	 * @param target a posição de destino
+	 * @param piece  a peça que se move
+	 */
+	private void beginAttackUpdate(Position source, Position target, ChessPiece piece) {
+
+		int rookSource = -1;
+		int rookTarget = -1;
+		int row = source.getRow();
+
+		if (piece instanceof King && target.getColumn() == source.getColumn() + 2) {
+			rookSource = Position.of(row, source.getColumn() + 3).getIndex();
+			rookTarget = Position.of(row, source.getColumn() + 1).getIndex();
+		} else if (piece instanceof King && target.getColumn() == source.getColumn() - 2) {
+			rookSource = Position.of(row, source.getColumn() - 4).getIndex();
+			rookTarget = Position.of(row, source.getColumn() - 1).getIndex();
+		} else if (piece instanceof Pawn && source.getColumn() != target.getColumn()) {
+			rookSource = Position.of(row, target.getColumn()).getIndex();
+		}
+
+		attacks.beginUpdate(source.getIndex(), target.getIndex(), rookSource, rookTarget);
 	}
 
 	/**
@@ -313,9 +1156,9 @@ public class ChessMatch {
 				Position pawnPosition;
 
 				if (piece.getColor() == Color.WHITE)
-					pawnPosition = new Position(rowPositionWhite, target.getColumn());
+					pawnPosition = Position.of(rowPositionWhite, target.getColumn());
 				else
-					pawnPosition = new Position(rowPositionBlack, target.getColumn());
+					pawnPosition = Position.of(rowPositionBlack, target.getColumn());
 
 				if (enPassantVulnerable == null) {
 					capturedPiece = board.removePiece(pawnPosition);
@@ -333,8 +1176,8 @@ public class ChessMatch {
 
 	private void handleRookMove(Position kingSource, int rookColumnOffset, int rookTargetOffset, boolean isMakeMove) {
 
-		Position sourceRook = new Position(kingSource.getRow(), kingSource.getColumn() + rookColumnOffset);
-		Position targetRook = new Position(kingSource.getRow(), kingSource.getColumn() + rookTargetOffset);
+		Position sourceRook = Position.of(kingSource.getRow(), kingSource.getColumn() + rookColumnOffset);
+		Position targetRook = Position.of(kingSource.getRow(), kingSource.getColumn() + rookTargetOffset);
 
 		ChessPiece rook = (ChessPiece) board.removePiece(isMakeMove ? sourceRook : targetRook);
 		board.placePiece(rook, isMakeMove ? targetRook : sourceRook);
@@ -346,22 +1189,85 @@ public class ChessMatch {
 	}
 
 	/**
-	 * Valida se a posição de origem especificada é válida para o movimento de
-	 * xadrez.
+	 * Calcula o xeque do jogador atual, caso tenha sido adiado pelo modo de
+	 * reprodução.
+	 */
+	private void resolveCheck() {
+
+		if (!checkPending)
+			return;
+
+		checkPending = false;
+		check = testCheck(currentPlayer);
+	}
+
+	/**
+	 * Calcula o xeque-mate e o empate da posição atual, caso tenham sido adiados
+	 * pelo modo de reprodução. O resultado vale até o próximo movimento.
+	 */
+	private void resolveStatus() {
+
+		if (!statusPending)
+			return;
+
+		resolveCheck();
+		statusPending = false;
+
+		if (testCheckMate(currentPlayer)) {
+			checkMate = true;
+			turn--;
+			currentPlayer = opponent(currentPlayer);
+		} else {
+			drawReason = testDraw();
+		}
+
+		if (journal != null && (checkMate || drawReason != null))
+			journal.recordEnd();
+	}
+
+	/**
+	 * Valida um movimento no modo de reprodução, verificando apenas a peça de
+	 * origem e os movimentos possíveis dela.
 	 * 
 	 * @param source a posição de origem
 	 * @param target a posição de destino
+	 * @return MoveStatus.OK se o movimento for possível, ou o motivo da recusa
+	 */
+	private MoveStatus validadeReplayMove(Position source, Position target) {
+
+		if (!board.thereIsAPiece(source))
+			return MoveStatus.NO_PIECE_ON_SOURCE;
+
+		if (currentPlayer != ((ChessPiece) board.piece(source)).getColor())
+			return MoveStatus.NOT_YOUR_PIECE;
+
+		if (!board.piece(source).possibleMove(target))
+			return MoveStatus.CANT_MOVE_TO_TARGET;
+
+		return MoveStatus.OK;
+	}
+
+	/**
+	 * Valida se a posição de origem especificada é válida para o movimento de
+	 * xadrez.
+	 * 
+	 * @param position a posição de origem
+	 * @return MoveStatus.OK se a posição for válida, ou o motivo da recusa
 	 */
-	private void validadeSourcePosition(Position position) {
+	private MoveStatus validadeSourcePosition(Position position) {
 
 		if (!board.thereIsAPiece(position))
-			throw new ChessException(MSG_ERROR_NOT_PIECE_SOURCE);
+			return MoveStatus.NO_PIECE_ON_SOURCE;
 
 		if (currentPlayer != ((ChessPiece) board.piece(position)).getColor())
-			throw new ChessException(MSG_ERROR_PIECE_NOT_YOURS);
+			return MoveStatus.NOT_YOUR_PIECE;
+
+		ensureLegalMoves(currentPlayer);
+
+		if (legalMoveCounts[position.getIndex()] == 0)
+			return MoveStatus.NO_POSSIBLE_MOVES;
 
-		if (!board.piece(position).isThereAnyPossibleMove())
-			throw new ChessException(MSG_ERROR_NOT_POSSIBLE_MOVES);
+		return MoveStatus.OK;
 	}
 
 	/**
@@ -370,11 +1276,223 @@ public class ChessMatch {
 	 * 
 	 * @param source a posição de origem
 	 * @param target a posição de destino
+	 * @return MoveStatus.OK se o destino for válido, ou o motivo da recusa
 	 */
-	private void validadeTargetPosition(Position source, Position target) {
+	private MoveStatus validadeTargetPosition(Position source, Position target) {
 
-		if (!board.piece(source).possibleMove(target))
-			throw new ChessException(MSG_ERROR_CANT_MOVE_TOPOSITION);
+		MoveValidationEvent event = new MoveValidationEvent();
+		event.begin();
+
+		ensureLegalMoves(currentPlayer);
+
+		boolean legal = legalMoves[source.getIndex()][target.getRow()][target.getColumn()];
+
+		if (event.shouldCommit()) {
+			event.positionKey = positionKey;
+			event.piecesOnBoard = piecesOnTheBoard.size();
+			event.source = source.getIndex();
+			event.target = target.getIndex();
+			event.legal = legal;
+			event.commit();
+		}
+
+		if (legal)
+			return MoveStatus.OK;
+
+		if (board.piece(source).possibleMove(target))
+			return MoveStatus.LEAVES_KING_IN_CHECK;
+
+		return MoveStatus.CANT_MOVE_TO_TARGET;
+	}
+
+	/**
+	 * Garante que o cache de movimentos legais corresponde à posição atual e ao
+	 * jogador especificado. Os movimentos são calculados uma única vez por posição
+	 * e reaproveitados até o próximo movimento.
+	 * 
+	 * @param color a cor do jogador
+	 * @return o número de movimentos de teste executados, ou 0 se o cache já era
+	 *         válido
+	 */
+	private int ensureLegalMoves(Color color) {
+
+		if (legalMoves != null && legalMovesKey == positionKey && legalMovesColor == color)
+			return 0;
+
+		int squares = board.getRows() * board.getColumns();
+		boolean[][][] moves = new boolean[squares][][];
+		int[] counts = new int[squares];
+		int total = 0;
+		int trialMoves = 0;
+
+		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
+				.collect(Collectors.toList());
+
+		for (Piece piece : list) {
+
+			Position source = ((ChessPiece) piece).getChessPosition().toPosition();
+			int index = source.getIndex();
+			boolean[][] matrix = piece.possibleMoves();
+
+			for (int i = 0; i < board.getRows(); i++) {
+
+				for (int j = 0; j < board.getColumns(); j++) {
+
+					if (matrix[i][j]) {
+
+						Position target = Position.of(i, j);
+
+						Piece capturedPiece = makeMove(source, target);
+						boolean leavesInCheck = testCheck(color);
+						undoMove(source, target, capturedPiece);
+						trialMoves++;
+
+						if (leavesInCheck)
+							matrix[i][j] = false;
+						else
+							counts[index]++;
+					}
+				}
+			}
+
+			moves[index] = matrix;
+			total += counts[index];
+		}
+
+		legalMoves = moves;
+		legalMoveCounts = counts;
+		legalMoveTotal = total;
+		legalMovesColor = color;
+		legalMovesKey = positionKey;
+
+		return trialMoves;
+	}
+
+	/**
+	 * Calcula o hash Zobrist da posição atual do tabuleiro.
+	 * 
+	 * @param sideToMove a cor do jogador que tem a vez
+	 * @return a chave da posição
+	 */
+	private long computePositionKey(Color sideToMove) {
+
+		long key = 0L;
+
+		for (int i = 0; i < board.getRows(); i++) {
+			for (int j = 0; j < board.getColumns(); j++) {
+				ChessPiece piece = (ChessPiece) board.piece(i, j);
+				if (piece != null)
+					key ^= Zobrist.piece(piece.getColor(), piece.getType(), i * board.getColumns() + j);
+			}
+		}
+
+		key ^= Zobrist.castling(castlingRights());
+
+		if (enPassantVulnerable != null)
+			key ^= Zobrist.enPassant(enPassantVulnerable.getChessPosition().getColumn() - 'a');
+
+		if (sideToMove == Color.BLACK)
+			key ^= Zobrist.side();
+
+		return key;
+	}
+
+	/**
+	 * Calcula o hash Zobrist dos peões do tabuleiro.
+	 * 
+	 * @return a chave da estrutura de peões
+	 */
+	private long computePawnKey() {
+
+		long key = 0L;
+
+		for (Piece piece : piecesOnTheBoard) {
+			if (piece instanceof Pawn)
+				key ^= Zobrist.piece(((ChessPiece) piece).getColor(), Pieces.PAWN,
+						((ChessPiece) piece).getChessPosition().toPosition().getIndex());
+		}
+
+		return key;
+	}
+
+	/**
+	 * Calcula os direitos de roque a partir da contagem de movimentos dos reis e
+	 * das torres em suas casas iniciais.
+	 * 
+	 * @return a máscara de direitos de roque (Zobrist.CASTLE_*)
+	 */
+	private int castlingRights() {
+
+		int rights = 0;
+
+		if (canStillCastle(7, 7, Color.WHITE))
+			rights |= Zobrist.CASTLE_WHITE_KINGSIDE;
+		if (canStillCastle(7, 0, Color.WHITE))
+			rights |= Zobrist.CASTLE_WHITE_QUEENSIDE;
+		if (canStillCastle(0, 7, Color.BLACK))
+			rights |= Zobrist.CASTLE_BLACK_KINGSIDE;
+		if (canStillCastle(0, 0, Color.BLACK))
+			rights |= Zobrist.CASTLE_BLACK_QUEENSIDE;
+
+		return rights;
+	}
+
+	/**
+	 * Verifica se o rei e a torre da cor especificada ainda não se moveram.
+	 * 
+	 * @param row        a linha inicial do rei e da torre
+	 * @param rookColumn a coluna inicial da torre
+	 * @param color      a cor das peças
+	 * @return true se o roque ainda for permitido por essas peças
+	 */
+	private boolean canStillCastle(int row, int rookColumn, Color color) {
+
+		ChessPiece king = (ChessPiece) board.piece(row, 4);
+		ChessPiece rook = (ChessPiece) board.piece(row, rookColumn);
+
+		return king instanceof King && king.getColor() == color && king.getMoveCount() == 0
+				&& rook instanceof Rook && rook.getColor() == color && rook.getMoveCount() == 0;
+	}
+
+	/**
+	 * Verifica se a posição atual é empate por afogamento, pela regra dos
+	 * cinquenta movimentos ou por tripla repetição.
+	 * 
+	 * @return o motivo do empate, ou null se a partida continua
+	 */
+	private DrawReason testDraw() {
+
+		if (!check && !isThereAnyLegalMove())
+			return DrawReason.STALEMATE;
+
+		if (halfmoveClock >= FIFTY_MOVE_PLIES)
+			return DrawReason.FIFTY_MOVE_RULE;
+
+		if (isRepetition(3))
+			return DrawReason.THREEFOLD_REPETITION;
+
+		return null;
+	}
+
+	/**
+	 * Verifica se a posição atual já ocorreu o número de vezes especificado. Apenas
+	 * as posições desde o último movimento irreversível (captura, movimento de
+	 * peão ou perda de direito de roque) são comparadas, com o mesmo lado a jogar.
+	 * 
+	 * @param occurrences o número de ocorrências, contando a posição atual
+	 * @return true se a posição ocorreu pelo menos esse número de vezes
+	 */
+	public boolean isRepetition(int occurrences) {
+
+		int count = 1;
+		int limit = Math.min(reversiblePlies, HISTORY_SIZE - 1);
+
+		for (int i = 2; i <= limit; i += 2) {
+			if (keyHistory[(historyCount - 1 - i) & HISTORY_MASK] == positionKey && ++count >= occurrences)
+				return true;
+		}
+
+		return count >= occurrences;
 	}
 
 	/**
@@ -402,11 +1520,9 @@ public class ChessMatch {
 	 * @return a peça do rei
 	 */
 	private ChessPiece king(Color color) {
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
 
-		for (Piece piece : list) {
-			if (piece instanceof King)
+		for (Piece piece : piecesOnTheBoard) {
+			if (piece instanceof King && ((ChessPiece) piece).getColor() == color)
 				return (ChessPiece) piece;
 		}
 
@@ -421,18 +1537,23 @@ public class ChessMatch {
 	 */
 	private boolean testCheck(Color color) {
 
-		Position kingPosition = king(color).getChessPosition().toPosition();
+		MatchMetrics.testCheck();
 
-		List<Piece> opponentPieces = piecesOnTheBoard.stream()
-				.filter(x -> ((ChessPiece) x).getColor() == opponent(color)).collect(Collectors.toList());
+		CheckTestEvent event = new CheckTestEvent();
+		event.begin();
 
-		for (Piece piece : opponentPieces) {
-			boolean[][] matrix = piece.possibleMoves();
-			if (matrix[kingPosition.getRow()][kingPosition.getColumn()])
-				return true;
+		Position kingPosition = king(color).getChessPosition().toPosition();
+		boolean inCheck = attacks.count(opponent(color), kingPosition.getIndex()) > 0;
+
+		if (event.shouldCommit()) {
+			event.positionKey = positionKey;
+			event.piecesOnBoard = piecesOnTheBoard.size();
+			event.color = color.getTitle();
+			event.inCheck = inCheck;
+			event.commit();
 		}
 
-		return false;
+		return inCheck;
 	}
 
 	/**
@@ -443,50 +1564,148 @@ public class ChessMatch {
 	 */
 	private boolean testCheckMate(Color color) {
 
-		if (!testCheck(color))
-			return false;
+		MatchMetrics.testCheckMate();
 
-		List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
+		CheckMateTestEvent event = new CheckMateTestEvent();
+		event.begin();
 
-		for (Piece piece : list) {
-			boolean[][] matrix = piece.possibleMoves();
+		int trialMoves = 0;
+		boolean mate = false;
 
-			for (int i = 0; i < board.getRows(); i++) {
+		if (testCheck(color)) {
+			trialMoves = ensureLegalMoves(color);
+			mate = legalMoveTotal == 0;
+		}
 
-				for (int j = 0; j < board.getColumns(); j++) {
+		if (event.shouldCommit()) {
+			event.positionKey = positionKey;
+			event.piecesOnBoard = piecesOnTheBoard.size();
+			event.color = color.getTitle();
+			event.trialMoves = trialMoves;
+			event.checkMate = mate;
+			event.commit();
+		}
 
-					if (matrix[i][j]) {
+		return mate;
+	}
+
+	/**
+	 * Coloca uma nova peça no tabuleiro na posição especificada.
+	 * 
+	 * @param column a coluna da posição
+	 * @param row    a linha da posição
+	 * @param piece  a peça a ser colocada no tabuleiro
+	 */
+	private void placeNewPiece(char column, int row, ChessPiece piece) {
+		board.placePiece(piece, ChessPosition.of(column, row).toPosition());
+		piecesOnTheBoard.add(piece);
+	}
 
-						Position source = ((ChessPiece) piece).getChessPosition().toPosition();
-						Position target = new Position(i, j);
+	/**
+	 * Coloca as peças do primeiro campo da FEN. Os peões fora da casa inicial
+	 * recebem um movimento, para que não possam avançar duas casas.
+	 */
+	private void placeFenPieces(String fen, String placement) {
 
-						Piece capturedPiece = makeMove(source, target);
+		String[] rows = placement.split("/", -1);
 
-						boolean testCheck = testCheck(color);
+		if (rows.length != 8)
+			throw invalidFen(fen, "piece placement");
 
-						undoMove(source, target, capturedPiece);
+		int[] kings = new int[2];
 
-						if (!testCheck)
-							return false;
-					}
+		for (int i = 0; i < 8; i++) {
+
+			int column = 0;
+
+			for (char c : rows[i].toCharArray()) {
+
+				if (c >= '1' && c <= '8') {
+					column += c - '0';
+					continue;
 				}
+
+				Pieces type = Pieces.fromAcronym(String.valueOf(Character.toUpperCase(c)));
+				if (type == null || column >= 8)
+					throw invalidFen(fen, "piece placement");
+
+				Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+				ChessPiece piece = newPiece(type, color);
+
+				if (type == Pieces.KING)
+					kings[color.ordinal()]++;
+				if (type == Pieces.PAWN && (i == 0 || i == 7))
+					throw invalidFen(fen, "pawns");
+				if (type == Pieces.PAWN && i != ((color == Color.WHITE) ? 6 : 1))
+					piece.increaseMoveCount();
+
+				board.placePiece(piece, Position.of(i, column++));
+				piecesOnTheBoard.add(piece);
 			}
+
+			if (column != 8)
+				throw invalidFen(fen, "piece placement");
 		}
 
-		return true;
+		if (kings[0] != 1 || kings[1] != 1)
+			throw invalidFen(fen, "kings");
 	}
 
 	/**
-	 * Coloca uma nova peça no tabuleiro na posição especificada.
-	 * 
-	 * @param column a coluna da posição
-	 * @param row    a linha da posição
-	 * @param piece  a peça a ser colocada no tabuleiro
+	 * Marca como já movidos o rei e as torres que perderam o direito de roque. Cada
+	 * direito declarado exige o rei e a torre correspondentes nas casas iniciais.
 	 */
-	private void placeNewPiece(char column, int row, ChessPiece piece) {
-		board.placePiece(piece, new ChessPosition(column, row).toPosition());
-		piecesOnTheBoard.add(piece);
+	private void setFenCastlingRights(String fen, String castling) {
+
+		if (!castling.equals("-") && !castling.matches("K?Q?k?q?"))
+			throw invalidFen(fen, "castling rights");
+
+		markMovedUnless(castling.indexOf('K') >= 0, 7, 7);
+		markMovedUnless(castling.indexOf('Q') >= 0, 7, 0);
+		markMovedUnless(castling.indexOf('k') >= 0, 0, 7);
+		markMovedUnless(castling.indexOf('q') >= 0, 0, 0);
+		markMovedUnless(castling.indexOf('K') >= 0 || castling.indexOf('Q') >= 0, 7, 4);
+		markMovedUnless(castling.indexOf('k') >= 0 || castling.indexOf('q') >= 0, 0, 4);
+
+		if (castling.indexOf('K') >= 0 && !canStillCastle(7, 7, Color.WHITE)
+				|| castling.indexOf('Q') >= 0 && !canStillCastle(7, 0, Color.WHITE)
+				|| castling.indexOf('k') >= 0 && !canStillCastle(0, 7, Color.BLACK)
+				|| castling.indexOf('q') >= 0 && !canStillCastle(0, 0, Color.BLACK))
+			throw invalidFen(fen, "castling rights");
+	}
+
+	private void markMovedUnless(boolean canCastle, int row, int column) {
+
+		ChessPiece piece = (ChessPiece) board.piece(row, column);
+
+		if (!canCastle && piece != null && piece.getMoveCount() == 0)
+			piece.increaseMoveCount();
+	}
+
+	/**
+	 * Define o peão vulnerável ao en passant a partir da casa de captura da FEN.
+	 */
+	private void setFenEnPassant(String fen, String square) {
+
+		if (square.equals("-"))
+			return;
+
+		char rank = (currentPlayer == Color.WHITE) ? '6' : '3';
+
+		if (!square.matches("[a-h][36]") || square.charAt(1) != rank)
+			throw invalidFen(fen, "en passant square");
+
+		// O peão que avançou duas casas está uma casa além da casa de captura
+		ChessPiece pawn = (ChessPiece) board.piece((currentPlayer == Color.WHITE) ? 3 : 4, square.charAt(0) - 'a');
+
+		if (!(pawn instanceof Pawn) || pawn.getColor() == currentPlayer)
+			throw invalidFen(fen, "en passant square");
+
+		enPassantVulnerable = pawn;
+	}
+
+	private static ChessException invalidFen(String fen, String field) {
+		return new ChessException(String.format(MSG_ERROR_INVALID_FEN, field, fen));
 	}
 
 	/**
@@ -528,4 +1747,66 @@ public class ChessMatch {
 		placeNewPiece('g', 7, new Pawn(board, Color.BLACK, this));
 		placeNewPiece('h', 7, new Pawn(board, Color.BLACK, this));
 	}
+	/**
+	 * Estado da partida antes de um movimento de busca, usado para desfazê-lo.
+	 */
+	private static final class SearchState {
+
+		private Position source;
+		private Position target;
+		private ChessPiece movedPiece;
+		private Piece capturedPiece;
+
+		private int turn;
+		private Color currentPlayer;
+		private boolean check;
+		private boolean checkMate;
+		private boolean checkPending;
+		private boolean statusPending;
+		private DrawReason drawReason;
+		private ChessPiece enPassantVulnerable;
+		private ChessPiece promoted;
+		private ChessPiece lastCapturedPiece;
+		private long positionKey;
+		private int halfmoveClock;
+		private int reversiblePlies;
+
+		void save(ChessMatch match, Position source, Position target) {
+			this.source = source;
+			this.target = target;
+			this.movedPiece = (source == null) ? null : (ChessPiece) match.board.piece(source);
+			this.turn = match.turn;
+			this.currentPlayer = match.currentPlayer;
+			this.check = match.check;
+			this.checkMate = match.checkMate;
+			this.checkPending = match.checkPending;
+			this.statusPending = match.statusPending;
+			this.drawReason = match.drawReason;
+			this.enPassantVulnerable = match.enPassantVulnerable;
+			this.promoted = match.promoted;
+			this.lastCapturedPiece = match.lastCapturedPiece;
+			this.positionKey = match.positionKey;
+			this.halfmoveClock = match.halfmoveClock;
+			this.reversiblePlies = match.reversiblePlies;
+		}
+
+		void restore(ChessMatch match) {
+			match.turn = turn;
+			match.currentPlayer = currentPlayer;
+			match.check = check;
+			match.checkMate = checkMate;
+			match.checkPending = checkPending;
+			match.statusPending = statusPending;
+			match.drawReason = drawReason;
+			match.enPassantVulnerable = enPassantVulnerable;
+			match.promoted = promoted;
+			match.lastCapturedPiece = lastCapturedPiece;
+			match.positionKey = positionKey;
+			match.halfmoveClock = halfmoveClock;
+			match.reversiblePlies = reversiblePlies;
+			movedPiece = null;
+			capturedPiece = null;
+		}
+	}
+
 }// class ChessMatch
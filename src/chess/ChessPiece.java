@@ -3,6 +3,7 @@ package chess;
 import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
+import util.Pieces;
 
 public abstract class ChessPiece extends Piece {
 
@@ -28,6 +29,13 @@ public abstract class ChessPiece extends Piece {
 		return moveCount;
 	}
 
+	/**
+	 * Retorna o tipo da peça.
+	 * 
+	 * @return o tipo da peça
+	 */
+	public abstract Pieces getType();
+
 	/**
 	 * Incrementa a contagem de movimentos da peça.
 	 */
@@ -58,7 +66,18 @@ public abstract class ChessPiece extends Piece {
 	 * @return true se houver uma peça adversária na posição, false caso contrário
 	 */
 	protected boolean isThereOpponentPiece(Position position) {
-		ChessPiece piece = (ChessPiece) getBoard().piece(position);
+		return isThereOpponentPiece(position.getRow(), position.getColumn());
+	}
+
+	/**
+	 * Verifica se há uma peça adversária na linha e coluna especificadas.
+	 * 
+	 * @param row    o índice da linha
+	 * @param column o índice da coluna
+	 * @return true se houver uma peça adversária na posição, false caso contrário
+	 */
+	protected boolean isThereOpponentPiece(int row, int column) {
+		ChessPiece piece = (ChessPiece) getBoard().piece(row, column);
 
 		return piece != null && piece.getColor() != color;
 	}
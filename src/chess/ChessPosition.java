@@ -6,27 +6,58 @@ import static util.Messages.*;
 
 /**
  * Representa uma posição no tabuleiro de xadrez.
+ *
+ * As posições são imutáveis e existe uma única instância para cada uma das 64
+ * casas; use {@link #of(char, int)} para obtê-las.
  */
 public class ChessPosition {
 
-	private char column;
-	private int row;
+	private static final ChessPosition[] CACHE = new ChessPosition[64];
+
+	static {
+		for (int i = 0; i < CACHE.length; i++)
+			CACHE[i] = new ChessPosition((char) ('a' + i % 8), 8 - i / 8);
+	}
+
+	private final char column;
+	private final int row;
 
 	/**
 	 * Cria uma nova posição de xadrez com a coluna e a linha especificadas.
 	 * 
 	 * @param column a coluna da posição (de 'a' a 'h')
 	 * @param row    a linha da posição (de 1 a 8)
+	 */
+	private ChessPosition(char column, int row) {
+		this.column = column;
+		this.row = row;
+	}
+
+	/**
+	 * Retorna a posição de xadrez com a coluna e a linha especificadas.
+	 * 
+	 * @param column a coluna da posição (de 'a' a 'h')
+	 * @param row    a linha da posição (de 1 a 8)
+	 * @return a posição de xadrez correspondente
 	 * @throws ChessException se a coluna ou a linha estiver fora do intervalo
 	 *                        permitido
 	 */
-	public ChessPosition(char column, int row) {
+	public static ChessPosition of(char column, int row) {
 
 		if (column < 'a' || column > 'h' || row < 1 || row > 8)
 			throw new ChessException(MSG_ERROR_INSTANCE_CHESS_PIECE);
 
-		this.column = column;
-		this.row = row;
+		return CACHE[(8 - row) * 8 + (column - 'a')];
+	}
+
+	/**
+	 * Retorna a posição de xadrez de um índice de casa do tabuleiro.
+	 * 
+	 * @param index o índice da casa (linha do tabuleiro * 8 + coluna, a8 = 0)
+	 * @return a posição de xadrez correspondente
+	 */
+	public static ChessPosition of(int index) {
+		return CACHE[index];
 	}
 
 	public char getColumn() {
@@ -37,6 +68,15 @@ public class ChessPosition {
 		return row;
 	}
 
+	/**
+	 * Retorna o índice da casa no tabuleiro.
+	 * 
+	 * @return o índice da casa (linha do tabuleiro * 8 + coluna, a8 = 0)
+	 */
+	public int getIndex() {
+		return (8 - row) * 8 + (column - 'a');
+	}
+
 	@Override
 	public String toString() {
 		return String.format(STR_CHESS_POSITION_TOSTRING, column, row);
@@ -48,7 +88,7 @@ public class ChessPosition {
 	 * @return a posição no tabuleiro correspondente à posição de xadrez
 	 */
 	protected Position toPosition() {
-		return new Position(8 - row, column - 'a');
+		return Position.of(getIndex());
 	}
 
 	/**
@@ -58,7 +98,7 @@ public class ChessPosition {
 	 * @return a posição de xadrez correspondente à posição no tabuleiro
 	 */
 	protected static ChessPosition fromPosition(Position position) {
-		return new ChessPosition((char) ('a' + position.getColumn()), 8 - position.getRow());
+		return CACHE[position.getIndex()];
 	}
 
 }// class ChessPosition
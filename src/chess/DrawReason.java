@@ -0,0 +1,22 @@
+package chess;
+
+/**
+ * Enumeração que representa os motivos de empate de uma partida de xadrez.
+ */
+public enum DrawReason {
+
+	STALEMATE("Stalemate"),
+	THREEFOLD_REPETITION("Threefold repetition"),
+	FIFTY_MOVE_RULE("Fifty-move rule");
+
+	private String title;
+
+	private DrawReason(String title) {
+		this.title = title;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+}// enum DrawReason
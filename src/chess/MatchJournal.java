@@ -0,0 +1,26 @@
+package chess;
+
+import util.Pieces;
+
+/**
+ * Recebe as alterações de uma partida de xadrez antes que sejam aplicadas,
+ * permitindo gravá-las em um journal para recuperação após uma falha.
+ */
+public interface MatchJournal {
+
+	/**
+	 * Registra um movimento já validado, antes de ser executado.
+	 * 
+	 * @param source    a posição de origem
+	 * @param target    a posição de destino
+	 * @param promotion a peça de promoção, ou null se o movimento não promove um
+	 *                  peão
+	 */
+	void recordMove(ChessPosition source, ChessPosition target, Pieces promotion);
+
+	/**
+	 * Registra o fim da partida por xeque-mate ou empate.
+	 */
+	void recordEnd();
+
+}// interface MatchJournal
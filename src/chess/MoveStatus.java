@@ -0,0 +1,33 @@
+package chess;
+
+import static util.Messages.MSG_ERROR_CANT_MOVE_TOPOSITION;
+import static util.Messages.MSG_ERROR_INVALID_PROMOTION;
+import static util.Messages.MSG_ERROR_NOT_CHECK;
+import static util.Messages.MSG_ERROR_NOT_PIECE_SOURCE;
+import static util.Messages.MSG_ERROR_NOT_POSSIBLE_MOVES;
+import static util.Messages.MSG_ERROR_PIECE_NOT_YOURS;
+
+/**
+ * Enumeração que representa o resultado de uma tentativa de movimento.
+ */
+public enum MoveStatus {
+
+	OK(null),
+	NO_PIECE_ON_SOURCE(MSG_ERROR_NOT_PIECE_SOURCE),
+	NOT_YOUR_PIECE(MSG_ERROR_PIECE_NOT_YOURS),
+	NO_POSSIBLE_MOVES(MSG_ERROR_NOT_POSSIBLE_MOVES),
+	CANT_MOVE_TO_TARGET(MSG_ERROR_CANT_MOVE_TOPOSITION),
+	LEAVES_KING_IN_CHECK(MSG_ERROR_NOT_CHECK),
+	INVALID_PROMOTION_PIECE(MSG_ERROR_INVALID_PROMOTION);
+
+	private String message;
+
+	private MoveStatus(String message) {
+		this.message = message;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+}// enum MoveStatus
@@ -0,0 +1,106 @@
+package chess;
+
+import util.Pieces;
+
+/**
+ * Tabelas de chaves aleatórias usadas para calcular o hash Zobrist de uma
+ * posição de xadrez.
+ *
+ * As chaves são geradas com uma semente fixa, portanto a chave de uma posição é
+ * a mesma entre execuções e pode ser armazenada em disco.
+ */
+public final class Zobrist {
+
+	public static final int CASTLE_WHITE_KINGSIDE = 1;
+	public static final int CASTLE_WHITE_QUEENSIDE = 2;
+	public static final int CASTLE_BLACK_KINGSIDE = 4;
+	public static final int CASTLE_BLACK_QUEENSIDE = 8;
+
+	private static final long SEED = 0x9E3779B97F4A7C15L;
+
+	private static final long[][][] PIECES = new long[Color.values().length][Pieces.values().length][64];
+	private static final long[] CASTLING = new long[16];
+	private static final long[] EN_PASSANT = new long[8];
+	private static final long SIDE;
+
+	static {
+
+		long state = SEED;
+
+		for (int c = 0; c < PIECES.length; c++) {
+			for (int t = 0; t < PIECES[c].length; t++) {
+				for (int s = 0; s < 64; s++) {
+					state += SEED;
+					PIECES[c][t][s] = mix(state);
+				}
+			}
+		}
+
+		for (int i = 0; i < CASTLING.length; i++) {
+			state += SEED;
+			CASTLING[i] = mix(state);
+		}
+
+		for (int i = 0; i < EN_PASSANT.length; i++) {
+			state += SEED;
+			EN_PASSANT[i] = mix(state);
+		}
+
+		state += SEED;
+		SIDE = mix(state);
+	}
+
+	private Zobrist() {
+	}
+
+	/**
+	 * Retorna a chave de uma peça em uma casa.
+	 *
+	 * @param color  a cor da peça
+	 * @param type   o tipo da peça
+	 * @param square o índice da casa (linha * 8 + coluna)
+	 * @return a chave da peça na casa
+	 */
+	public static long piece(Color color, Pieces type, int square) {
+		return PIECES[color.ordinal()][type.ordinal()][square];
+	}
+
+	/**
+	 * Retorna a chave de um conjunto de direitos de roque.
+	 *
+	 * @param rights a máscara de direitos de roque (CASTLE_*)
+	 * @return a chave dos direitos de roque
+	 */
+	public static long castling(int rights) {
+		return CASTLING[rights];
+	}
+
+	/**
+	 * Retorna a chave da coluna de en passant.
+	 *
+	 * @param column a coluna da casa de en passant
+	 * @return a chave da coluna de en passant
+	 */
+	public static long enPassant(int column) {
+		return EN_PASSANT[column];
+	}
+
+	/**
+	 * Retorna a chave usada quando as pretas estão com a vez.
+	 *
+	 * @return a chave do lado a jogar
+	 */
+	public static long side() {
+		return SIDE;
+	}
+
+	/**
+	 * Função de mistura do SplitMix64.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}// class Zobrist
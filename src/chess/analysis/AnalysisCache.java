@@ -0,0 +1,397 @@
+package chess.analysis;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache limitado e concorrente de resultados de análise, compartilhado entre
+ * partidas e sessões. Cada posição guarda o resultado mais profundo já
+ * calculado, que também responde consultas com profundidade menor.
+ *
+ * A política de admissão e remoção segue o W-TinyLFU: uma janela LRU pequena
+ * (1% da capacidade) recebe as novas posições e o restante é um LRU segmentado
+ * (período de experiência e área protegida). Quando a janela transborda, a
+ * posição que sai dela só entra no cache principal se for acessada com mais
+ * frequência que a próxima vítima, segundo o FrequencySketch. Assim uma
+ * varredura de posições únicas não expulsa as posições populares.
+ *
+ * As consultas leem o mapa sem bloqueio; o acesso só é registrado na política
+ * se o lock estiver livre, portanto alguns acessos podem ser ignorados sob
+ * disputa. Pedidos simultâneos da mesma posição calculam a análise uma única
+ * vez (single-flight).
+ */
+public class AnalysisCache {
+
+	private static final byte WINDOW = 0;
+	private static final byte PROBATION = 1;
+	private static final byte PROTECTED = 2;
+
+	private final ConcurrentHashMap<Long, Node> data = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, Flight> flights = new ConcurrentHashMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final FrequencySketch sketch;
+
+	private final Node[] queues = { new Node(0, null), new Node(0, null), new Node(0, null) };
+	private final int[] sizes = new int[3];
+
+	private final int capacity;
+	private final int windowCapacity;
+	private final int protectedCapacity;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder sharedLoads = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Cria um cache com o número máximo de posições especificado.
+	 *
+	 * @param capacity o número máximo de posições
+	 */
+	public AnalysisCache(int capacity) {
+
+		if (capacity < 2)
+			throw new IllegalArgumentException(Integer.toString(capacity));
+
+		this.capacity = capacity;
+		this.windowCapacity = Math.max(1, capacity / 100);
+		this.protectedCapacity = (capacity - windowCapacity) * 4 / 5;
+		this.sketch = new FrequencySketch(capacity);
+
+		for (Node sentinel : queues) {
+			sentinel.prev = sentinel;
+			sentinel.next = sentinel;
+		}
+	}
+
+	/**
+	 * Retorna o resultado de uma posição com pelo menos a profundidade
+	 * especificada, se estiver no cache.
+	 *
+	 * @param positionKey a chave Zobrist da posição
+	 * @param depth       a profundidade mínima
+	 * @return o resultado, ou null se não houver resultado com essa profundidade
+	 */
+	public AnalysisResult getIfPresent(long positionKey, int depth) {
+
+		Node node = data.get(positionKey);
+		AnalysisResult result = (node == null) ? null : node.result;
+
+		if (result == null || result.getDepth() < depth) {
+			misses.increment();
+			recordAccess(positionKey, null);
+			return null;
+		}
+
+		hits.increment();
+		recordAccess(positionKey, node);
+		return result;
+	}
+
+	/**
+	 * Retorna o resultado de uma posição com pelo menos a profundidade
+	 * especificada, calculando-o com o analisador caso não esteja no cache. Se a
+	 * mesma posição já estiver sendo analisada com profundidade suficiente por
+	 * outra thread, aguarda esse resultado em vez de repetir a análise.
+	 *
+	 * @param positionKey a chave Zobrist da posição
+	 * @param depth       a profundidade mínima
+	 * @param analyzer    o cálculo da análise, executado em caso de falta
+	 * @return o resultado da análise
+	 */
+	public AnalysisResult get(long positionKey, int depth, Supplier<AnalysisResult> analyzer) {
+
+		AnalysisResult result = getIfPresent(positionKey, depth);
+		if (result != null)
+			return result;
+
+		Flight flight = new Flight(depth);
+		Flight current = flights.putIfAbsent(positionKey, flight);
+
+		if (current != null && current.depth >= depth) {
+			sharedLoads.increment();
+			return current.await();
+		}
+
+		if (current != null)
+			return load(analyzer);
+
+		try {
+			// Outra análise pode ter terminado entre a consulta e o registro
+			Node node = data.get(positionKey);
+			result = (node == null) ? null : node.result;
+
+			if (result == null || result.getDepth() < depth)
+				result = load(analyzer);
+
+			flight.future.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			flight.future.completeExceptionally(e);
+			throw e;
+		} finally {
+			flights.remove(positionKey, flight);
+		}
+	}
+
+	/**
+	 * Insere um resultado no cache. Um resultado existente só é substituído por
+	 * outro com profundidade igual ou maior.
+	 *
+	 * @param result o resultado da análise
+	 */
+	public void put(AnalysisResult result) {
+
+		long key = result.getPositionKey();
+
+		lock.lock();
+
+		try {
+			sketch.increment(key);
+
+			Node node = data.get(key);
+
+			if (node != null) {
+				if (result.getDepth() >= node.result.getDepth())
+					node.result = result;
+				onAccess(node);
+				return;
+			}
+
+			node = new Node(key, result);
+			data.put(key, node);
+			link(node, WINDOW);
+
+			evict();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove todos os resultados do cache.
+	 */
+	public void clear() {
+
+		lock.lock();
+
+		try {
+			for (Node sentinel : queues) {
+				while (sentinel.next != sentinel)
+					unlink(sentinel.next);
+			}
+			data.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		return data.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Retorna o número de análises calculadas pelo analisador.
+	 *
+	 * @return o número de análises calculadas
+	 */
+	public long getLoadCount() {
+		return loads.sum();
+	}
+
+	/**
+	 * Retorna o número de faltas atendidas por uma análise em andamento em outra
+	 * thread.
+	 *
+	 * @return o número de análises compartilhadas
+	 */
+	public long getSharedLoadCount() {
+		return sharedLoads.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Retorna a fração das consultas atendidas pelo cache.
+	 *
+	 * @return a taxa de acerto, entre 0 e 1
+	 */
+	public double getHitRate() {
+
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+
+		return (total == 0) ? 0.0 : (double) hitCount / total;
+	}
+
+	/**
+	 * Executa o analisador e insere o resultado no cache.
+	 */
+	private AnalysisResult load(Supplier<AnalysisResult> analyzer) {
+
+		AnalysisResult result = analyzer.get();
+
+		loads.increment();
+		put(result);
+
+		return result;
+	}
+
+	/**
+	 * Registra um acesso na política, se o lock estiver livre.
+	 */
+	private void recordAccess(long key, Node node) {
+
+		if (!lock.tryLock())
+			return;
+
+		try {
+			sketch.increment(key);
+			if (node != null && node.queue >= 0)
+				onAccess(node);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Move a posição acessada para o início de sua fila, promovendo-a para a área
+	 * protegida se estiver em experiência.
+	 */
+	private void onAccess(Node node) {
+
+		byte queue = node.queue;
+
+		unlink(node);
+
+		if (queue == PROBATION) {
+			link(node, PROTECTED);
+
+			if (sizes[PROTECTED] > protectedCapacity) {
+				Node demoted = queues[PROTECTED].prev;
+				unlink(demoted);
+				link(demoted, PROBATION);
+			}
+		} else {
+			link(node, queue);
+		}
+	}
+
+	/**
+	 * Move as posições excedentes da janela para o cache principal, removendo a
+	 * candidata ou a vítima que tiver menor frequência.
+	 */
+	private void evict() {
+
+		while (sizes[WINDOW] > windowCapacity) {
+
+			Node candidate = queues[WINDOW].prev;
+			unlink(candidate);
+			link(candidate, PROBATION);
+
+			if (sizes[PROBATION] + sizes[PROTECTED] <= capacity - windowCapacity)
+				continue;
+
+			Node victim = queues[PROBATION].prev;
+			if (victim == candidate)
+				victim = (sizes[PROTECTED] > 0) ? queues[PROTECTED].prev : candidate;
+
+			remove(sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate);
+		}
+	}
+
+	private void remove(Node node) {
+		unlink(node);
+		data.remove(node.key, node);
+		evictions.increment();
+	}
+
+	/**
+	 * Insere a posição no início da fila especificada.
+	 */
+	private void link(Node node, byte queue) {
+
+		Node head = queues[queue];
+
+		node.prev = head;
+		node.next = head.next;
+		head.next.prev = node;
+		head.next = node;
+		node.queue = queue;
+		sizes[queue]++;
+	}
+
+	private void unlink(Node node) {
+
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.next = null;
+		sizes[node.queue]--;
+		node.queue = -1;
+	}
+
+	/**
+	 * Posição no cache, encadeada na fila da política a que pertence.
+	 */
+	private static class Node {
+
+		private final long key;
+		private volatile AnalysisResult result;
+
+		private Node prev;
+		private Node next;
+		private byte queue = -1;
+
+		Node(long key, AnalysisResult result) {
+			this.key = key;
+			this.result = result;
+		}
+	}
+
+	/**
+	 * Análise em andamento de uma posição.
+	 */
+	private static class Flight {
+
+		private final int depth;
+		private final CompletableFuture<AnalysisResult> future = new CompletableFuture<>();
+
+		Flight(int depth) {
+			this.depth = depth;
+		}
+
+		AnalysisResult await() {
+			try {
+				return future.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				if (e.getCause() instanceof Error)
+					throw (Error) e.getCause();
+				throw e;
+			}
+		}
+	}
+
+}// class AnalysisCache
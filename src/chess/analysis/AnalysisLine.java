@@ -0,0 +1,65 @@
+package chess.analysis;
+
+import chess.archive.MoveCodec;
+
+/**
+ * Uma das melhores linhas de uma análise multi-PV: o lance candidato, sua
+ * avaliação e a variante principal que começa por ele.
+ */
+public final class AnalysisLine {
+
+	private final int rank;
+	private final int depth;
+	private final int score;
+	private final short[] principalVariation;
+
+	/**
+	 * Cria uma linha de análise.
+	 *
+	 * @param rank               a posição da linha entre as melhores (1 é a melhor)
+	 * @param depth              a profundidade da busca em meios-lances
+	 * @param score              a avaliação em centipeões, do ponto de vista do
+	 *                           lado a jogar
+	 * @param principalVariation os lances da variante, codificados com MoveCodec,
+	 *                           começando pelo lance candidato
+	 */
+	public AnalysisLine(int rank, int depth, int score, short[] principalVariation) {
+		this.rank = rank;
+		this.depth = depth;
+		this.score = score;
+		this.principalVariation = principalVariation.clone();
+	}
+
+	public int getRank() {
+		return rank;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public short getMove() {
+		return principalVariation[0];
+	}
+
+	public short[] getPrincipalVariation() {
+		return principalVariation.clone();
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(rank).append(". ").append(score).append(" (").append(depth).append(")");
+
+		for (short move : principalVariation)
+			sb.append(' ').append(MoveCodec.toNotation(move));
+
+		return sb.toString();
+	}
+
+}// class AnalysisLine
@@ -0,0 +1,66 @@
+package chess.analysis;
+
+import chess.archive.MoveCodec;
+
+/**
+ * Resultado imutável da análise de uma posição: a avaliação e o melhor lance
+ * encontrados em uma busca com a profundidade especificada.
+ */
+public final class AnalysisResult {
+
+	private final long positionKey;
+	private final int depth;
+	private final int score;
+	private final short bestMove;
+	private final long nodes;
+
+	/**
+	 * Cria um resultado de análise.
+	 *
+	 * @param positionKey a chave Zobrist da posição analisada
+	 * @param depth       a profundidade da busca em meios-lances
+	 * @param score       a avaliação em centipeões, do ponto de vista do lado a
+	 *                    jogar
+	 * @param bestMove    o melhor lance codificado com MoveCodec, ou 0 se não
+	 *                    houver lance
+	 * @param nodes       o número de posições visitadas na busca
+	 */
+	public AnalysisResult(long positionKey, int depth, int score, short bestMove, long nodes) {
+		this.positionKey = positionKey;
+		this.depth = depth;
+		this.score = score;
+		this.bestMove = bestMove;
+		this.nodes = nodes;
+	}
+
+	public long getPositionKey() {
+		return positionKey;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public short getBestMove() {
+		return bestMove;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	@Override
+	public String toString() {
+
+		String move = (bestMove == 0) ? "-"
+				: MoveCodec.toChessPosition(MoveCodec.source(bestMove)) + ""
+						+ MoveCodec.toChessPosition(MoveCodec.target(bestMove));
+
+		return String.format("%016x depth %d score %d best %s nodes %d", positionKey, depth, score, move, nodes);
+	}
+
+}// class AnalysisResult
@@ -0,0 +1,99 @@
+package chess.analysis;
+
+/**
+ * Estimativa aproximada da frequência de acesso das chaves (Count-Min Sketch)
+ * com contadores de 4 bits, dois por byte. Cada chave usa um contador em cada
+ * uma das quatro linhas e a frequência é o menor deles. Após um número de incrementos
+ * proporcional à capacidade todos os contadores são divididos por dois, então
+ * acessos antigos perdem peso com o tempo.
+ *
+ * Não é thread-safe; o AnalysisCache só o acessa com o lock da política.
+ */
+class FrequencySketch {
+
+	private static final int ROWS = 4;
+	private static final int MAX_COUNT = 15;
+	private static final long[] SEEDS = { 0x97CB3127L, 0xB492B66FL, 0x9AE16A3BL, 0xCBF29CE4L };
+
+	private final byte[][] table;
+	private final int mask;
+	private final int sampleSize;
+	private int additions;
+
+	/**
+	 * Cria um sketch dimensionado para o número de chaves especificado.
+	 *
+	 * @param capacity o número de chaves mantidas pelo cache
+	 */
+	FrequencySketch(int capacity) {
+
+		int width = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+
+		table = new byte[ROWS][width >>> 1];
+		mask = width - 1;
+		sampleSize = 10 * Math.max(16, capacity);
+	}
+
+	/**
+	 * Retorna a frequência estimada de uma chave (0 a 15).
+	 */
+	int frequency(long key) {
+
+		int frequency = MAX_COUNT;
+
+		for (int i = 0; i < ROWS; i++)
+			frequency = Math.min(frequency, counter(table[i], index(key, i)));
+
+		return frequency;
+	}
+
+	/**
+	 * Registra um acesso a uma chave.
+	 */
+	void increment(long key) {
+
+		boolean added = false;
+
+		for (int i = 0; i < ROWS; i++) {
+			int index = index(key, i);
+			if (counter(table[i], index) < MAX_COUNT) {
+				table[i][index >>> 1] += 1 << shift(index);
+				added = true;
+			}
+		}
+
+		if (added && ++additions == sampleSize)
+			reset();
+	}
+
+	/**
+	 * Divide todos os contadores por dois. O bit que passaria de um contador para
+	 * o outro do mesmo byte é descartado pela máscara.
+	 */
+	private void reset() {
+
+		for (byte[] row : table) {
+			for (int i = 0; i < row.length; i++)
+				row[i] = (byte) ((row[i] & 0xFF) >>> 1 & 0x77);
+		}
+
+		additions /= 2;
+	}
+
+	private static int counter(byte[] row, int index) {
+		return (row[index >>> 1] >>> shift(index)) & MAX_COUNT;
+	}
+
+	private static int shift(int index) {
+		return (index & 1) << 2;
+	}
+
+	private int index(long key, int row) {
+
+		long hash = (key + SEEDS[row]) * 0x9E3779B97F4A7C15L;
+		hash ^= hash >>> 32;
+
+		return (int) hash & mask;
+	}
+
+}// class FrequencySketch
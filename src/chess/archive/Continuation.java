@@ -0,0 +1,59 @@
+package chess.archive;
+
+/**
+ * Lance jogado a partir de uma posição do índice, com o número de partidas
+ * terminadas em vitória das brancas, empate e vitória das pretas.
+ */
+public class Continuation {
+
+	private final short move;
+
+	private int whiteWins;
+	private int draws;
+	private int blackWins;
+
+	/**
+	 * Cria um lance sem partidas.
+	 *
+	 * @param move o lance codificado com MoveCodec
+	 */
+	Continuation(short move) {
+		this.move = move;
+	}
+
+	public short getMove() {
+		return move;
+	}
+
+	public int getWhiteWins() {
+		return whiteWins;
+	}
+
+	public int getDraws() {
+		return draws;
+	}
+
+	public int getBlackWins() {
+		return blackWins;
+	}
+
+	public int getGames() {
+		return whiteWins + draws + blackWins;
+	}
+
+	/**
+	 * Soma os resultados de outro segmento do índice a este lance.
+	 */
+	void add(int whiteWins, int draws, int blackWins) {
+		this.whiteWins += whiteWins;
+		this.draws += draws;
+		this.blackWins += blackWins;
+	}
+
+	@Override
+	public String toString() {
+		return MoveCodec.toChessPosition(MoveCodec.source(move)) + "" + MoveCodec.toChessPosition(MoveCodec.target(move))
+				+ " " + whiteWins + "/" + draws + "/" + blackWins;
+	}
+
+}// class Continuation
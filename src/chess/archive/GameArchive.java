@@ -0,0 +1,146 @@
+package chess.archive;
+
+import static util.Messages.MSG_ERROR_ARCHIVE_SEGMENT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Definições do formato binário do arquivo de partidas.
+ *
+ * O arquivo é um diretório de segmentos de tamanho fixo. Cada segmento começa
+ * com um cabeçalho de 16 bytes (assinatura e versão) seguido de registros:
+ *
+ * <pre>
+ * marcador (1) | resultado (1) | movimentos (2) | brancas (4) | pretas (4) | chave inicial (8) | movimentos (2 cada)
+ * </pre>
+ *
+ * O marcador é escrito por último, então um registro incompleto nunca é lido. O
+ * identificador de uma partida é o número do segmento nos 32 bits altos e o
+ * deslocamento do registro nos 32 bits baixos.
+ */
+public final class GameArchive {
+
+	public static final int SEGMENT_MAGIC = 0x43484741;
+	public static final short SEGMENT_VERSION = 1;
+	public static final int SEGMENT_HEADER_SIZE = 16;
+
+	public static final byte RECORD_MARKER = (byte) 0xC5;
+	public static final int RECORD_HEADER_SIZE = 20;
+
+	static final int RESULT_OFFSET = 1;
+	static final int MOVE_COUNT_OFFSET = 2;
+	static final int WHITE_OFFSET = 4;
+	static final int BLACK_OFFSET = 8;
+	static final int START_KEY_OFFSET = 12;
+
+	private static final String SEGMENT_PREFIX = "games-";
+	private static final String SEGMENT_SUFFIX = ".seg";
+
+	private GameArchive() {
+	}
+
+	/**
+	 * Retorna o identificador de uma partida a partir de sua localização.
+	 * 
+	 * @param segment o número do segmento
+	 * @param offset  o deslocamento do registro no segmento
+	 * @return o identificador da partida
+	 */
+	public static long gameId(int segment, int offset) {
+		return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+	}
+
+	public static int segmentOf(long gameId) {
+		return (int) (gameId >>> 32);
+	}
+
+	public static int offsetOf(long gameId) {
+		return (int) gameId;
+	}
+
+	/**
+	 * Retorna o caminho do arquivo de um segmento.
+	 * 
+	 * @param directory o diretório do arquivo de partidas
+	 * @param segment   o número do segmento
+	 * @return o caminho do segmento
+	 */
+	public static Path segmentPath(Path directory, int segment) {
+		return directory.resolve(segmentName(segment));
+	}
+
+	/**
+	 * Retorna o nome do arquivo de um segmento.
+	 * 
+	 * @param segment o número do segmento
+	 * @return o nome do arquivo do segmento
+	 */
+	public static String segmentName(int segment) {
+		return String.format("%s%05d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX);
+	}
+
+	/**
+	 * Lista os números dos segmentos existentes em ordem crescente.
+	 * 
+	 * @param directory o diretório do arquivo de partidas
+	 * @return os números dos segmentos
+	 * @throws IOException se o diretório não puder ser lido
+	 */
+	public static List<Integer> listSegments(Path directory) throws IOException {
+
+		if (!Files.isDirectory(directory))
+			return List.of();
+
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(p -> p.getFileName().toString())
+					.filter(n -> n.startsWith(SEGMENT_PREFIX) && n.endsWith(SEGMENT_SUFFIX))
+					.map(n -> Integer.parseInt(n.substring(SEGMENT_PREFIX.length(), n.length() - SEGMENT_SUFFIX.length())))
+					.sorted().collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Valida o cabeçalho de um segmento.
+	 * 
+	 * @param buffer o conteúdo do segmento
+	 * @param path   o caminho do segmento, para a mensagem de erro
+	 * @throws IOException se o cabeçalho for inválido
+	 */
+	static void checkHeader(ByteBuffer buffer, Path path) throws IOException {
+		if (buffer.limit() < SEGMENT_HEADER_SIZE || buffer.getInt(0) != SEGMENT_MAGIC
+				|| buffer.getShort(4) != SEGMENT_VERSION)
+			throw new IOException(String.format(MSG_ERROR_ARCHIVE_SEGMENT, path));
+	}
+
+	/**
+	 * Retorna o deslocamento logo após o último registro completo de um segmento.
+	 * 
+	 * @param buffer o conteúdo do segmento
+	 * @param offset o deslocamento do primeiro registro a examinar
+	 * @return o deslocamento do fim dos registros
+	 */
+	static int endOfRecords(ByteBuffer buffer, int offset) {
+
+		while (offset + RECORD_HEADER_SIZE <= buffer.limit() && buffer.get(offset) == RECORD_MARKER)
+			offset += recordSize(buffer.getShort(offset + MOVE_COUNT_OFFSET) & 0xFFFF);
+
+		return offset;
+	}
+
+	/**
+	 * Retorna o tamanho em bytes de um registro.
+	 * 
+	 * @param moveCount o número de movimentos da partida
+	 * @return o tamanho do registro
+	 */
+	static int recordSize(int moveCount) {
+		return RECORD_HEADER_SIZE + 2 * moveCount;
+	}
+
+}// class GameArchive
@@ -0,0 +1,113 @@
+package chess.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Lê um arquivo de partidas mapeando seus segmentos em memória. Os registros
+ * são lidos diretamente do mapeamento, sem cópias.
+ */
+public class GameArchiveReader {
+
+	private final int[] segmentNumbers;
+	private final MappedByteBuffer[] segments;
+
+	/**
+	 * Abre um arquivo de partidas para leitura.
+	 * 
+	 * @param directory o diretório do arquivo de partidas
+	 * @throws IOException se algum segmento não puder ser lido
+	 */
+	public GameArchiveReader(Path directory) throws IOException {
+
+		List<Integer> numbers = GameArchive.listSegments(directory);
+
+		segmentNumbers = new int[numbers.size()];
+		segments = new MappedByteBuffer[numbers.size()];
+
+		for (int i = 0; i < segments.length; i++) {
+
+			Path path = GameArchive.segmentPath(directory, numbers.get(i));
+
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				segments[i] = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			}
+
+			GameArchive.checkHeader(segments[i], path);
+			segmentNumbers[i] = numbers.get(i);
+		}
+	}
+
+	/**
+	 * Retorna o número de segmentos do arquivo.
+	 * 
+	 * @return o número de segmentos
+	 */
+	public int getSegmentCount() {
+		return segments.length;
+	}
+
+	/**
+	 * Retorna o número de um segmento do arquivo.
+	 * 
+	 * @param index a posição do segmento na lista de segmentos (0 a
+	 *              getSegmentCount() - 1)
+	 * @return o número do segmento
+	 */
+	public int getSegmentNumber(int index) {
+		return segmentNumbers[index];
+	}
+
+	/**
+	 * Retorna um cursor posicionado antes da primeira partida de um segmento.
+	 * 
+	 * @param index a posição do segmento na lista de segmentos (0 a
+	 *              getSegmentCount() - 1)
+	 * @return o cursor sobre as partidas do segmento
+	 */
+	public GameCursor cursor(int index) {
+		return new GameCursor(segmentNumbers[index], segments[index].duplicate(), -1);
+	}
+
+	/**
+	 * Retorna um cursor posicionado em uma partida específica.
+	 * 
+	 * @param gameId o identificador da partida
+	 * @return o cursor posicionado na partida
+	 * @throws IllegalArgumentException se a partida não existir
+	 * @throws UncheckedIOException     se os movimentos da partida ultrapassarem o
+	 *                                  fim do segmento
+	 */
+	public GameCursor seek(long gameId) {
+
+		int segment = GameArchive.segmentOf(gameId);
+		int offset = GameArchive.offsetOf(gameId);
+
+		for (int i = 0; i < segments.length; i++) {
+
+			if (segmentNumbers[i] == segment) {
+
+				ByteBuffer buffer = segments[i].duplicate();
+
+				if (offset < GameArchive.SEGMENT_HEADER_SIZE || offset + GameArchive.RECORD_HEADER_SIZE > buffer.limit()
+						|| buffer.get(offset) != GameArchive.RECORD_MARKER)
+					break;
+
+				GameCursor cursor = new GameCursor(segment, buffer, offset);
+				cursor.checkRecord(offset);
+
+				return cursor;
+			}
+		}
+
+		throw new IllegalArgumentException(Long.toHexString(gameId));
+	}
+
+}// class GameArchiveReader
@@ -0,0 +1,139 @@
+package chess.archive;
+
+import static util.Messages.MSG_ERROR_RECORD_TOO_LARGE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Grava partidas no final de um arquivo de partidas, em segmentos mapeados em
+ * memória. Quando um segmento enche, um novo segmento é criado.
+ */
+public class GameArchiveWriter implements Closeable {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+	private final Path directory;
+	private final int segmentSize;
+
+	private int segment;
+	private MappedByteBuffer buffer;
+
+	/**
+	 * Abre o arquivo de partidas com o tamanho de segmento padrão.
+	 * 
+	 * @param directory o diretório do arquivo de partidas
+	 * @throws IOException se o arquivo não puder ser aberto
+	 */
+	public GameArchiveWriter(Path directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Abre o arquivo de partidas, continuando após o último registro gravado.
+	 * 
+	 * @param directory   o diretório do arquivo de partidas
+	 * @param segmentSize o tamanho de cada novo segmento em bytes
+	 * @throws IOException se o arquivo não puder ser aberto
+	 */
+	public GameArchiveWriter(Path directory, int segmentSize) throws IOException {
+
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+
+		Files.createDirectories(directory);
+
+		List<Integer> segments = GameArchive.listSegments(directory);
+
+		if (segments.isEmpty()) {
+			openSegment(0);
+		} else {
+			openSegment(segments.get(segments.size() - 1));
+			buffer.position(GameArchive.endOfRecords(buffer, GameArchive.SEGMENT_HEADER_SIZE));
+		}
+	}
+
+	/**
+	 * Acrescenta uma partida ao arquivo.
+	 * 
+	 * @param record a partida a ser gravada
+	 * @return o identificador da partida gravada
+	 * @throws IOException se um novo segmento não puder ser criado
+	 */
+	public synchronized long append(GameRecord record) throws IOException {
+
+		short[] moves = record.getMoves();
+		int size = GameArchive.recordSize(moves.length);
+
+		if (moves.length > 0xFFFF || size > segmentSize - GameArchive.SEGMENT_HEADER_SIZE)
+			throw new IllegalArgumentException(String.format(MSG_ERROR_RECORD_TOO_LARGE, moves.length));
+
+		if (buffer.remaining() < size) {
+			buffer.force();
+			openSegment(segment + 1);
+		}
+
+		int offset = buffer.position();
+
+		buffer.put(offset + GameArchive.RESULT_OFFSET, record.getResult().code());
+		buffer.putShort(offset + GameArchive.MOVE_COUNT_OFFSET, (short) moves.length);
+		buffer.putInt(offset + GameArchive.WHITE_OFFSET, record.getWhitePlayer());
+		buffer.putInt(offset + GameArchive.BLACK_OFFSET, record.getBlackPlayer());
+		buffer.putLong(offset + GameArchive.START_KEY_OFFSET, record.getStartPositionKey());
+
+		int movesOffset = offset + GameArchive.RECORD_HEADER_SIZE;
+		for (int i = 0; i < moves.length; i++)
+			buffer.putShort(movesOffset + 2 * i, moves[i]);
+
+		buffer.put(offset, GameArchive.RECORD_MARKER);
+		buffer.position(offset + size);
+
+		return GameArchive.gameId(segment, offset);
+	}
+
+	/**
+	 * Força a gravação em disco das partidas acrescentadas.
+	 */
+	public synchronized void force() {
+		buffer.force();
+	}
+
+	@Override
+	public synchronized void close() {
+		buffer.force();
+	}
+
+	/**
+	 * Abre ou cria um segmento e o mapeia em memória.
+	 */
+	private void openSegment(int number) throws IOException {
+
+		Path path = GameArchive.segmentPath(directory, number);
+		boolean created = !Files.exists(path);
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+
+			long size = created ? segmentSize : channel.size();
+			buffer = channel.map(MapMode.READ_WRITE, 0, size);
+		}
+
+		if (created) {
+			buffer.putInt(0, GameArchive.SEGMENT_MAGIC);
+			buffer.putShort(4, GameArchive.SEGMENT_VERSION);
+		} else {
+			GameArchive.checkHeader(buffer, path);
+		}
+
+		segment = number;
+		buffer.position(GameArchive.SEGMENT_HEADER_SIZE);
+	}
+
+}// class GameArchiveWriter
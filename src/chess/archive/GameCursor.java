@@ -0,0 +1,165 @@
+package chess.archive;
+
+import static util.Messages.MSG_ERROR_ARCHIVE_SEGMENT;
+import static util.Messages.MSG_ERROR_START_POSITION;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPiece;
+
+/**
+ * Cursor sobre as partidas de um segmento do arquivo de partidas. Os campos são
+ * lidos diretamente do segmento mapeado em memória.
+ */
+public class GameCursor {
+
+	private final int segment;
+	private final ByteBuffer buffer;
+	private int offset;
+
+	/**
+	 * Cria um cursor sobre um segmento.
+	 * 
+	 * @param segment o número do segmento
+	 * @param buffer  o conteúdo do segmento
+	 * @param offset  o deslocamento da partida atual, ou -1 antes da primeira
+	 */
+	GameCursor(int segment, ByteBuffer buffer, int offset) {
+		this.segment = segment;
+		this.buffer = buffer;
+		this.offset = offset;
+	}
+
+	/**
+	 * Avança para a próxima partida do segmento.
+	 * 
+	 * @return true se houver uma próxima partida, false no fim do segmento
+	 * @throws UncheckedIOException se os movimentos da partida ultrapassarem o fim
+	 *                              do segmento
+	 */
+	public boolean next() {
+
+		int nextOffset = (offset < 0) ? GameArchive.SEGMENT_HEADER_SIZE
+				: offset + GameArchive.recordSize(getMoveCount());
+
+		if (nextOffset + GameArchive.RECORD_HEADER_SIZE > buffer.limit()
+				|| buffer.get(nextOffset) != GameArchive.RECORD_MARKER)
+			return false;
+
+		checkRecord(nextOffset);
+
+		offset = nextOffset;
+		return true;
+	}
+
+	public long getGameId() {
+		return GameArchive.gameId(segment, offset);
+	}
+
+	/**
+	 * Retorna o resultado da partida atual.
+	 * 
+	 * @return o resultado da partida
+	 * @throws UncheckedIOException se o código do resultado estiver corrompido
+	 */
+	public GameResult getResult() {
+
+		byte code = buffer.get(offset + GameArchive.RESULT_OFFSET);
+
+		if (!GameResult.isCode(code))
+			throw corrupted();
+
+		return GameResult.fromCode(code);
+	}
+
+	public int getWhitePlayer() {
+		return buffer.getInt(offset + GameArchive.WHITE_OFFSET);
+	}
+
+	public int getBlackPlayer() {
+		return buffer.getInt(offset + GameArchive.BLACK_OFFSET);
+	}
+
+	public long getStartPositionKey() {
+		return buffer.getLong(offset + GameArchive.START_KEY_OFFSET);
+	}
+
+	public int getMoveCount() {
+		return buffer.getShort(offset + GameArchive.MOVE_COUNT_OFFSET) & 0xFFFF;
+	}
+
+	/**
+	 * Retorna um movimento da partida atual.
+	 * 
+	 * @param index o índice do movimento
+	 * @return o movimento codificado com MoveCodec
+	 */
+	public short getMove(int index) {
+		return buffer.getShort(offset + GameArchive.RECORD_HEADER_SIZE + 2 * index);
+	}
+
+	/**
+	 * Reproduz os movimentos da partida atual em uma partida de xadrez que esteja na
+	 * posição inicial do registro. Os movimentos são aplicados no modo de
+	 * reprodução, então o estado da partida só é calculado quando consultado.
+	 * 
+	 * @param chessMatch a partida de xadrez
+	 * @throws ChessException se a partida não estiver na posição inicial do
+	 *                        registro ou se algum movimento for inválido
+	 */
+	public void replay(ChessMatch chessMatch) {
+
+		if (chessMatch.getPositionKey() != getStartPositionKey())
+			throw new ChessException(MSG_ERROR_START_POSITION);
+
+		int count = getMoveCount();
+		boolean replayMode = chessMatch.isReplayMode();
+
+		chessMatch.setReplayMode(true);
+
+		try {
+			for (int i = 0; i < count; i++)
+				play(chessMatch, getMove(i));
+		} finally {
+			chessMatch.setReplayMode(replayMode);
+		}
+	}
+
+	/**
+	 * Executa um movimento codificado em uma partida de xadrez.
+	 * 
+	 * @param chessMatch a partida de xadrez
+	 * @param move       o movimento codificado com MoveCodec
+	 * @return a peça capturada, se houver
+	 */
+	public static ChessPiece play(ChessMatch chessMatch, short move) {
+
+		return chessMatch.performChessMove(MoveCodec.toChessPosition(MoveCodec.source(move)),
+				MoveCodec.toChessPosition(MoveCodec.target(move)), MoveCodec.promotion(move));
+	}
+
+	/**
+	 * Verifica se os movimentos do registro cabem no segmento.
+	 * 
+	 * @param recordOffset o deslocamento de um registro com cabeçalho completo
+	 * @throws UncheckedIOException se os movimentos ultrapassarem o fim do
+	 *                              segmento
+	 */
+	void checkRecord(int recordOffset) {
+
+		int moveCount = buffer.getShort(recordOffset + GameArchive.MOVE_COUNT_OFFSET) & 0xFFFF;
+
+		if (recordOffset + GameArchive.recordSize(moveCount) > buffer.limit())
+			throw corrupted();
+	}
+
+	private UncheckedIOException corrupted() {
+		return new UncheckedIOException(
+				new IOException(String.format(MSG_ERROR_ARCHIVE_SEGMENT, GameArchive.segmentName(segment))));
+	}
+
+}// class GameCursor
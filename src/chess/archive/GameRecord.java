@@ -0,0 +1,51 @@
+package chess.archive;
+
+/**
+ * Representa uma partida a ser gravada no arquivo binário de partidas.
+ */
+public class GameRecord {
+
+	private GameResult result;
+	private int whitePlayer;
+	private int blackPlayer;
+	private long startPositionKey;
+	private short[] moves;
+
+	/**
+	 * Cria um registro de partida.
+	 * 
+	 * @param result           o resultado da partida
+	 * @param whitePlayer      o identificador do jogador das brancas
+	 * @param blackPlayer      o identificador do jogador das pretas
+	 * @param startPositionKey a chave Zobrist da posição inicial
+	 * @param moves            os movimentos codificados com MoveCodec
+	 */
+	public GameRecord(GameResult result, int whitePlayer, int blackPlayer, long startPositionKey, short[] moves) {
+		this.result = result;
+		this.whitePlayer = whitePlayer;
+		this.blackPlayer = blackPlayer;
+		this.startPositionKey = startPositionKey;
+		this.moves = moves;
+	}
+
+	public GameResult getResult() {
+		return result;
+	}
+
+	public int getWhitePlayer() {
+		return whitePlayer;
+	}
+
+	public int getBlackPlayer() {
+		return blackPlayer;
+	}
+
+	public long getStartPositionKey() {
+		return startPositionKey;
+	}
+
+	public short[] getMoves() {
+		return moves;
+	}
+
+}// class GameRecord
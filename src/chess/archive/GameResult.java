@@ -0,0 +1,59 @@
+package chess.archive;
+
+/**
+ * Enumeração que representa o resultado de uma partida arquivada.
+ */
+public enum GameResult {
+
+	UNFINISHED("*"),
+	WHITE_WINS("1-0"),
+	BLACK_WINS("0-1"),
+	DRAW("1/2-1/2");
+
+	private static final GameResult[] VALUES = values();
+
+	private String title;
+
+	private GameResult(String title) {
+		this.title = title;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * Retorna o código do resultado usado no formato binário.
+	 * 
+	 * @return o código do resultado
+	 */
+	public byte code() {
+		return (byte) ordinal();
+	}
+
+	/**
+	 * Verifica se um código do formato binário corresponde a um resultado.
+	 * 
+	 * @param code o código lido
+	 * @return true se o código for válido
+	 */
+	public static boolean isCode(int code) {
+		return code >= 0 && code < VALUES.length;
+	}
+
+	/**
+	 * Retorna o resultado correspondente a um código do formato binário.
+	 * 
+	 * @param code o código do resultado
+	 * @return o resultado correspondente
+	 * @throws IllegalArgumentException se o código não for válido
+	 */
+	public static GameResult fromCode(int code) {
+
+		if (!isCode(code))
+			throw new IllegalArgumentException(Integer.toString(code));
+
+		return VALUES[code];
+	}
+
+}// enum GameResult
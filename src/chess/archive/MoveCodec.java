@@ -0,0 +1,117 @@
+package chess.archive;
+
+import chess.ChessPosition;
+import util.Pieces;
+
+/**
+ * Codifica movimentos em 16 bits: casa de origem (bits 0-5), casa de destino
+ * (bits 6-11) e peça de promoção (bits 12-14). As casas são numeradas de a1 = 0
+ * até h8 = 63.
+ */
+public final class MoveCodec {
+
+	public static final short NONE = 0;
+
+	private static final int SQUARE_MASK = 0x3F;
+	private static final int TARGET_SHIFT = 6;
+	private static final int PROMOTION_SHIFT = 12;
+	private static final int PROMOTION_MASK = 0x7;
+
+	private static final Pieces[] PROMOTIONS = { null, Pieces.KNIGHT, Pieces.BISHOP, Pieces.ROOK, Pieces.QUEEN };
+
+	private MoveCodec() {
+	}
+
+	/**
+	 * Codifica um movimento.
+	 * 
+	 * @param source    a posição de origem
+	 * @param target    a posição de destino
+	 * @param promotion a peça de promoção, ou null
+	 * @return o movimento codificado
+	 */
+	public static short encode(ChessPosition source, ChessPosition target, Pieces promotion) {
+		return encode(square(source), square(target), promotion);
+	}
+
+	/**
+	 * Codifica um movimento a partir dos índices das casas.
+	 * 
+	 * @param source    o índice da casa de origem
+	 * @param target    o índice da casa de destino
+	 * @param promotion a peça de promoção, ou null
+	 * @return o movimento codificado
+	 */
+	public static short encode(int source, int target, Pieces promotion) {
+		return (short) (source | (target << TARGET_SHIFT) | (promotionCode(promotion) << PROMOTION_SHIFT));
+	}
+
+	public static int source(short move) {
+		return move & SQUARE_MASK;
+	}
+
+	public static int target(short move) {
+		return (move >>> TARGET_SHIFT) & SQUARE_MASK;
+	}
+
+	/**
+	 * Retorna a peça de promoção de um movimento codificado.
+	 * 
+	 * @param move o movimento codificado
+	 * @return a peça de promoção, ou null se o movimento não for uma promoção
+	 */
+	public static Pieces promotion(short move) {
+		return PROMOTIONS[(move >>> PROMOTION_SHIFT) & PROMOTION_MASK];
+	}
+
+	/**
+	 * Retorna o índice da casa de uma posição de xadrez.
+	 * 
+	 * @param position a posição de xadrez
+	 * @return o índice da casa (a1 = 0, h8 = 63)
+	 */
+	public static int square(ChessPosition position) {
+		return (position.getRow() - 1) * 8 + (position.getColumn() - 'a');
+	}
+
+	/**
+	 * Converte o índice de uma casa para uma posição de xadrez.
+	 * 
+	 * @param square o índice da casa (a1 = 0, h8 = 63)
+	 * @return a posição de xadrez correspondente
+	 */
+	public static ChessPosition toChessPosition(int square) {
+		return ChessPosition.of((char) ('a' + (square & 7)), (square >>> 3) + 1);
+	}
+
+	/**
+	 * Escreve um movimento codificado em notação de coordenadas (e2e4, e7e8q).
+	 * 
+	 * @param move o movimento codificado
+	 * @return a notação do movimento, ou "-" se não houver movimento
+	 */
+	public static String toNotation(short move) {
+
+		if (move == NONE)
+			return "-";
+
+		String notation = toChessPosition(source(move)) + "" + toChessPosition(target(move));
+		Pieces promotion = promotion(move);
+
+		return (promotion == null) ? notation : notation + promotion.getAcronym().toLowerCase();
+	}
+
+	private static int promotionCode(Pieces promotion) {
+
+		if (promotion == null)
+			return 0;
+
+		for (int i = 1; i < PROMOTIONS.length; i++) {
+			if (PROMOTIONS[i] == promotion)
+				return i;
+		}
+
+		throw new IllegalArgumentException(promotion.name());
+	}
+
+}// class MoveCodec
@@ -0,0 +1,283 @@
+package chess.archive;
+
+import static util.Messages.MSG_ERROR_INDEX_SEGMENT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Índice de posições de um arquivo de partidas, usado para consultar em quais
+ * partidas uma posição ocorreu e quais lances foram jogados a partir dela.
+ *
+ * O índice é um diretório com um segmento para cada segmento do arquivo de
+ * partidas, gerado por PositionIndexBuilder e mapeado em memória. Cada segmento
+ * contém um cabeçalho de 32 bytes seguido de três tabelas:
+ *
+ * <pre>
+ * chaves:     chave (8) | primeira partida (4) | partidas (4) | primeiro lance (4) | lances (4)
+ * lances:     lance (2) | reservado (2) | brancas (4) | empates (4) | pretas (4)
+ * partidas:   deslocamento do registro no segmento do arquivo (4)
+ * </pre>
+ *
+ * As chaves estão em ordem crescente (com sinal) e são localizadas por busca
+ * binária. As partidas de uma chave estão em ordem crescente, sem repetições.
+ * Partidas sem resultado aparecem nas partidas, mas não nos totais dos lances.
+ */
+public class PositionIndex {
+
+	public static final int SEGMENT_MAGIC = 0x43484958;
+	public static final short SEGMENT_VERSION = 1;
+	public static final int SEGMENT_HEADER_SIZE = 32;
+
+	static final int SEGMENT_NUMBER_OFFSET = 8;
+	static final int ARCHIVE_END_OFFSET = 12;
+	static final int KEY_COUNT_OFFSET = 16;
+	static final int CONTINUATION_COUNT_OFFSET = 20;
+	static final int GAME_COUNT_OFFSET = 24;
+
+	static final int KEY_ENTRY_SIZE = 24;
+	static final int CONTINUATION_ENTRY_SIZE = 16;
+	static final int GAME_ENTRY_SIZE = 4;
+
+	private static final String SEGMENT_PREFIX = "positions-";
+	private static final String SEGMENT_SUFFIX = ".idx";
+
+	private final Segment[] segments;
+
+	/**
+	 * Abre um índice de posições para consulta.
+	 *
+	 * @param directory o diretório do índice
+	 * @throws IOException se algum segmento não puder ser lido
+	 */
+	public PositionIndex(Path directory) throws IOException {
+
+		List<Integer> numbers = listSegments(directory);
+
+		segments = new Segment[numbers.size()];
+
+		for (int i = 0; i < segments.length; i++)
+			segments[i] = new Segment(map(segmentPath(directory, numbers.get(i))));
+	}
+
+	/**
+	 * Retorna o número de partidas em que a posição ocorreu.
+	 *
+	 * @param positionKey a chave Zobrist da posição
+	 * @return o número de partidas
+	 */
+	public int getGameCount(long positionKey) {
+
+		int count = 0;
+
+		for (Segment segment : segments) {
+			int entry = segment.find(positionKey);
+			if (entry >= 0)
+				count += segment.buffer.getInt(entry + 12);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Retorna os identificadores das partidas em que a posição ocorreu, em ordem
+	 * crescente.
+	 *
+	 * @param positionKey a chave Zobrist da posição
+	 * @return os identificadores das partidas (ver GameArchive.gameId)
+	 */
+	public long[] getGames(long positionKey) {
+
+		long[] games = new long[getGameCount(positionKey)];
+		int count = 0;
+
+		for (Segment segment : segments) {
+
+			int entry = segment.find(positionKey);
+			if (entry < 0)
+				continue;
+
+			int first = segment.buffer.getInt(entry + 8);
+			int size = segment.buffer.getInt(entry + 12);
+
+			for (int i = 0; i < size; i++)
+				games[count++] = GameArchive.gameId(segment.number,
+						segment.buffer.getInt(segment.games + (first + i) * GAME_ENTRY_SIZE));
+		}
+
+		return games;
+	}
+
+	/**
+	 * Retorna os lances jogados a partir da posição com os resultados das
+	 * partidas, do lance mais jogado para o menos jogado.
+	 *
+	 * @param positionKey a chave Zobrist da posição
+	 * @return os lances jogados a partir da posição
+	 */
+	public List<Continuation> getContinuations(long positionKey) {
+
+		List<Continuation> list = new ArrayList<>();
+
+		for (Segment segment : segments) {
+
+			int entry = segment.find(positionKey);
+			if (entry < 0)
+				continue;
+
+			int first = segment.buffer.getInt(entry + 16);
+			int size = segment.buffer.getInt(entry + 20);
+
+			for (int i = 0; i < size; i++) {
+
+				int offset = segment.continuations + (first + i) * CONTINUATION_ENTRY_SIZE;
+				short move = segment.buffer.getShort(offset);
+
+				Continuation continuation = null;
+				for (Continuation c : list) {
+					if (c.getMove() == move) {
+						continuation = c;
+						break;
+					}
+				}
+
+				if (continuation == null) {
+					continuation = new Continuation(move);
+					list.add(continuation);
+				}
+
+				continuation.add(segment.buffer.getInt(offset + 4), segment.buffer.getInt(offset + 8),
+						segment.buffer.getInt(offset + 12));
+			}
+		}
+
+		list.sort((a, b) -> Integer.compare(b.getGames(), a.getGames()));
+
+		return list;
+	}
+
+	/**
+	 * Retorna o caminho do arquivo de um segmento do índice.
+	 *
+	 * @param directory o diretório do índice
+	 * @param segment   o número do segmento do arquivo de partidas
+	 * @return o caminho do segmento do índice
+	 */
+	public static Path segmentPath(Path directory, int segment) {
+		return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+	}
+
+	/**
+	 * Lista os números dos segmentos existentes no índice em ordem crescente.
+	 *
+	 * @param directory o diretório do índice
+	 * @return os números dos segmentos
+	 * @throws IOException se o diretório não puder ser lido
+	 */
+	public static List<Integer> listSegments(Path directory) throws IOException {
+
+		if (!Files.isDirectory(directory))
+			return List.of();
+
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(p -> p.getFileName().toString())
+					.filter(n -> n.startsWith(SEGMENT_PREFIX) && n.endsWith(SEGMENT_SUFFIX))
+					.map(n -> Integer.parseInt(n.substring(SEGMENT_PREFIX.length(), n.length() - SEGMENT_SUFFIX.length())))
+					.sorted().collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Mapeia um segmento do índice em memória, validando o cabeçalho.
+	 *
+	 * @param path o caminho do segmento
+	 * @return o conteúdo do segmento
+	 * @throws IOException se o segmento não puder ser lido ou for inválido
+	 */
+	static MappedByteBuffer map(Path path) throws IOException {
+
+		MappedByteBuffer buffer;
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.limit() < SEGMENT_HEADER_SIZE || buffer.getInt(0) != SEGMENT_MAGIC
+				|| buffer.getShort(4) != SEGMENT_VERSION || buffer.limit() != segmentSize(buffer.getInt(KEY_COUNT_OFFSET),
+						buffer.getInt(CONTINUATION_COUNT_OFFSET), buffer.getInt(GAME_COUNT_OFFSET)))
+			throw new IOException(String.format(MSG_ERROR_INDEX_SEGMENT, path));
+
+		return buffer;
+	}
+
+	/**
+	 * Retorna o tamanho em bytes de um segmento do índice.
+	 *
+	 * @param keys          o número de chaves
+	 * @param continuations o número de lances
+	 * @param games         o número de partidas
+	 * @return o tamanho do segmento
+	 */
+	static int segmentSize(int keys, int continuations, int games) {
+		return SEGMENT_HEADER_SIZE + keys * KEY_ENTRY_SIZE + continuations * CONTINUATION_ENTRY_SIZE
+				+ games * GAME_ENTRY_SIZE;
+	}
+
+	/**
+	 * Segmento do índice mapeado em memória, com o início de cada tabela.
+	 */
+	private static class Segment {
+
+		private final ByteBuffer buffer;
+		private final int number;
+		private final int keyCount;
+		private final int continuations;
+		private final int games;
+
+		Segment(ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.number = buffer.getInt(SEGMENT_NUMBER_OFFSET);
+			this.keyCount = buffer.getInt(KEY_COUNT_OFFSET);
+			this.continuations = SEGMENT_HEADER_SIZE + keyCount * KEY_ENTRY_SIZE;
+			this.games = continuations + buffer.getInt(CONTINUATION_COUNT_OFFSET) * CONTINUATION_ENTRY_SIZE;
+		}
+
+		/**
+		 * Localiza uma chave por busca binária.
+		 *
+		 * @return o deslocamento da entrada da chave, ou -1 se não existir
+		 */
+		int find(long key) {
+
+			int low = 0;
+			int high = keyCount - 1;
+
+			while (low <= high) {
+
+				int mid = (low + high) >>> 1;
+				int offset = SEGMENT_HEADER_SIZE + mid * KEY_ENTRY_SIZE;
+				long midKey = buffer.getLong(offset);
+
+				if (midKey < key)
+					low = mid + 1;
+				else if (midKey > key)
+					high = mid - 1;
+				else
+					return offset;
+			}
+
+			return -1;
+		}
+	}
+
+}// class PositionIndex
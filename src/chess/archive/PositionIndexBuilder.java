@@ -0,0 +1,446 @@
+package chess.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import chess.ChessException;
+import chess.ChessMatch;
+
+/**
+ * Gera o índice de posições de um arquivo de partidas. Cada segmento do arquivo
+ * é indexado de forma independente e em paralelo: as partidas são reproduzidas
+ * no modo de reprodução, as posições são ordenadas pela chave e o segmento do
+ * índice é gravado em um arquivo temporário renomeado ao final.
+ *
+ * Segmentos cujo índice já cobre todas as partidas gravadas são mantidos, então
+ * apenas o último segmento do arquivo é reindexado quando novas partidas são
+ * acrescentadas.
+ */
+public final class PositionIndexBuilder {
+
+	private static final short NO_MOVE = 0;
+
+	private PositionIndexBuilder() {
+	}
+
+	/**
+	 * Gera ou atualiza o índice de posições de um arquivo de partidas.
+	 *
+	 * @param archive o diretório do arquivo de partidas
+	 * @param index   o diretório do índice
+	 * @param threads o número de threads usadas na geração
+	 * @return o número de segmentos do índice gerados
+	 * @throws IOException se o arquivo não puder ser lido ou o índice gravado
+	 */
+	public static int build(Path archive, Path index, int threads) throws IOException {
+
+		Files.createDirectories(index);
+
+		GameArchiveReader reader = new GameArchiveReader(archive);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		try {
+			return pool.submit(() -> IntStream.range(0, reader.getSegmentCount()).parallel()
+					.map(i -> buildSegment(reader, i, index) ? 1 : 0).sum()).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof UncheckedIOException)
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Indexa um segmento do arquivo de partidas, caso o índice existente esteja
+	 * desatualizado.
+	 *
+	 * @return true se o segmento do índice foi gerado
+	 */
+	private static boolean buildSegment(GameArchiveReader reader, int segmentIndex, Path index) {
+
+		int segment = reader.getSegmentNumber(segmentIndex);
+		Path path = PositionIndex.segmentPath(index, segment);
+
+		try {
+			int archiveEnd = archiveEnd(reader.cursor(segmentIndex));
+
+			if (Files.exists(path) && indexedEnd(path) == archiveEnd)
+				return false;
+
+			Positions positions = collect(reader.cursor(segmentIndex), positionCount(reader.cursor(segmentIndex)));
+			positions.sort();
+
+			write(path, segment, archiveEnd, positions);
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Retorna o deslocamento logo após a última partida de um segmento.
+	 */
+	private static int archiveEnd(GameCursor cursor) {
+
+		int end = GameArchive.SEGMENT_HEADER_SIZE;
+
+		while (cursor.next())
+			end = GameArchive.offsetOf(cursor.getGameId()) + GameArchive.recordSize(cursor.getMoveCount());
+
+		return end;
+	}
+
+	/**
+	 * Retorna o fim do arquivo coberto por um segmento do índice, ou -1 se o
+	 * segmento for inválido.
+	 */
+	private static int indexedEnd(Path path) {
+		try {
+			return PositionIndex.map(path).getInt(PositionIndex.ARCHIVE_END_OFFSET);
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Retorna o número máximo de posições indexadas de um segmento: as posições
+	 * de todas as partidas que começam na posição inicial.
+	 */
+	private static int positionCount(GameCursor cursor) {
+
+		long startKey = new ChessMatch().getPositionKey();
+		long count = 0;
+
+		while (cursor.next()) {
+			if (cursor.getStartPositionKey() == startKey)
+				count += cursor.getMoveCount() + 1;
+		}
+
+		return Math.toIntExact(count);
+	}
+
+	/**
+	 * Reproduz as partidas de um segmento e registra cada posição de cada
+	 * partida. Partidas com lances inválidos são indexadas até onde puderem ser
+	 * reproduzidas; as que não começam na posição inicial são ignoradas.
+	 */
+	private static Positions collect(GameCursor cursor, int capacity) {
+
+		long startKey = new ChessMatch().getPositionKey();
+		Positions positions = new Positions(capacity);
+
+		while (cursor.next()) {
+
+			if (cursor.getStartPositionKey() != startKey)
+				continue;
+
+			int offset = GameArchive.offsetOf(cursor.getGameId());
+			byte result = cursor.getResult().code();
+			int count = cursor.getMoveCount();
+
+			ChessMatch chessMatch = new ChessMatch();
+			chessMatch.setReplayMode(true);
+
+			for (int i = 0; i <= count; i++) {
+
+				short move = (i < count) ? cursor.getMove(i) : NO_MOVE;
+
+				positions.add(chessMatch.getPositionKey(), offset, move, result);
+
+				if (move == NO_MOVE)
+					break;
+
+				try {
+					GameCursor.play(chessMatch, move);
+				} catch (ChessException e) {
+					break;
+				}
+			}
+		}
+
+		return positions;
+	}
+
+	/**
+	 * Grava um segmento do índice a partir das entradas ordenadas.
+	 */
+	private static void write(Path path, int segment, int archiveEnd, Positions positions) throws IOException {
+
+		Tables tables = new Tables(positions.size);
+
+		for (int first = 0; first < positions.size;) {
+
+			int last = first;
+			while (last + 1 < positions.size && positions.keys[last + 1] == positions.keys[first])
+				last++;
+
+			tables.addKey(positions, first, last);
+			first = last + 1;
+		}
+
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		int size = PositionIndex.segmentSize(tables.keyCount, tables.continuationCount, tables.gameCount);
+
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+
+			buffer.putInt(0, PositionIndex.SEGMENT_MAGIC);
+			buffer.putShort(4, PositionIndex.SEGMENT_VERSION);
+			buffer.putInt(PositionIndex.SEGMENT_NUMBER_OFFSET, segment);
+			buffer.putInt(PositionIndex.ARCHIVE_END_OFFSET, archiveEnd);
+			buffer.putInt(PositionIndex.KEY_COUNT_OFFSET, tables.keyCount);
+			buffer.putInt(PositionIndex.CONTINUATION_COUNT_OFFSET, tables.continuationCount);
+			buffer.putInt(PositionIndex.GAME_COUNT_OFFSET, tables.gameCount);
+
+			tables.write(buffer);
+
+			buffer.force();
+		}
+
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Tabelas de um segmento do índice montadas em memória antes da gravação.
+	 */
+	private static class Tables {
+
+		private long[] keys;
+		private int[] keyData;
+		private int keyCount;
+
+		private int[] continuations;
+		private int continuationCount;
+
+		private int[] games;
+		private int gameCount;
+
+		private int[] packed;
+
+		Tables(int capacity) {
+			keys = new long[16];
+			keyData = new int[16 * 4];
+			continuations = new int[16 * 4];
+			games = new int[Math.max(capacity, 1)];
+			packed = new int[16];
+		}
+
+		/**
+		 * Acrescenta uma chave com as entradas de first a last, que estão ordenadas
+		 * por partida e lance.
+		 */
+		void addKey(Positions positions, int first, int last) {
+
+			if (keyCount == keys.length) {
+				keys = Arrays.copyOf(keys, keyCount * 2);
+				keyData = Arrays.copyOf(keyData, keyCount * 8);
+			}
+
+			if (packed.length < last - first + 1)
+				packed = new int[Math.max(packed.length * 2, last - first + 1)];
+
+			int firstGame = gameCount;
+			int firstContinuation = continuationCount;
+			int size = 0;
+
+			for (int i = first; i <= last; i++) {
+
+				int offset = positions.offset(i);
+				short move = positions.move(i);
+				int result = positions.result(i);
+				boolean sameGame = i > first && positions.offset(i - 1) == offset;
+
+				if (!sameGame)
+					games[gameCount++] = offset;
+
+				// Uma posição repetida na partida conta o lance uma única vez
+				if (move != NO_MOVE && result != GameResult.UNFINISHED.code()
+						&& !(sameGame && positions.move(i - 1) == move))
+					packed[size++] = ((move & 0xFFFF) << 2) | result;
+			}
+
+			Arrays.sort(packed, 0, size);
+
+			for (int i = 0; i < size;) {
+
+				int move = packed[i] >>> 2;
+				int[] results = new int[4];
+
+				while (i < size && packed[i] >>> 2 == move)
+					results[packed[i++] & 3]++;
+
+				if (continuationCount * 4 == continuations.length)
+					continuations = Arrays.copyOf(continuations, continuations.length * 2);
+
+				int c = continuationCount++ * 4;
+				continuations[c] = move;
+				continuations[c + 1] = results[GameResult.WHITE_WINS.code()];
+				continuations[c + 2] = results[GameResult.DRAW.code()];
+				continuations[c + 3] = results[GameResult.BLACK_WINS.code()];
+			}
+
+			int k = keyCount * 4;
+			keys[keyCount++] = positions.keys[first];
+			keyData[k] = firstGame;
+			keyData[k + 1] = gameCount - firstGame;
+			keyData[k + 2] = firstContinuation;
+			keyData[k + 3] = continuationCount - firstContinuation;
+		}
+
+		/**
+		 * Grava as tabelas após o cabeçalho do segmento.
+		 */
+		void write(ByteBuffer buffer) {
+
+			int offset = PositionIndex.SEGMENT_HEADER_SIZE;
+
+			for (int i = 0; i < keyCount; i++) {
+				buffer.putLong(offset, keys[i]);
+				for (int j = 0; j < 4; j++)
+					buffer.putInt(offset + 8 + 4 * j, keyData[i * 4 + j]);
+				offset += PositionIndex.KEY_ENTRY_SIZE;
+			}
+
+			for (int i = 0; i < continuationCount; i++) {
+				buffer.putShort(offset, (short) continuations[i * 4]);
+				for (int j = 1; j < 4; j++)
+					buffer.putInt(offset + 4 * j, continuations[i * 4 + j]);
+				offset += PositionIndex.CONTINUATION_ENTRY_SIZE;
+			}
+
+			for (int i = 0; i < gameCount; i++) {
+				buffer.putInt(offset, games[i]);
+				offset += PositionIndex.GAME_ENTRY_SIZE;
+			}
+		}
+	}
+
+	/**
+	 * Ocorrências das posições de um segmento em vetores primitivos: a chave da
+	 * posição e, compactados em um long, o deslocamento da partida, o lance jogado
+	 * a partir dela e o resultado. A ordem dos dados compactados é a do
+	 * deslocamento e depois a do lance, então ordenar pelos pares (chave, dados)
+	 * agrupa as posições por chave, partida e lance.
+	 */
+	private static class Positions {
+
+		private static final int INSERTION_SORT_SIZE = 16;
+
+		private final long[] keys;
+		private final long[] data;
+		private int size;
+
+		Positions(int capacity) {
+			keys = new long[capacity];
+			data = new long[capacity];
+		}
+
+		void add(long key, int offset, short move, byte result) {
+			keys[size] = key;
+			data[size++] = ((long) offset << 24) | ((move & 0xFFFFL) << 8) | (result & 0xFF);
+		}
+
+		int offset(int i) {
+			return (int) (data[i] >>> 24);
+		}
+
+		short move(int i) {
+			return (short) (data[i] >>> 8);
+		}
+
+		int result(int i) {
+			return (int) data[i] & 0xFF;
+		}
+
+		/**
+		 * Ordena as ocorrências pela chave e pelos dados, sem memória adicional.
+		 */
+		void sort() {
+			sort(0, size - 1);
+		}
+
+		private void sort(int low, int high) {
+
+			// Quicksort que recorre na parte menor, limitando a pilha a log n
+			while (high - low >= INSERTION_SORT_SIZE) {
+
+				int middle = (low + high) >>> 1;
+
+				if (less(middle, low))
+					swap(middle, low);
+				if (less(high, middle)) {
+					swap(high, middle);
+					if (less(middle, low))
+						swap(middle, low);
+				}
+
+				long pivotKey = keys[middle];
+				long pivotData = data[middle];
+				int i = low;
+				int j = high;
+
+				while (i <= j) {
+					while (less(keys[i], data[i], pivotKey, pivotData))
+						i++;
+					while (less(pivotKey, pivotData, keys[j], data[j]))
+						j--;
+					if (i <= j)
+						swap(i++, j--);
+				}
+
+				if (j - low < high - i) {
+					sort(low, j);
+					low = i;
+				} else {
+					sort(i, high);
+					high = j;
+				}
+			}
+
+			for (int i = low + 1; i <= high; i++) {
+				for (int j = i; j > low && less(j, j - 1); j--)
+					swap(j, j - 1);
+			}
+		}
+
+		private boolean less(int i, int j) {
+			return less(keys[i], data[i], keys[j], data[j]);
+		}
+
+		private static boolean less(long key, long data, long otherKey, long otherData) {
+			return key < otherKey || (key == otherKey && data < otherData);
+		}
+
+		private void swap(int i, int j) {
+
+			long key = keys[i];
+			keys[i] = keys[j];
+			keys[j] = key;
+
+			long value = data[i];
+			data[i] = data[j];
+			data[j] = value;
+		}
+	}
+
+}// class PositionIndexBuilder
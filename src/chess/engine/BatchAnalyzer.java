@@ -0,0 +1,121 @@
+package chess.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.analysis.AnalysisResult;
+import chess.archive.MoveCodec;
+
+/**
+ * Analisa em lote posições em notação FEN, uma por linha. As posições são lidas
+ * aos poucos e analisadas em paralelo por um pool de work-stealing, em que cada
+ * thread tem a sua tabela de transposição. Os resultados são gravados na ordem
+ * da entrada, assim que a posição e todas as anteriores terminam.
+ *
+ * Cada linha de saída tem os campos separados por tabulação: a FEN, o melhor
+ * lance, a avaliação do ponto de vista do lado a jogar, a profundidade e o
+ * número de posições visitadas. Uma FEN inválida produz a FEN seguida da
+ * mensagem de erro. Linhas em branco são ignoradas.
+ */
+public class BatchAnalyzer {
+
+	private static final int TABLE_BITS = 18;
+	private static final int PENDING_PER_THREAD = 32;
+
+	private final SearchEngine engine;
+	private final int maxDepth;
+	private final long budgetNanos;
+	private final int threads;
+
+	/**
+	 * Cria um analisador em lote.
+	 *
+	 * @param engine       o motor de busca (não guarda estado e é compartilhado)
+	 * @param maxDepth     a profundidade máxima por posição em meios-lances
+	 * @param budgetMillis o tempo máximo por posição em milissegundos
+	 * @param threads      o número de threads de análise
+	 */
+	public BatchAnalyzer(SearchEngine engine, int maxDepth, long budgetMillis, int threads) {
+		this.engine = engine;
+		this.maxDepth = maxDepth;
+		this.budgetNanos = budgetMillis * 1_000_000L;
+		this.threads = threads;
+	}
+
+	/**
+	 * Analisa todas as posições da entrada e grava os resultados na saída.
+	 *
+	 * @param in  as posições em FEN, uma por linha
+	 * @param out o destino das linhas de resultado
+	 * @return o número de posições analisadas
+	 * @throws IOException se a entrada não puder ser lida ou a saída gravada
+	 */
+	public long analyze(BufferedReader in, Writer out) throws IOException {
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		ThreadLocal<TranspositionTable> tables = ThreadLocal.withInitial(() -> new TranspositionTable(TABLE_BITS));
+		ArrayDeque<ForkJoinTask<String>> pending = new ArrayDeque<>();
+		long count = 0;
+
+		try {
+			String line;
+
+			while ((line = in.readLine()) != null) {
+
+				if (line.isBlank())
+					continue;
+
+				String fen = line.trim();
+				pending.add(pool.submit(() -> analyze(fen, tables)));
+				count++;
+
+				// Limita as posições em memória sem esperar pelas mais lentas
+				while (!pending.isEmpty() && (pending.peek().isDone() || pending.size() >= threads * PENDING_PER_THREAD))
+					write(out, pending.poll().join());
+			}
+
+			while (!pending.isEmpty())
+				write(out, pending.poll().join());
+
+			out.flush();
+		} finally {
+			for (ForkJoinTask<String> task : pending)
+				task.cancel(false);
+			pool.shutdown();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Analisa uma posição na thread atual do pool.
+	 */
+	private String analyze(String fen, ThreadLocal<TranspositionTable> tables) {
+
+		ChessMatch chessMatch;
+
+		try {
+			chessMatch = new ChessMatch(fen);
+		} catch (ChessException e) {
+			return fen + '\t' + e.getMessage();
+		}
+
+		SearchEngine.Search search = engine.new Search(chessMatch, System.nanoTime() + budgetNanos, tables.get());
+		AnalysisResult result = search.run(maxDepth);
+
+		return fen + '\t' + MoveCodec.toNotation(result.getBestMove()) + '\t' + result.getScore() + '\t'
+				+ result.getDepth() + '\t' + result.getNodes();
+	}
+
+	private static void write(Writer out, String line) throws IOException {
+		out.write(line);
+		out.write(System.lineSeparator());
+	}
+
+}// class BatchAnalyzer
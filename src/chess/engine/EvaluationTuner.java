@@ -0,0 +1,238 @@
+package chess.engine;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import chess.ChessMatch;
+import chess.Color;
+import util.Pieces;
+
+/**
+ * Ajuste dos pesos da avaliação pelo método de Texel: a avaliação de cada
+ * posição é convertida em uma expectativa de resultado por uma sigmoide, e os
+ * pesos são escolhidos para minimizar o erro quadrático médio em relação aos
+ * resultados das partidas.
+ *
+ * A otimização é uma busca local: cada peso é aumentado ou diminuído de um
+ * passo enquanto o erro diminuir, e o passo é reduzido à metade quando nenhum
+ * peso melhora. O valor material do peão é fixo, pois define a escala das
+ * avaliações, e o do rei é ignorado.
+ *
+ * As posições (geradas por TuningPositions) são lidas do disco a cada cálculo
+ * do erro, em blocos avaliados em paralelo, então o conjunto de posições não
+ * precisa caber na memória.
+ */
+public class EvaluationTuner implements Closeable {
+
+	private static final int BATCH_SIZE = 4096;
+	private static final int INITIAL_STEP = 8;
+	private static final double MIN_SCALE = 0.2;
+	private static final double MAX_SCALE = 3.0;
+	private static final int SCALE_ITERATIONS = 16;
+
+	private final Path positions;
+	private final ForkJoinPool pool;
+
+	private double scale = 1.0;
+	private int step = INITIAL_STEP;
+	private long positionCount;
+
+	/**
+	 * Cria um ajuste sobre um arquivo de posições.
+	 *
+	 * @param positions o arquivo de posições, uma FEN e um resultado por linha
+	 * @param threads   o número de threads usadas na avaliação
+	 */
+	public EvaluationTuner(Path positions, int threads) {
+		this.positions = positions;
+		this.pool = new ForkJoinPool(threads);
+	}
+
+	public double getScale() {
+		return scale;
+	}
+
+	/**
+	 * Retorna o número de posições lidas no último cálculo do erro.
+	 *
+	 * @return o número de posições
+	 */
+	public long getPositionCount() {
+		return positionCount;
+	}
+
+	/**
+	 * Verifica se a busca local terminou, isto é, se nem o passo de uma unidade
+	 * melhorou algum peso.
+	 *
+	 * @return true se os pesos não podem mais ser melhorados
+	 */
+	public boolean isConverged() {
+		return step == 0;
+	}
+
+	/**
+	 * Ajusta a constante da sigmoide que melhor converte as avaliações dos pesos
+	 * especificados em resultados (busca pela seção áurea). Deve ser chamado
+	 * antes de ajustar os pesos.
+	 *
+	 * @param weights os pesos, indexados pelas constantes de Evaluator
+	 * @return a constante ajustada
+	 * @throws IOException se as posições não puderem ser lidas
+	 */
+	public double fitScale(int[] weights) throws IOException {
+
+		double ratio = (Math.sqrt(5) - 1) / 2;
+		double low = MIN_SCALE;
+		double high = MAX_SCALE;
+
+		for (int i = 0; i < SCALE_ITERATIONS; i++) {
+
+			double left = high - ratio * (high - low);
+			double right = low + ratio * (high - low);
+
+			scale = left;
+			double leftError = error(weights);
+			scale = right;
+			double rightError = error(weights);
+
+			if (leftError < rightError)
+				high = right;
+			else
+				low = left;
+		}
+
+		scale = (low + high) / 2;
+		return scale;
+	}
+
+	/**
+	 * Executa uma passada da busca local sobre todos os pesos, alterando o vetor
+	 * especificado.
+	 *
+	 * @param weights os pesos, indexados pelas constantes de Evaluator
+	 * @return o erro quadrático médio dos pesos ao fim da passada
+	 * @throws IOException se as posições não puderem ser lidas
+	 */
+	public double improve(int[] weights) throws IOException {
+
+		double best = error(weights);
+
+		if (step == 0)
+			return best;
+
+		boolean improved = false;
+
+		for (int i = 0; i < weights.length; i++) {
+
+			if (i == Evaluator.MATERIAL + Pieces.PAWN.ordinal()
+					|| i == Evaluator.MATERIAL + Pieces.KING.ordinal())
+				continue;
+
+			int original = weights[i];
+
+			weights[i] = original + step;
+			double error = error(weights);
+
+			if (error >= best) {
+				weights[i] = original - step;
+				error = error(weights);
+			}
+
+			if (error < best) {
+				best = error;
+				improved = true;
+			} else {
+				weights[i] = original;
+			}
+		}
+
+		if (!improved)
+			step /= 2;
+
+		return best;
+	}
+
+	/**
+	 * Calcula o erro quadrático médio das previsões dos pesos especificados.
+	 *
+	 * @param weights os pesos, indexados pelas constantes de Evaluator
+	 * @return o erro quadrático médio
+	 * @throws IOException se as posições não puderem ser lidas
+	 */
+	public double error(int[] weights) throws IOException {
+
+		Evaluator evaluator = new Evaluator(weights, 0);
+		double sum = 0;
+		long count = 0;
+
+		try (BufferedReader in = Files.newBufferedReader(positions, StandardCharsets.UTF_8)) {
+
+			List<String> batch = new ArrayList<>(BATCH_SIZE);
+			String line;
+
+			while ((line = in.readLine()) != null) {
+
+				if (line.isBlank())
+					continue;
+
+				batch.add(line);
+
+				if (batch.size() == BATCH_SIZE) {
+					sum += batchError(evaluator, batch);
+					count += batch.size();
+					batch = new ArrayList<>(BATCH_SIZE);
+				}
+			}
+
+			sum += batchError(evaluator, batch);
+			count += batch.size();
+		}
+
+		positionCount = count;
+		return (count == 0) ? 0.0 : sum / count;
+	}
+
+	private double batchError(Evaluator evaluator, List<String> batch) throws IOException {
+
+		try {
+			return pool.submit(() -> batch.parallelStream().mapToDouble(line -> squaredError(evaluator, line)).sum())
+					.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private double squaredError(Evaluator evaluator, String line) {
+
+		int tab = line.lastIndexOf('\t');
+		ChessMatch chessMatch = new ChessMatch(line.substring(0, tab));
+		double result = Double.parseDouble(line.substring(tab + 1));
+
+		int score = evaluator.evaluate(chessMatch);
+		if (chessMatch.getCurrentPlayer() == Color.BLACK)
+			score = -score;
+
+		double expected = 1 / (1 + Math.pow(10, -scale * score / 400));
+		return (result - expected) * (result - expected);
+	}
+
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+}// class EvaluationTuner
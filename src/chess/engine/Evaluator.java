@@ -0,0 +1,448 @@
+package chess.engine;
+
+import static util.Messages.MSG_ERROR_INVALID_WEIGHTS;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import util.Pieces;
+
+/**
+ * Avaliação estática de uma posição em centipeões, do ponto de vista do
+ * jogador que tem a vez. Soma o material, um bônus por casa central para cada
+ * tipo de peça, um bônus por avanço dos peões, a estrutura de peões (peões
+ * dobrados, isolados, atrasados e passados) e os peões que protegem o rei.
+ *
+ * A estrutura de peões só muda quando um peão se move ou é capturado, então a
+ * sua avaliação é guardada em uma tabela por thread, indexada pela chave dos
+ * peões da partida.
+ *
+ * Os pesos ficam em um único vetor, indexado pelas constantes abaixo, para que
+ * possam ser ajustados automaticamente. O construtor padrão usa os pesos do
+ * arquivo indicado pela propriedade de sistema chess.weights ou, sem ela, do
+ * arquivo evaluator.weights do diretório atual, se existir; os pesos ausentes
+ * do arquivo mantêm o valor padrão.
+ */
+public class Evaluator {
+
+	public static final int MATERIAL = 0;
+	public static final int CENTER = MATERIAL + 6;
+	public static final int PAWN_ADVANCE = CENTER + 6;
+	public static final int DOUBLED_PAWN = PAWN_ADVANCE + 1;
+	public static final int ISOLATED_PAWN = DOUBLED_PAWN + 1;
+	public static final int BACKWARD_PAWN = ISOLATED_PAWN + 1;
+	public static final int PASSED_PAWN = BACKWARD_PAWN + 1;
+	public static final int PAWN_SHIELD = PASSED_PAWN + 1;
+	public static final int WEIGHT_COUNT = PAWN_SHIELD + 1;
+
+	public static final String WEIGHTS_PROPERTY = "chess.weights";
+	public static final String WEIGHTS_FILE = "evaluator.weights";
+
+	private static final int PAWN_TABLE_BITS = 12;
+
+	private static final long FILE_A = 0x0101010101010101L;
+
+	private static final int[] DEFAULT_WEIGHTS = {
+			// material: B, K, N, P, Q, R (ordem de Pieces)
+			330, 0, 320, 100, 900, 500,
+			// centro: B, K, N, P, Q, R
+			4, -6, 8, 3, 1, 0,
+			// avanço do peão
+			4,
+			// peão dobrado, isolado, atrasado e passado (por linha avançada)
+			-12, -10, -8, 8,
+			// peão protegendo o rei
+			8 };
+
+	private final int[] weights;
+	private final ThreadLocal<PawnTable> pawnTables;
+
+	/**
+	 * Cria um avaliador com os pesos carregados na inicialização, ou os pesos
+	 * padrão se não houver arquivo de pesos.
+	 */
+	public Evaluator() {
+		this(StartupWeights.WEIGHTS);
+	}
+
+	/**
+	 * Cria um avaliador com os pesos especificados.
+	 *
+	 * @param weights os pesos, indexados pelas constantes da classe
+	 */
+	public Evaluator(int[] weights) {
+		this(weights, PAWN_TABLE_BITS);
+	}
+
+	/**
+	 * Cria um avaliador com os pesos e o tamanho da tabela de peões
+	 * especificados.
+	 *
+	 * @param weights       os pesos, indexados pelas constantes da classe
+	 * @param pawnTableBits o logaritmo do número de entradas da tabela de peões
+	 *                      de cada thread, ou 0 para avaliar a estrutura sempre
+	 */
+	public Evaluator(int[] weights, int pawnTableBits) {
+
+		if (weights.length != WEIGHT_COUNT)
+			throw new IllegalArgumentException(Integer.toString(weights.length));
+
+		this.weights = weights.clone();
+		this.pawnTables = (pawnTableBits > 0) ? ThreadLocal.withInitial(() -> new PawnTable(pawnTableBits)) : null;
+	}
+
+	public int[] getWeights() {
+		return weights.clone();
+	}
+
+	/**
+	 * Cria um avaliador com os pesos de um arquivo.
+	 *
+	 * @param path o arquivo de pesos
+	 * @return o avaliador
+	 * @throws IOException              se o arquivo não puder ser lido
+	 * @throws IllegalArgumentException se o arquivo tiver pesos inválidos
+	 */
+	public static Evaluator load(Path path) throws IOException {
+		return new Evaluator(readWeights(path));
+	}
+
+	/**
+	 * Grava os pesos em um arquivo, um por linha no formato nome = valor.
+	 *
+	 * @param weights os pesos, indexados pelas constantes da classe
+	 * @param path    o arquivo de pesos
+	 * @throws IOException se o arquivo não puder ser gravado
+	 */
+	public static void writeWeights(int[] weights, Path path) throws IOException {
+
+		if (weights.length != WEIGHT_COUNT)
+			throw new IllegalArgumentException(Integer.toString(weights.length));
+
+		try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < WEIGHT_COUNT; i++)
+				out.write(weightName(i) + " = " + weights[i] + System.lineSeparator());
+		}
+	}
+
+	/**
+	 * Lê os pesos de um arquivo gravado com writeWeights. Os pesos ausentes
+	 * mantêm o valor padrão.
+	 */
+	private static int[] readWeights(Path path) throws IOException {
+
+		Properties properties = new Properties();
+
+		try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			properties.load(in);
+		}
+
+		int[] weights = DEFAULT_WEIGHTS.clone();
+
+		for (String name : properties.stringPropertyNames()) {
+
+			int index = weightIndex(name);
+			if (index < 0)
+				throw new IllegalArgumentException(String.format(MSG_ERROR_INVALID_WEIGHTS, name, path));
+
+			try {
+				weights[index] = Integer.parseInt(properties.getProperty(name).trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(String.format(MSG_ERROR_INVALID_WEIGHTS, name, path));
+			}
+		}
+
+		return weights;
+	}
+
+	/**
+	 * Retorna o nome de um peso no arquivo de pesos.
+	 *
+	 * @param index o índice do peso
+	 * @return o nome do peso, como material.pawn ou pawn.doubled
+	 */
+	public static String weightName(int index) {
+
+		Pieces[] types = Pieces.values();
+
+		if (index >= MATERIAL && index < MATERIAL + types.length)
+			return "material." + types[index - MATERIAL].name().toLowerCase();
+		if (index >= CENTER && index < CENTER + types.length)
+			return "center." + types[index - CENTER].name().toLowerCase();
+
+		switch (index) {
+		case PAWN_ADVANCE:
+			return "pawn.advance";
+		case DOUBLED_PAWN:
+			return "pawn.doubled";
+		case ISOLATED_PAWN:
+			return "pawn.isolated";
+		case BACKWARD_PAWN:
+			return "pawn.backward";
+		case PASSED_PAWN:
+			return "pawn.passed";
+		case PAWN_SHIELD:
+			return "king.shield";
+		default:
+			throw new IllegalArgumentException(Integer.toString(index));
+		}
+	}
+
+	private static int weightIndex(String name) {
+
+		for (int i = 0; i < WEIGHT_COUNT; i++) {
+			if (weightName(i).equals(name))
+				return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Retorna o valor material de um tipo de peça.
+	 *
+	 * @param type o tipo da peça
+	 * @return o valor em centipeões
+	 */
+	public int value(Pieces type) {
+		return weights[MATERIAL + type.ordinal()];
+	}
+
+	/**
+	 * Avalia a posição atual da partida.
+	 *
+	 * @param chessMatch a partida de xadrez
+	 * @return a avaliação em centipeões, positiva se favorece o jogador atual
+	 */
+	public int evaluate(ChessMatch chessMatch) {
+		return evaluate(chessMatch, chessMatch.getPieces());
+	}
+
+	/**
+	 * Avalia a posição atual da partida a partir de uma cópia já tirada do
+	 * tabuleiro.
+	 *
+	 * @param chessMatch a partida de xadrez
+	 * @param pieces     as peças da posição atual (ChessMatch.copyPieces)
+	 * @return a avaliação em centipeões, positiva se favorece o jogador atual
+	 */
+	public int evaluate(ChessMatch chessMatch, ChessPiece[][] pieces) {
+
+		int score = 0;
+		long whitePawns = 0L;
+		long blackPawns = 0L;
+		int whiteKing = -1;
+		int blackKing = -1;
+
+		for (int i = 0; i < pieces.length; i++) {
+			for (int j = 0; j < pieces[i].length; j++) {
+
+				ChessPiece piece = pieces[i][j];
+				if (piece == null)
+					continue;
+
+				int value = evaluatePiece(piece.getType(), piece.getColor(), i, j);
+				score += (piece.getColor() == Color.WHITE) ? value : -value;
+
+				if (piece.getType() == Pieces.PAWN) {
+					if (piece.getColor() == Color.WHITE)
+						whitePawns |= 1L << (i * 8 + j);
+					else
+						blackPawns |= 1L << (i * 8 + j);
+				} else if (piece.getType() == Pieces.KING) {
+					if (piece.getColor() == Color.WHITE)
+						whiteKing = i * 8 + j;
+					else
+						blackKing = i * 8 + j;
+				}
+			}
+		}
+
+		score += pawnStructure(chessMatch.getPawnKey(), whitePawns, blackPawns);
+		score += weights[PAWN_SHIELD]
+				* (shield(whitePawns, whiteKing, Color.WHITE) - shield(blackPawns, blackKing, Color.BLACK));
+
+		return (chessMatch.getCurrentPlayer() == Color.WHITE) ? score : -score;
+	}
+
+	/**
+	 * Retorna a taxa de acertos da tabela de peões da thread atual, entre 0 e 1
+	 * (0 se a tabela está desativada ou ainda não foi consultada).
+	 *
+	 * @return a fração das consultas que encontraram a estrutura na tabela
+	 */
+	public double getPawnTableHitRate() {
+
+		if (pawnTables == null)
+			return 0.0;
+
+		PawnTable table = pawnTables.get();
+		return (table.getProbes() == 0) ? 0.0 : (double) table.getHits() / table.getProbes();
+	}
+
+	/**
+	 * Avalia a estrutura de peões do ponto de vista das brancas, consultando a
+	 * tabela de peões da thread atual antes de calculá-la.
+	 */
+	private int pawnStructure(long pawnKey, long whitePawns, long blackPawns) {
+
+		PawnTable table = (pawnTables == null) ? null : pawnTables.get();
+
+		if (table != null) {
+			int entry = table.probe(pawnKey);
+			if (entry >= 0)
+				return table.score(entry);
+		}
+
+		int score = pawnStructure(whitePawns, blackPawns, Color.WHITE)
+				- pawnStructure(blackPawns, whitePawns, Color.BLACK);
+
+		if (table != null)
+			table.store(pawnKey, score);
+
+		return score;
+	}
+
+	/**
+	 * Avalia os peões de uma cor: penalidades por peões dobrados, isolados e
+	 * atrasados (sem apoio dos vizinhos e com a casa da frente atacada por peão)
+	 * e bônus por peões passados, crescente com o avanço.
+	 *
+	 * Os peões são conjuntos de bits indexados por linha * 8 + coluna (a8 = 0).
+	 */
+	private int pawnStructure(long own, long enemy, Color color) {
+
+		int score = 0;
+		boolean white = color == Color.WHITE;
+
+		for (int column = 0; column < 8; column++) {
+			int count = Long.bitCount(own & (FILE_A << column));
+			if (count > 1)
+				score += weights[DOUBLED_PAWN] * (count - 1);
+		}
+
+		for (long pawns = own; pawns != 0; pawns &= pawns - 1) {
+
+			int square = Long.numberOfTrailingZeros(pawns);
+			int row = square / 8;
+			int column = square % 8;
+			long neighbours = adjacentFiles(column);
+
+			if ((own & neighbours) == 0) {
+				score += weights[ISOLATED_PAWN];
+			} else if ((own & neighbours & behindOrLevel(row, white)) == 0
+					&& stopAttacked(enemy, row, column, white)) {
+				score += weights[BACKWARD_PAWN];
+			}
+
+			if ((enemy & (neighbours | (FILE_A << column)) & ahead(row, white)) == 0)
+				score += weights[PASSED_PAWN] * (white ? 7 - row : row);
+		}
+
+		return score;
+	}
+
+	/**
+	 * Conta os peões da mesma cor nas duas linhas à frente do rei e nas colunas
+	 * vizinhas, se o rei ainda está na sua primeira ou segunda linha.
+	 */
+	private static int shield(long pawns, int king, Color color) {
+
+		if (king < 0)
+			return 0;
+
+		int row = king / 8;
+		int column = king % 8;
+		long files = adjacentFiles(column) | (FILE_A << column);
+
+		if (color == Color.WHITE)
+			return (row < 6) ? 0 : Long.bitCount(pawns & files & (rank(row - 1) | rank(row - 2)));
+
+		return (row > 1) ? 0 : Long.bitCount(pawns & files & (rank(row + 1) | rank(row + 2)));
+	}
+
+	private static boolean stopAttacked(long enemy, int row, int column, boolean white) {
+
+		// Um peão inimigo que ataca a casa da frente está duas linhas adiante
+		int attackerRow = white ? row - 2 : row + 2;
+
+		return attackerRow >= 0 && attackerRow < 8 && (enemy & rank(attackerRow) & adjacentFiles(column)) != 0;
+	}
+
+	private static long adjacentFiles(int column) {
+
+		long files = 0L;
+
+		if (column > 0)
+			files |= FILE_A << (column - 1);
+		if (column < 7)
+			files |= FILE_A << (column + 1);
+
+		return files;
+	}
+
+	private static long rank(int row) {
+		return 0xFFL << (row * 8);
+	}
+
+	/**
+	 * Casas à frente de uma linha, no sentido de avanço dos peões da cor.
+	 */
+	private static long ahead(int row, boolean white) {
+		if (white)
+			return (1L << (row * 8)) - 1;
+		return (row == 7) ? 0L : -1L << ((row + 1) * 8);
+	}
+
+	private static long behindOrLevel(int row, boolean white) {
+		return ~ahead(row, white);
+	}
+
+	/**
+	 * Retorna o valor de uma peça em uma casa, sempre positivo para o dono.
+	 */
+	private int evaluatePiece(Pieces type, Color color, int row, int column) {
+
+		int t = type.ordinal();
+		int centrality = Math.min(row, 7 - row) + Math.min(column, 7 - column);
+		int value = weights[MATERIAL + t] + weights[CENTER + t] * centrality;
+
+		if (type == Pieces.PAWN)
+			value += weights[PAWN_ADVANCE] * ((color == Color.WHITE) ? 6 - row : row - 1);
+
+		return value;
+	}
+
+	/**
+	 * Pesos do construtor padrão, carregados uma única vez no primeiro uso.
+	 */
+	private static final class StartupWeights {
+
+		static final int[] WEIGHTS = load();
+
+		private static int[] load() {
+
+			String property = System.getProperty(WEIGHTS_PROPERTY);
+			Path path = Path.of((property == null) ? WEIGHTS_FILE : property);
+
+			if (property == null && !Files.isRegularFile(path))
+				return DEFAULT_WEIGHTS;
+
+			try {
+				return readWeights(path);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+}// class Evaluator
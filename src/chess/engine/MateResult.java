@@ -0,0 +1,71 @@
+package chess.engine;
+
+import chess.archive.MoveCodec;
+
+/**
+ * Resultado do solucionador de mates: se há mate forçado, em quantos lances e a
+ * variante que o demonstra.
+ */
+public final class MateResult {
+
+	private final MateStatus status;
+	private final int moves;
+	private final short[] line;
+	private final long nodes;
+
+	/**
+	 * Cria um resultado.
+	 *
+	 * @param status o resultado da busca
+	 * @param moves  o número de lances do mate, ou o limite buscado se não houver
+	 *               mate
+	 * @param line   a variante do mate, codificada com MoveCodec (vazia se não
+	 *               houver mate)
+	 * @param nodes  o número de posições expandidas
+	 */
+	public MateResult(MateStatus status, int moves, short[] line, long nodes) {
+		this.status = status;
+		this.moves = moves;
+		this.line = line.clone();
+		this.nodes = nodes;
+	}
+
+	public MateStatus getStatus() {
+		return status;
+	}
+
+	public boolean isMate() {
+		return status == MateStatus.MATE;
+	}
+
+	public int getMoves() {
+		return moves;
+	}
+
+	public short getMove() {
+		return (line.length == 0) ? MoveCodec.NONE : line[0];
+	}
+
+	public short[] getLine() {
+		return line.clone();
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder(status.getTitle());
+
+		if (isMate())
+			sb.append(" in ").append(moves).append(':');
+
+		for (short move : line)
+			sb.append(' ').append(MoveCodec.toNotation(move));
+
+		return sb.toString();
+	}
+
+}// class MateResult
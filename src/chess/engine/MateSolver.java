@@ -0,0 +1,393 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+import chess.ChessMatch;
+import chess.archive.MoveCodec;
+
+/**
+ * Solucionador de mates forçados por busca de números de prova em profundidade
+ * (df-pn). Cada posição tem um número de prova e um de refutação: a quantidade
+ * mínima de folhas que ainda precisam ser provadas (ou refutadas) para
+ * resolvê-la. A busca desce sempre pelo filho mais promissor e só volta ao pai
+ * quando os números do filho passam dos limites recebidos, de forma que os
+ * lances são feitos e desfeitos localmente, sem repetir o caminho desde a raiz.
+ * Os números das posições visitadas ficam na tabela do solucionador.
+ *
+ * No nó do atacante os xeques são gerados primeiro e, no último lance, são os
+ * únicos considerados. O número de prova inicial de cada lance do atacante é o
+ * número de respostas do defensor, o que leva a busca primeiro às variantes
+ * forçadas; um lance sem respostas é resolvido na hora como mate ou
+ * afogamento.
+ *
+ * O mate é procurado com 1, 2, ... N lances do atacante, de forma que a solução
+ * encontrada é a mais curta. Os resultados são reaproveitados entre iterações e
+ * entre chamadas.
+ *
+ * Não é thread-safe; cada thread deve ter o seu solucionador.
+ */
+public class MateSolver {
+
+	public static final long DEFAULT_MAX_NODES = 1_000_000;
+
+	private static final int INFINITY = Integer.MAX_VALUE / 2;
+	private static final int TABLE_BITS = 20;
+	private static final int MAX_MOVES = 256;
+
+	private final MateTable table;
+	private final long maxNodes;
+
+	private ChessMatch chessMatch;
+	private long nodes;
+
+	// Lances e números dos filhos em cada nível da busca
+	private short[][] moves;
+	private short[] quietMoves;
+	private int[][] proofs;
+	private int[][] disproofs;
+	private int[][] distances;
+
+	// Números de cada nível ao retornar da busca
+	private int[] nodeProof;
+	private int[] nodeDisproof;
+	private int[] nodeDistance;
+
+	/**
+	 * Cria um solucionador com a tabela e o limite de posições padrão.
+	 */
+	public MateSolver() {
+		this(TABLE_BITS, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Cria um solucionador.
+	 *
+	 * @param tableBits o logaritmo do número de entradas da tabela
+	 * @param maxNodes  o número máximo de posições expandidas por chamada
+	 */
+	public MateSolver(int tableBits, long maxNodes) {
+		this.table = new MateTable(tableBits);
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Procura um mate forçado para o jogador atual em até o número de lances
+	 * especificado.
+	 *
+	 * @param chessMatch a partida de xadrez (não é alterada)
+	 * @param maxMoves   o número máximo de lances do atacante
+	 * @return o mate mais curto, a refutação ou MateStatus.UNKNOWN se o limite de
+	 *         posições acabou antes
+	 */
+	public MateResult solve(ChessMatch chessMatch, int maxMoves) {
+
+		int levels = 2 * maxMoves + 1;
+
+		this.chessMatch = new ChessMatch(chessMatch);
+		this.moves = new short[levels][MAX_MOVES];
+		this.quietMoves = new short[MAX_MOVES];
+		this.proofs = new int[levels][MAX_MOVES];
+		this.disproofs = new int[levels][MAX_MOVES];
+		this.distances = new int[levels][MAX_MOVES];
+		this.nodeProof = new int[levels];
+		this.nodeDisproof = new int[levels];
+		this.nodeDistance = new int[levels];
+		this.nodes = 0;
+
+		try {
+			for (int n = 1; n <= maxMoves; n++) {
+
+				int plies = 2 * n - 1;
+
+				search(0, plies, INFINITY, INFINITY);
+
+				if (nodeProof[0] == 0)
+					return new MateResult(MateStatus.MATE, n, line(plies), nodes);
+				if (nodeDisproof[0] != 0)
+					return new MateResult(MateStatus.UNKNOWN, n, new short[0], nodes);
+			}
+
+			return new MateResult(MateStatus.NO_MATE, maxMoves, new short[0], nodes);
+		} finally {
+			this.chessMatch = null;
+			this.moves = null;
+			this.quietMoves = null;
+			this.proofs = null;
+			this.disproofs = null;
+			this.distances = null;
+		}
+	}
+
+	/**
+	 * Busca a posição atual até que ela seja resolvida, que o número de prova
+	 * alcance proofLimit, que o de refutação alcance disproofLimit ou que o
+	 * limite de posições acabe. Os números resultantes ficam em nodeProof,
+	 * nodeDisproof e nodeDistance no nível da posição e na tabela.
+	 */
+	private void search(int ply, int remaining, int proofLimit, int disproofLimit) {
+
+		nodes++;
+
+		boolean attacker = ply % 2 == 0;
+		long key = chessMatch.getPositionKey();
+		short[] list = moves[ply];
+		int count = chessMatch.legalMoves(list);
+
+		if (count == 0) {
+			// Mate ou afogamento: só é vitória se o defensor estiver em xeque
+			if (!attacker && chessMatch.isCheck())
+				setProven(ply, key, 0);
+			else
+				setDisproven(ply, key, remaining);
+			return;
+		}
+
+		if (remaining == 0) {
+			setDisproven(ply, key, remaining);
+			return;
+		}
+
+		if (attacker)
+			count = checksFirst(list, count, remaining == 1);
+
+		if (count == 0) {
+			setDisproven(ply, key, remaining);
+			return;
+		}
+
+		for (int i = 0; i < count; i++)
+			initChild(ply, i, remaining - 1, attacker);
+
+		int[] childProofs = proofs[ply];
+		int[] childDisproofs = disproofs[ply];
+
+		while (true) {
+
+			// No nó do atacante basta provar um filho e é preciso refutar todos; no
+			// do defensor, o contrário
+			int[] first = attacker ? childProofs : childDisproofs;
+			int[] second = attacker ? childDisproofs : childProofs;
+			int best = 0;
+			int min = INFINITY;
+			int nextMin = INFINITY;
+			int sum = 0;
+
+			for (int i = 0; i < count; i++) {
+
+				if (first[i] < min) {
+					nextMin = min;
+					min = first[i];
+					best = i;
+				} else if (first[i] < nextMin) {
+					nextMin = first[i];
+				}
+
+				sum = Math.min(INFINITY, sum + second[i]);
+			}
+
+			int proof = attacker ? min : sum;
+			int disproof = attacker ? sum : min;
+
+			if (proof == 0) {
+				setProven(ply, key, distance(ply, count, attacker));
+				return;
+			}
+
+			if (disproof == 0) {
+				setDisproven(ply, key, remaining);
+				return;
+			}
+
+			if (proof >= proofLimit || disproof >= disproofLimit || nodes >= maxNodes) {
+				table.storeNumbers(key, remaining, proof, disproof);
+				nodeProof[ply] = proof;
+				nodeDisproof[ply] = disproof;
+				return;
+			}
+
+			// O filho escolhido pode avançar até passar o segundo melhor irmão
+			int childProofLimit;
+			int childDisproofLimit;
+
+			if (attacker) {
+				childProofLimit = Math.min(proofLimit, widen(nextMin));
+				childDisproofLimit = disproofLimit - disproof + childDisproofs[best];
+			} else {
+				childProofLimit = proofLimit - proof + childProofs[best];
+				childDisproofLimit = Math.min(disproofLimit, widen(nextMin));
+			}
+
+			chessMatch.makeSearchMove(list[best]);
+			search(ply + 1, remaining - 1, childProofLimit, childDisproofLimit);
+			chessMatch.undoSearchMove();
+
+			childProofs[best] = nodeProof[ply + 1];
+			childDisproofs[best] = nodeDisproof[ply + 1];
+			distances[ply][best] = nodeDistance[ply + 1];
+		}
+	}
+
+	/**
+	 * Retorna o limite do filho escolhido a partir do número do segundo melhor
+	 * irmão, com uma folga de 1/4 que evita alternar entre irmãos de números
+	 * próximos a cada posição expandida.
+	 */
+	private static int widen(int value) {
+		return value >= INFINITY ? INFINITY : value + value / 4 + 1;
+	}
+
+	/**
+	 * Coloca os lances que dão xeque no início da lista, mantendo a ordem entre
+	 * eles. Se onlyChecks for verdadeiro, os demais são descartados.
+	 *
+	 * @return o novo número de lances da lista
+	 */
+	private int checksFirst(short[] list, int count, boolean onlyChecks) {
+
+		short[] quiet = quietMoves;
+		int checks = 0;
+		int quiets = 0;
+
+		for (int i = 0; i < count; i++) {
+			if (chessMatch.givesCheck(list[i]))
+				list[checks++] = list[i];
+			else
+				quiet[quiets++] = list[i];
+		}
+
+		if (onlyChecks)
+			return checks;
+
+		System.arraycopy(quiet, 0, list, checks, quiets);
+
+		return count;
+	}
+
+	/**
+	 * Inicializa os números de um filho pela tabela ou, se ele ainda não foi
+	 * visitado, pela mobilidade: o lance do atacante começa com o número de
+	 * respostas do defensor e o do defensor, com 1.
+	 */
+	private void initChild(int ply, int i, int remaining, boolean attacker) {
+
+		chessMatch.makeSearchMove(moves[ply][i]);
+
+		long key = chessMatch.getPositionKey();
+		int proof = 1;
+		int disproof = 1;
+		int distance = 0;
+
+		if (table.isProven(key, remaining)) {
+			proof = 0;
+			disproof = INFINITY;
+			distance = table.proofPlies(key);
+		} else if (table.isDisproven(key, remaining)) {
+			proof = INFINITY;
+			disproof = 0;
+		} else if (table.hasNumbers(key, remaining)) {
+			proof = table.proofNumber(key);
+			disproof = table.disproofNumber(key);
+		} else if (attacker) {
+
+			int replies = chessMatch.legalMoves(moves[ply + 1]);
+
+			if (replies == 0 && chessMatch.isCheck()) {
+				proof = 0;
+				disproof = INFINITY;
+				table.storeProof(key, 0);
+			} else if (replies == 0 || remaining == 0) {
+				proof = INFINITY;
+				disproof = 0;
+				table.storeDisproof(key, remaining);
+			} else {
+				proof = replies;
+				table.storeNumbers(key, remaining, proof, disproof);
+			}
+		}
+
+		chessMatch.undoSearchMove();
+
+		proofs[ply][i] = proof;
+		disproofs[ply][i] = disproof;
+		distances[ply][i] = distance;
+	}
+
+	/**
+	 * Retorna o número de meios-lances até o mate de um nó provado: o atacante
+	 * escolhe o filho provado mais curto e o defensor, o mais longo.
+	 */
+	private int distance(int ply, int count, boolean attacker) {
+
+		int distance = attacker ? INFINITY : 0;
+
+		for (int i = 0; i < count; i++) {
+			if (attacker && proofs[ply][i] == 0)
+				distance = Math.min(distance, distances[ply][i]);
+			else if (!attacker)
+				distance = Math.max(distance, distances[ply][i]);
+		}
+
+		return distance + 1;
+	}
+
+	private void setProven(int ply, long key, int distance) {
+		table.storeProof(key, distance);
+		nodeProof[ply] = 0;
+		nodeDisproof[ply] = INFINITY;
+		nodeDistance[ply] = distance;
+	}
+
+	private void setDisproven(int ply, long key, int remaining) {
+		table.storeDisproof(key, remaining);
+		nodeProof[ply] = INFINITY;
+		nodeDisproof[ply] = 0;
+	}
+
+	/**
+	 * Reconstrói a variante do mate pela tabela. O atacante escolhe o mate mais
+	 * curto e o defensor, a resposta que mais o adia. A variante termina antes se
+	 * alguma posição tiver sido substituída na tabela.
+	 */
+	private short[] line(int plies) {
+
+		short[] line = new short[plies];
+		int length = 0;
+
+		for (int ply = 0; ply < plies; ply++) {
+
+			boolean attacker = ply % 2 == 0;
+			short[] list = moves[ply];
+			int count = chessMatch.legalMoves(list);
+			short best = MoveCodec.NONE;
+			int bestDistance = attacker ? INFINITY : -1;
+
+			for (int i = 0; i < count; i++) {
+
+				chessMatch.makeSearchMove(list[i]);
+				long key = chessMatch.getPositionKey();
+
+				if (table.isProven(key, plies - ply - 1)) {
+					int distance = table.proofPlies(key);
+					if (attacker ? distance < bestDistance : distance > bestDistance) {
+						best = list[i];
+						bestDistance = distance;
+					}
+				}
+
+				chessMatch.undoSearchMove();
+			}
+
+			if (best == MoveCodec.NONE)
+				break;
+
+			line[length++] = best;
+			chessMatch.makeSearchMove(best);
+		}
+
+		for (int i = 0; i < length; i++)
+			chessMatch.undoSearchMove();
+
+		return Arrays.copyOf(line, length);
+	}
+
+}// class MateSolver
@@ -0,0 +1,22 @@
+package chess.engine;
+
+/**
+ * Enumeração que representa o resultado da busca de um mate forçado.
+ */
+public enum MateStatus {
+
+	MATE("Forced mate"),
+	NO_MATE("No forced mate"),
+	UNKNOWN("Unknown");
+
+	private String title;
+
+	private MateStatus(String title) {
+		this.title = title;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+}// enum MateStatus
@@ -0,0 +1,128 @@
+package chess.engine;
+
+/**
+ * Tabela de resultados do solucionador de mates. Para cada posição guarda o
+ * número de meios-lances até o mate, se ela foi provada, e o maior número de
+ * meios-lances restantes com que foi refutada, o que vale também para buscas
+ * mais longas (provas) ou mais curtas (refutações) e permite reaproveitar os
+ * resultados entre iterações. Posições ainda não resolvidas guardam os números
+ * de prova e de refutação da última visita, válidos apenas para o mesmo número
+ * de meios-lances restantes. Cada chave ocupa uma única entrada, indexada pelos
+ * bits baixos da chave Zobrist, e uma nova chave substitui a anterior.
+ *
+ * Não é thread-safe; cada solucionador usa a sua própria tabela.
+ */
+class MateTable {
+
+	private final long[] keys;
+	private final byte[] proofs;
+	private final byte[] disproofs;
+	private final byte[] levels;
+	private final int[] proofNumbers;
+	private final int[] disproofNumbers;
+	private final int mask;
+
+	/**
+	 * Cria uma tabela com 2^bits entradas.
+	 *
+	 * @param bits o logaritmo do número de entradas
+	 */
+	MateTable(int bits) {
+
+		int size = 1 << bits;
+
+		keys = new long[size];
+		proofs = new byte[size];
+		disproofs = new byte[size];
+		levels = new byte[size];
+		proofNumbers = new int[size];
+		disproofNumbers = new int[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Verifica se a posição foi provada com até o número especificado de
+	 * meios-lances restantes.
+	 */
+	boolean isProven(long key, int plies) {
+		int index = (int) key & mask;
+		return keys[index] == key && proofs[index] > 0 && proofs[index] - 1 <= plies;
+	}
+
+	/**
+	 * Verifica se a posição foi refutada com pelo menos o número especificado de
+	 * meios-lances restantes.
+	 */
+	boolean isDisproven(long key, int plies) {
+		int index = (int) key & mask;
+		return keys[index] == key && disproofs[index] - 1 >= plies;
+	}
+
+	/**
+	 * Retorna o número de meios-lances até o mate de uma posição provada.
+	 */
+	int proofPlies(long key) {
+		return proofs[(int) key & mask] - 1;
+	}
+
+	/**
+	 * Verifica se há números de prova e de refutação guardados para a posição com
+	 * o número especificado de meios-lances restantes.
+	 */
+	boolean hasNumbers(long key, int plies) {
+		int index = (int) key & mask;
+		return keys[index] == key && levels[index] - 1 == plies;
+	}
+
+	int proofNumber(long key) {
+		return proofNumbers[(int) key & mask];
+	}
+
+	int disproofNumber(long key) {
+		return disproofNumbers[(int) key & mask];
+	}
+
+	void storeProof(long key, int plies) {
+
+		int index = entry(key);
+
+		if (proofs[index] == 0 || plies + 1 < proofs[index])
+			proofs[index] = (byte) (plies + 1);
+	}
+
+	void storeDisproof(long key, int plies) {
+
+		int index = entry(key);
+
+		if (plies + 1 > disproofs[index])
+			disproofs[index] = (byte) (plies + 1);
+	}
+
+	void storeNumbers(long key, int plies, int proof, int disproof) {
+
+		int index = entry(key);
+
+		levels[index] = (byte) (plies + 1);
+		proofNumbers[index] = proof;
+		disproofNumbers[index] = disproof;
+	}
+
+	/**
+	 * Retorna a entrada de uma chave, substituindo a posição anterior se a chave
+	 * for outra.
+	 */
+	private int entry(long key) {
+
+		int index = (int) key & mask;
+
+		if (keys[index] != key) {
+			keys[index] = key;
+			proofs[index] = 0;
+			disproofs[index] = 0;
+			levels[index] = 0;
+		}
+
+		return index;
+	}
+
+}// class MateTable
@@ -0,0 +1,74 @@
+package chess.engine;
+
+/**
+ * Tabela de avaliações da estrutura de peões, indexada pela chave Zobrist dos
+ * peões. Como a maioria dos lances não move peões, a mesma estrutura aparece em
+ * muitas posições da busca e a avaliação é reaproveitada. Cada chave ocupa uma
+ * única entrada, e uma nova entrada sempre substitui a anterior.
+ *
+ * Não é thread-safe; cada thread usa a sua própria tabela.
+ */
+class PawnTable {
+
+	private final long[] keys;
+	private final int[] scores;
+	private final boolean[] used;
+	private final int mask;
+
+	private long probes;
+	private long hits;
+
+	/**
+	 * Cria uma tabela com 2^bits entradas.
+	 *
+	 * @param bits o logaritmo do número de entradas
+	 */
+	PawnTable(int bits) {
+
+		int size = 1 << bits;
+
+		keys = new long[size];
+		scores = new int[size];
+		used = new boolean[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Retorna o índice da entrada de uma chave, ou -1 se ela não estiver na
+	 * tabela.
+	 */
+	int probe(long key) {
+
+		int index = (int) key & mask;
+		probes++;
+
+		if (used[index] && keys[index] == key) {
+			hits++;
+			return index;
+		}
+
+		return -1;
+	}
+
+	int score(int index) {
+		return scores[index];
+	}
+
+	void store(long key, int score) {
+
+		int index = (int) key & mask;
+
+		keys[index] = key;
+		scores[index] = score;
+		used[index] = true;
+	}
+
+	long getProbes() {
+		return probes;
+	}
+
+	long getHits() {
+		return hits;
+	}
+
+}// class PawnTable
@@ -0,0 +1,181 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import chess.ChessMatch;
+import chess.archive.MoveCodec;
+
+/**
+ * Contagem de folhas da árvore de lances legais (perft), usada para validar a
+ * geração de lances da partida, incluindo roque, en passant e promoção.
+ *
+ * Os lances da raiz são divididos entre as threads de um pool fork-join, cada
+ * uma com a sua cópia da partida. As contagens das subárvores são guardadas em
+ * uma tabela compartilhada, indexada pela chave da posição e pela
+ * profundidade, então as transposições são contadas uma única vez. A tabela
+ * não usa travas: cada entrada guarda a chave combinada com a contagem por ou
+ * exclusivo, e uma entrada escrita ao mesmo tempo por duas threads é
+ * descartada na leitura.
+ */
+public class Perft {
+
+	private static final int MAX_MOVES = 256;
+	private static final long DEPTH_MIX = 0x9E3779B97F4A7C15L;
+
+	private final ForkJoinPool pool;
+	private final long[] keys;
+	private final long[] counts;
+	private final int mask;
+
+	/**
+	 * Cria um contador com uma tabela de 2^bits entradas.
+	 *
+	 * @param tableBits o logaritmo do número de entradas, ou 0 para não usar a
+	 *                  tabela
+	 * @param threads   o número de threads
+	 */
+	public Perft(int tableBits, int threads) {
+
+		int size = (tableBits > 0) ? 1 << tableBits : 0;
+
+		this.pool = new ForkJoinPool(threads);
+		this.keys = new long[size];
+		this.counts = new long[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Conta as folhas da árvore de lances legais até a profundidade especificada.
+	 *
+	 * @param chessMatch a partida de xadrez (não é alterada)
+	 * @param depth      a profundidade em meios-lances
+	 * @return o número de folhas; 1 na profundidade 0 (a própria posição)
+	 */
+	public long count(ChessMatch chessMatch, int depth) {
+
+		if (depth < 1)
+			return 1;
+
+		return divide(chessMatch, depth).values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * Conta as folhas da árvore abaixo de cada lance da raiz.
+	 *
+	 * @param chessMatch a partida de xadrez (não é alterada)
+	 * @param depth      a profundidade em meios-lances, contando o lance da raiz
+	 * @return o número de folhas de cada lance, pela notação do lance (e2e4) em
+	 *         ordem alfabética; vazio na profundidade 0 ou sem lances legais
+	 */
+	public Map<String, Long> divide(ChessMatch chessMatch, int depth) {
+
+		Map<String, Long> result = new TreeMap<>();
+
+		if (depth < 1)
+			return result;
+
+		short[] moves = new short[MAX_MOVES];
+		int count = chessMatch.legalMoves(moves);
+		List<Subtree> tasks = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++)
+			tasks.add(new Subtree(chessMatch, moves[i], depth - 1));
+
+		pool.invoke(new RecursiveTask<Void>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Void compute() {
+				invokeAll(tasks);
+				return null;
+			}
+		});
+
+		for (Subtree task : tasks)
+			result.put(MoveCodec.toNotation(task.move), task.join());
+
+		return result;
+	}
+
+	/**
+	 * Encerra as threads do contador.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Contagem da subárvore de um lance da raiz, sobre uma cópia da partida.
+	 */
+	private final class Subtree extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ChessMatch chessMatch;
+		private final short move;
+		private final int depth;
+
+		Subtree(ChessMatch chessMatch, short move, int depth) {
+			this.chessMatch = chessMatch;
+			this.move = move;
+			this.depth = depth;
+		}
+
+		@Override
+		protected Long compute() {
+
+			ChessMatch copy = new ChessMatch(chessMatch);
+			copy.makeSearchMove(move);
+
+			return perft(copy, depth, new short[depth + 1][MAX_MOVES]);
+		}
+	}
+
+	/**
+	 * Conta as folhas a partir da posição atual. Na última profundidade, as
+	 * folhas são os lances legais e não precisam ser executadas.
+	 */
+	private long perft(ChessMatch chessMatch, int depth, short[][] moves) {
+
+		if (depth == 0)
+			return 1;
+
+		long key = chessMatch.getPositionKey() ^ (depth * DEPTH_MIX);
+		int index = (int) key & mask;
+
+		if (mask >= 0) {
+			long count = counts[index];
+			if ((keys[index] ^ count) == key)
+				return count;
+		}
+
+		short[] list = moves[depth];
+		int count = chessMatch.legalMoves(list);
+		long total;
+
+		if (depth == 1) {
+			total = count;
+		} else {
+			total = 0;
+			for (int i = 0; i < count; i++) {
+				chessMatch.makeSearchMove(list[i]);
+				total += perft(chessMatch, depth - 1, moves);
+				chessMatch.undoSearchMove();
+			}
+		}
+
+		if (mask >= 0) {
+			keys[index] = key ^ total;
+			counts[index] = total;
+		}
+
+		return total;
+	}
+
+}// class Perft
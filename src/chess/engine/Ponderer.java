@@ -0,0 +1,201 @@
+package chess.engine;
+
+import java.io.Closeable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.ChessMatch;
+import chess.analysis.AnalysisResult;
+
+/**
+ * Busca em segundo plano durante a vez do oponente (ponder). Depois que o motor
+ * joga, o Ponderer adivinha a resposta do oponente e analisa a posição
+ * resultante sem prazo. Quando chega a vez do motor:
+ *
+ * <ul>
+ * <li>se o oponente jogou o lance previsto, a busca em andamento continua de onde
+ * parou, com o mesmo tempo total de uma busca normal contado desde o início do
+ * ponder; se o oponente demorou mais que esse tempo, a resposta é imediata;</li>
+ * <li>caso contrário, a busca em segundo plano é cancelada e uma nova busca é
+ * feita, reaproveitando a tabela de transposição compartilhada.</li>
+ * </ul>
+ *
+ * Apenas uma busca usa a tabela de cada vez.
+ */
+public class Ponderer implements Closeable {
+
+	private static final int TABLE_BITS = 20;
+	private static final long GUESS_BUDGET_NANOS = 20_000_000L;
+
+	private final SearchEngine engine;
+	private final TranspositionTable table = new TranspositionTable(TABLE_BITS);
+	private final ExecutorService executor;
+
+	private SearchEngine.Search search;
+	private Future<AnalysisResult> future;
+	private long ponderKey;
+	private long ponderStart;
+
+	private long hits;
+	private long misses;
+
+	/**
+	 * Cria um Ponderer que busca com o motor especificado.
+	 *
+	 * @param engine o motor de busca
+	 */
+	public Ponderer(SearchEngine engine) {
+
+		this.engine = engine;
+		this.executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "ponder");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Inicia a busca em segundo plano após o lance do motor, supondo a resposta
+	 * mais provável do oponente. Não faz nada se a partida terminou.
+	 *
+	 * @param chessMatch a partida, com o oponente na vez (não é alterada)
+	 */
+	public synchronized void start(ChessMatch chessMatch) {
+
+		stop();
+
+		ChessMatch copy = new ChessMatch(chessMatch);
+		short guess = guess(copy);
+
+		if (guess == 0)
+			return;
+
+		copy.makeSearchMove(guess);
+
+		ponderKey = copy.getPositionKey();
+		ponderStart = System.nanoTime();
+		search = engine.new Search(copy, Long.MAX_VALUE, table);
+
+		SearchEngine.Search current = search;
+		future = executor.submit(() -> current.run(SearchEngine.MAX_DEPTH));
+	}
+
+	/**
+	 * Retorna o lance do motor na posição atual dentro do prazo especificado,
+	 * aproveitando a busca em segundo plano se o lance previsto foi jogado.
+	 *
+	 * @param chessMatch   a partida, com o motor na vez (não é alterada)
+	 * @param budgetMillis o tempo máximo de resposta em milissegundos
+	 * @return o melhor lance encontrado
+	 */
+	public synchronized AnalysisResult respond(ChessMatch chessMatch, long budgetMillis) {
+
+		long now = System.nanoTime();
+		long deadline = now + budgetMillis * 1_000_000L;
+
+		if (future != null && chessMatch.getPositionKey() == ponderKey) {
+
+			hits++;
+			search.setDeadline(Math.max(now, ponderStart + budgetMillis * 1_000_000L));
+
+			AnalysisResult result = await(future);
+			search = null;
+			future = null;
+
+			if (result != null)
+				return result;
+		} else if (future != null) {
+			misses++;
+		}
+
+		stop();
+
+		return engine.new Search(new ChessMatch(chessMatch), deadline, table).run(SearchEngine.MAX_DEPTH);
+	}
+
+	/**
+	 * Cancela a busca em segundo plano e aguarda o seu término.
+	 */
+	public synchronized void stop() {
+
+		if (future == null)
+			return;
+
+		search.setDeadline(0);
+		await(future);
+
+		search = null;
+		future = null;
+	}
+
+	/**
+	 * Retorna o número de vezes em que o oponente jogou o lance previsto.
+	 *
+	 * @return o número de acertos
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Retorna o número de vezes em que o oponente jogou outro lance.
+	 *
+	 * @return o número de erros
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	@Override
+	public synchronized void close() {
+		stop();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Retorna a resposta prevista do oponente: o melhor lance da tabela de
+	 * transposição, se for legal, ou o resultado de uma busca curta.
+	 */
+	private short guess(ChessMatch chessMatch) {
+
+		short[] moves = new short[256];
+		int count = chessMatch.legalMoves(moves);
+
+		if (count == 0)
+			return 0;
+
+		int entry = table.probe(chessMatch.getPositionKey());
+
+		if (entry >= 0) {
+			for (int i = 0; i < count; i++) {
+				if (moves[i] == table.move(entry))
+					return moves[i];
+			}
+		}
+
+		ChessMatch copy = new ChessMatch(chessMatch);
+		return engine.new Search(copy, System.nanoTime() + GUESS_BUDGET_NANOS, table).run(SearchEngine.MAX_DEPTH)
+				.getBestMove();
+	}
+
+	/**
+	 * Aguarda o resultado da busca em segundo plano.
+	 *
+	 * @return o resultado, ou null se a busca falhou
+	 */
+	private static AnalysisResult await(Future<AnalysisResult> future) {
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException | CancellationException e) {
+			return null;
+		}
+	}
+
+}// class Ponderer
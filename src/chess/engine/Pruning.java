@@ -0,0 +1,24 @@
+package chess.engine;
+
+/**
+ * Enumeração que representa as técnicas de poda e redução da busca, que podem
+ * ser ativadas individualmente no motor.
+ */
+public enum Pruning {
+
+	NULL_MOVE("Null-move pruning"),
+	LATE_MOVE_REDUCTION("Late move reduction"),
+	FUTILITY("Futility pruning"),
+	RAZORING("Razoring");
+
+	private String title;
+
+	private Pruning(String title) {
+		this.title = title;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+}// enum Pruning
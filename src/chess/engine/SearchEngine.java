@@ -0,0 +1,677 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.analysis.AnalysisCache;
+import chess.analysis.AnalysisLine;
+import chess.analysis.AnalysisResult;
+import chess.archive.MoveCodec;
+import chess.jfr.SearchIterationEvent;
+import util.Pieces;
+
+/**
+ * Busca do melhor lance por aprofundamento iterativo (alfa-beta em negamax),
+ * executada sobre uma cópia da partida.
+ *
+ * A busca respeita um prazo: o relógio é verificado a cada posição visitada e,
+ * quando o prazo acaba ou a thread é interrompida, a busca é abandonada e o
+ * melhor lance encontrado até então é devolvido. Uma iteração interrompida só é
+ * aproveitada se o seu primeiro lance (o melhor da iteração anterior) já tiver
+ * sido avaliado.
+ *
+ * As podas (lance nulo, redução de lances tardios, futilidade e razoring) são
+ * ativadas por padrão e podem ser escolhidas individualmente no construtor.
+ *
+ * O motor não guarda estado entre buscas e pode ser compartilhado entre threads.
+ */
+public class SearchEngine {
+
+	public static final int MATE = 100_000;
+	public static final int MAX_DEPTH = 64;
+
+	private static final int INFINITY = 1_000_000;
+	private static final int MAX_MOVES = 256;
+	private static final int TABLE_BITS = 16;
+
+	private static final int NULL_MOVE_MIN_DEPTH = 3;
+	private static final int LMR_MIN_DEPTH = 3;
+	private static final int LMR_MIN_INDEX = 3;
+	private static final int FUTILITY_MARGIN = 200;
+	private static final int RAZOR_MARGIN = 350;
+
+	private static final SearchTimeout TIMEOUT = new SearchTimeout();
+
+	private final Evaluator evaluator;
+	private final AnalysisCache cache;
+	private final Set<Pruning> pruning;
+
+	/**
+	 * Cria um motor com o avaliador padrão e sem cache.
+	 */
+	public SearchEngine() {
+		this(new Evaluator(), null);
+	}
+
+	/**
+	 * Cria um motor com o avaliador e o cache especificados.
+	 *
+	 * @param evaluator o avaliador de posições
+	 * @param cache     o cache de análises compartilhado, ou null
+	 */
+	public SearchEngine(Evaluator evaluator, AnalysisCache cache) {
+		this(evaluator, cache, EnumSet.allOf(Pruning.class));
+	}
+
+	/**
+	 * Cria um motor com o avaliador, o cache e as podas especificados.
+	 *
+	 * @param evaluator o avaliador de posições
+	 * @param cache     o cache de análises compartilhado, ou null
+	 * @param pruning   as podas ativadas (pode ser vazio)
+	 */
+	public SearchEngine(Evaluator evaluator, AnalysisCache cache, Set<Pruning> pruning) {
+		this.evaluator = evaluator;
+		this.cache = cache;
+		this.pruning = pruning.isEmpty() ? EnumSet.noneOf(Pruning.class) : EnumSet.copyOf(pruning);
+	}
+
+	public Evaluator getEvaluator() {
+		return evaluator;
+	}
+
+	public Set<Pruning> getPruning() {
+		return Collections.unmodifiableSet(pruning);
+	}
+
+	/**
+	 * Sugere um lance para o jogador atual dentro do tempo especificado.
+	 *
+	 * @param chessMatch   a partida de xadrez (não é alterada)
+	 * @param budgetMillis o tempo máximo da busca em milissegundos
+	 * @return o melhor lance encontrado e a profundidade alcançada
+	 */
+	public AnalysisResult hint(ChessMatch chessMatch, long budgetMillis) {
+		return search(chessMatch, MAX_DEPTH, budgetMillis * 1_000_000L);
+	}
+
+	/**
+	 * Busca o melhor lance para o jogador atual até a profundidade ou o prazo
+	 * especificados, o que acontecer primeiro.
+	 *
+	 * @param chessMatch  a partida de xadrez (não é alterada)
+	 * @param maxDepth    a profundidade máxima em meios-lances
+	 * @param budgetNanos o tempo máximo da busca em nanossegundos
+	 * @return o melhor lance encontrado e a profundidade da última iteração
+	 *         completa (0 se nenhuma iteração terminou)
+	 */
+	public AnalysisResult search(ChessMatch chessMatch, int maxDepth, long budgetNanos) {
+
+		long deadline = System.nanoTime() + budgetNanos;
+		long positionKey = chessMatch.getPositionKey();
+
+		AnalysisResult cached = (cache == null) ? null : cache.getIfPresent(positionKey, maxDepth);
+		if (cached != null)
+			return cached;
+
+		Search search = new Search(new ChessMatch(chessMatch), deadline, new TranspositionTable(TABLE_BITS));
+		AnalysisResult result = search.run(maxDepth);
+
+		if (cache != null && result.getDepth() > 0)
+			cache.put(result);
+
+		return result;
+	}
+
+	/**
+	 * Busca as melhores linhas para o jogador atual (multi-PV) em uma única busca
+	 * por aprofundamento iterativo. Os lances da raiz compartilham a tabela de
+	 * transposição e a ordenação: depois das primeiras linhas, cada lance é
+	 * buscado com a janela limitada pela pior linha já encontrada e só entra no
+	 * ranking se a superar.
+	 *
+	 * @param chessMatch  a partida de xadrez (não é alterada)
+	 * @param lines       o número de linhas desejado
+	 * @param maxDepth    a profundidade máxima em meios-lances
+	 * @param budgetNanos o tempo máximo da busca em nanossegundos
+	 * @param listener    recebe as linhas ao fim de cada profundidade completa, na
+	 *                    thread da busca, ou null
+	 * @return as linhas da última profundidade completa, da melhor para a pior
+	 *         (vazia se nenhuma profundidade terminou ou não há lances legais)
+	 */
+	public List<AnalysisLine> analyze(ChessMatch chessMatch, int lines, int maxDepth, long budgetNanos,
+			Consumer<List<AnalysisLine>> listener) {
+
+		if (lines < 1)
+			throw new IllegalArgumentException("lines: " + lines);
+
+		long deadline = System.nanoTime() + budgetNanos;
+		Search search = new Search(new ChessMatch(chessMatch), deadline, new TranspositionTable(TABLE_BITS));
+
+		return search.runMultiPv(lines, maxDepth, listener);
+	}
+
+	/**
+	 * Estado de uma busca. O prazo pode ser alterado por outra thread enquanto a
+	 * busca executa, o que permite estender ou cancelar uma busca em andamento.
+	 */
+	class Search {
+
+		private final ChessMatch chessMatch;
+		private final TranspositionTable table;
+		private volatile long deadline;
+		private final short[][] moves = new short[MAX_DEPTH + 1][MAX_MOVES];
+		private final int[][] orderScores = new int[MAX_DEPTH + 1][MAX_MOVES];
+		private final ChessPiece[][][] boards = new ChessPiece[MAX_DEPTH + 1][8][8];
+		private final StaticExchange exchange = new StaticExchange(evaluator);
+
+		private final boolean nullMove = pruning.contains(Pruning.NULL_MOVE);
+		private final boolean lateMoveReduction = pruning.contains(Pruning.LATE_MOVE_REDUCTION);
+		private final boolean futility = pruning.contains(Pruning.FUTILITY);
+		private final boolean razoring = pruning.contains(Pruning.RAZORING);
+
+		private long nodes;
+
+		/**
+		 * Cria uma busca sobre uma partida que pertence exclusivamente a ela.
+		 *
+		 * @param chessMatch a partida a ser analisada (é alterada durante a busca)
+		 * @param deadline   o instante limite em System.nanoTime()
+		 * @param table      a tabela de transposição, usada por uma busca de cada vez
+		 */
+		Search(ChessMatch chessMatch, long deadline, TranspositionTable table) {
+			this.chessMatch = chessMatch;
+			this.deadline = deadline;
+			this.table = table;
+		}
+
+		void setDeadline(long deadline) {
+			this.deadline = deadline;
+		}
+
+		AnalysisResult run(int maxDepth) {
+
+			long positionKey = chessMatch.getPositionKey();
+			short[] rootMoves = moves[0];
+			int count = chessMatch.legalMoves(rootMoves);
+
+			if (count == 0)
+				return new AnalysisResult(positionKey, 0, chessMatch.isCheck() ? -MATE : 0, (short) 0, 0);
+
+			order(rootMoves, count, 0, cachedMove(positionKey), chessMatch.copyPieces(boards[0]));
+
+			short bestMove = rootMoves[0];
+			int bestScore = 0;
+			int completedDepth = 0;
+
+			for (int depth = 1; depth <= maxDepth; depth++) {
+
+				short iterationMove = 0;
+				int iterationScore = -INFINITY;
+
+				try {
+					int alpha = -INFINITY;
+
+					for (int i = 0; i < count; i++) {
+
+						chessMatch.makeSearchMove(rootMoves[i]);
+						int score = -search(depth - 1, -INFINITY, -alpha, 1, true);
+						chessMatch.undoSearchMove();
+
+						if (score > iterationScore) {
+							iterationScore = score;
+							iterationMove = rootMoves[i];
+							alpha = Math.max(alpha, score);
+						}
+					}
+				} catch (SearchTimeout e) {
+					if (iterationMove != 0) {
+						bestMove = iterationMove;
+						bestScore = iterationScore;
+					}
+					break;
+				}
+
+				bestMove = iterationMove;
+				bestScore = iterationScore;
+				completedDepth = depth;
+
+				moveToFront(rootMoves, count, bestMove);
+				iterationCompleted(positionKey, depth, bestScore, bestMove);
+
+				if (Math.abs(bestScore) >= MATE - MAX_DEPTH)
+					break;
+			}
+
+			return new AnalysisResult(positionKey, completedDepth, bestScore, bestMove, nodes);
+		}
+
+		List<AnalysisLine> runMultiPv(int lines, int maxDepth, Consumer<List<AnalysisLine>> listener) {
+
+			long positionKey = chessMatch.getPositionKey();
+			short[] rootMoves = moves[0];
+			int count = chessMatch.legalMoves(rootMoves);
+
+			if (count == 0)
+				return Collections.emptyList();
+
+			lines = Math.min(lines, count);
+			order(rootMoves, count, 0, cachedMove(positionKey), chessMatch.copyPieces(boards[0]));
+
+			int[] rootScores = new int[count];
+			int[] bestScores = new int[lines];
+			List<AnalysisLine> result = Collections.emptyList();
+
+			for (int depth = 1; depth <= maxDepth; depth++) {
+
+				try {
+					for (int i = 0; i < count; i++) {
+
+						int alpha = (i < lines) ? -INFINITY : bestScores[lines - 1];
+
+						chessMatch.makeSearchMove(rootMoves[i]);
+						int score = -search(depth - 1, -INFINITY, -alpha, 1, true);
+						chessMatch.undoSearchMove();
+
+						rootScores[i] = score;
+						insertScore(bestScores, Math.min(i, lines), score);
+					}
+				} catch (SearchTimeout e) {
+					break;
+				}
+
+				// Estável: em caso de empate, o lance buscado antes (com janela completa) vem primeiro
+				sortByScore(rootMoves, rootScores, count);
+
+				List<AnalysisLine> completed = new ArrayList<>(lines);
+				for (int i = 0; i < lines; i++)
+					completed.add(new AnalysisLine(i + 1, depth, rootScores[i], principalVariation(rootMoves[i], depth)));
+
+				result = Collections.unmodifiableList(completed);
+				iterationCompleted(positionKey, depth, rootScores[0], rootMoves[0]);
+
+				if (cache != null)
+					cache.put(new AnalysisResult(positionKey, depth, rootScores[0], rootMoves[0], nodes));
+
+				if (listener != null)
+					listener.accept(result);
+
+				if (Math.abs(rootScores[lines - 1]) >= MATE - MAX_DEPTH)
+					break;
+			}
+
+			return result;
+		}
+
+		/**
+		 * Reconstrói a variante principal de um lance da raiz seguindo os melhores
+		 * lances da tabela de transposição.
+		 */
+		private short[] principalVariation(short rootMove, int depth) {
+
+			short[] line = new short[depth];
+			int length = 0;
+
+			line[length++] = rootMove;
+			chessMatch.makeSearchMove(rootMove);
+
+			while (length < depth && !chessMatch.isRepetition(2)) {
+
+				int entry = table.probe(chessMatch.getPositionKey());
+				if (entry < 0)
+					break;
+
+				short move = table.move(entry);
+				short[] list = moves[length];
+				int count = chessMatch.legalMoves(list);
+				boolean legal = false;
+
+				for (int i = 0; i < count && !legal; i++)
+					legal = list[i] == move;
+
+				if (!legal)
+					break;
+
+				line[length++] = move;
+				chessMatch.makeSearchMove(move);
+			}
+
+			for (int i = 0; i < length; i++)
+				chessMatch.undoSearchMove();
+
+			return Arrays.copyOf(line, length);
+		}
+
+		/**
+		 * Busca alfa-beta a partir da posição atual. O lance nulo não é tentado
+		 * logo depois de outro lance nulo (nullAllowed falso).
+		 */
+		private int search(int depth, int alpha, int beta, int ply, boolean nullAllowed) {
+
+			if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted())
+				throw TIMEOUT;
+
+			nodes++;
+
+			if (chessMatch.getHalfmoveClock() >= 100 || chessMatch.isRepetition(2))
+				return 0;
+
+			// Uma cópia do tabuleiro por nó, em uma matriz reservada para a altura
+			ChessPiece[][] pieces = boards[ply];
+
+			if (depth == 0 || ply >= MAX_DEPTH) {
+				chessMatch.copyPieces(pieces);
+				return evaluator.evaluate(chessMatch, pieces);
+			}
+
+			long key = chessMatch.getPositionKey();
+			int entry = table.probe(key);
+			short tableMove = 0;
+
+			if (entry >= 0) {
+
+				tableMove = table.move(entry);
+
+				if (table.depth(entry) >= depth) {
+
+					int score = fromTable(table.score(entry), ply);
+					byte flag = table.flag(entry);
+
+					if (flag == TranspositionTable.EXACT || (flag == TranspositionTable.LOWER_BOUND && score >= beta)
+							|| (flag == TranspositionTable.UPPER_BOUND && score <= alpha))
+						return score;
+				}
+			}
+
+			short[] list = moves[ply];
+			int count = chessMatch.legalMoves(list);
+			boolean inCheck = chessMatch.isCheck();
+
+			if (count == 0)
+				return inCheck ? -MATE + ply : 0;
+
+			long occupied = chessMatch.copyPieces(pieces);
+
+			// Nós da variante principal (janela aberta) não são podados
+			boolean pvNode = beta - alpha > 1;
+			boolean quietWindow = !pvNode && !inCheck && !isMateScore(alpha) && !isMateScore(beta);
+			int staticEval = quietWindow ? evaluator.evaluate(chessMatch, pieces) : 0;
+
+			// Lance nulo: se passar a vez ainda supera beta, a posição é boa demais
+			if (nullMove && nullAllowed && quietWindow && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta
+					&& hasPieces(pieces, chessMatch.getCurrentPlayer())) {
+
+				int reduction = (depth > 6) ? 3 : 2;
+
+				chessMatch.makeNullMove();
+				int score = -search(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+				chessMatch.undoNullMove();
+
+				if (score >= beta)
+					return isMateScore(score) ? beta : score;
+			}
+
+			// Razoring: longe de alfa, perto das folhas, a busca é reduzida
+			boolean razored = razoring && quietWindow && depth == 2 && staticEval + RAZOR_MARGIN <= alpha;
+			if (razored)
+				depth--;
+
+			// Futilidade: na última profundidade, lances quietos não alcançam alfa. Um nó
+			// reduzido pelo razoring busca todos os lances, senão a redução viraria corte
+			boolean futile = futility && quietWindow && !razored && depth == 1
+					&& staticEval + FUTILITY_MARGIN <= alpha;
+
+			order(list, count, ply, tableMove, occupied);
+
+			int originalAlpha = alpha;
+			int bestScore = -INFINITY;
+			short bestMove = 0;
+
+			for (int i = 0; i < count; i++) {
+
+				chessMatch.makeSearchMove(list[i]);
+
+				boolean quiet = chessMatch.getLastCapturedPiece() == null && chessMatch.getPromoted() == null
+						&& !inCheck && !chessMatch.isCheck();
+
+				// O lance podado não foi buscado, então não vira o melhor lance da tabela
+				if (futile && quiet) {
+					chessMatch.undoSearchMove();
+					bestScore = Math.max(bestScore, staticEval + FUTILITY_MARGIN);
+					continue;
+				}
+
+				int score;
+
+				// Redução de lances tardios: lances quietos do fim da lista buscados mais rasos
+				if (lateMoveReduction && quiet && depth >= LMR_MIN_DEPTH && i >= LMR_MIN_INDEX) {
+
+					int reduction = (depth >= 6 && i >= 3 * LMR_MIN_INDEX) ? 2 : 1;
+
+					score = -search(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+					if (score > alpha)
+						score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+				} else {
+					score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+				}
+
+				chessMatch.undoSearchMove();
+
+				if (score > bestScore) {
+					bestScore = score;
+					bestMove = list[i];
+				}
+
+				if (score > alpha)
+					alpha = score;
+
+				if (alpha >= beta)
+					break;
+			}
+
+			byte flag = (bestScore <= originalAlpha) ? TranspositionTable.UPPER_BOUND
+					: (bestScore >= beta) ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+			table.store(key, depth, toTable(bestScore, ply), flag, bestMove);
+
+			return bestScore;
+		}
+
+		/**
+		 * Ordena os lances: o lance sugerido primeiro, depois as capturas da peça
+		 * mais valiosa pela menos valiosa, depois as promoções e, por último, as
+		 * capturas que perdem material segundo o SEE. A cópia do tabuleiro da
+		 * altura já deve ter sido tirada.
+		 */
+		private void order(short[] list, int count, int ply, short first, long occupied) {
+
+			ChessPiece[][] pieces = boards[ply];
+			int[] scores = orderScores[ply];
+
+			for (int i = 0; i < count; i++) {
+
+				short move = list[i];
+				int score = 0;
+
+				if (move == first) {
+					score = INFINITY;
+				} else {
+					int target = MoveCodec.target(move);
+					int source = MoveCodec.source(move);
+					ChessPiece victim = pieces[7 - target / 8][target % 8];
+					ChessPiece attacker = pieces[7 - source / 8][source % 8];
+
+					if (victim != null) {
+						int balance = exchange.evaluate(pieces, occupied, move);
+						score += (balance < 0) ? balance
+								: 10 * evaluator.value(victim.getType()) - evaluator.value(attacker.getType());
+					}
+					if (MoveCodec.promotion(move) != null)
+						score += evaluator.value(MoveCodec.promotion(move));
+				}
+
+				scores[i] = score;
+			}
+
+			for (int i = 1; i < count; i++) {
+
+				short move = list[i];
+				int score = scores[i];
+				int j = i - 1;
+
+				while (j >= 0 && scores[j] < score) {
+					list[j + 1] = list[j];
+					scores[j + 1] = scores[j];
+					j--;
+				}
+
+				list[j + 1] = move;
+				scores[j + 1] = score;
+			}
+		}
+
+		/**
+		 * Verifica se o jogador tem alguma peça além do rei e dos peões. Sem elas,
+		 * o zugzwang é comum e o lance nulo não é confiável.
+		 */
+		private boolean hasPieces(ChessPiece[][] pieces, Color color) {
+
+			for (ChessPiece[] row : pieces) {
+				for (ChessPiece piece : row) {
+					if (piece != null && piece.getColor() == color && piece.getType() != Pieces.KING
+							&& piece.getType() != Pieces.PAWN)
+						return true;
+				}
+			}
+
+			return false;
+		}
+
+		private short cachedMove(long positionKey) {
+			AnalysisResult cached = (cache == null) ? null : cache.getIfPresent(positionKey, 1);
+			return (cached == null) ? 0 : cached.getBestMove();
+		}
+
+		private void iterationCompleted(long positionKey, int depth, int score, short move) {
+
+			SearchIterationEvent event = new SearchIterationEvent();
+
+			if (event.shouldCommit()) {
+				event.positionKey = positionKey;
+				event.piecesOnBoard = Long.bitCount(chessMatch.copyPieces(boards[0]));
+				event.depth = depth;
+				event.nodes = nodes;
+				event.score = score;
+				event.bestMove = MoveCodec.toChessPosition(MoveCodec.source(move)) + ""
+						+ MoveCodec.toChessPosition(MoveCodec.target(move));
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Move um lance para o início da lista, mantendo a ordem dos demais.
+	 */
+	private static void moveToFront(short[] list, int count, short move) {
+
+		for (int i = 0; i < count; i++) {
+			if (list[i] == move) {
+				System.arraycopy(list, 0, list, 1, i);
+				list[0] = move;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Insere uma avaliação na lista decrescente das melhores, que tem size
+	 * elementos. Com a lista cheia, a pior avaliação é descartada.
+	 */
+	private static void insertScore(int[] best, int size, int score) {
+
+		if (size == best.length) {
+			if (score <= best[size - 1])
+				return;
+			size--;
+		}
+
+		int i = size;
+
+		while (i > 0 && best[i - 1] < score) {
+			best[i] = best[i - 1];
+			i--;
+		}
+
+		best[i] = score;
+	}
+
+	/**
+	 * Ordena os lances por avaliação decrescente, preservando a ordem dos empates.
+	 */
+	private static void sortByScore(short[] list, int[] scores, int count) {
+
+		for (int i = 1; i < count; i++) {
+
+			short move = list[i];
+			int score = scores[i];
+			int j = i - 1;
+
+			while (j >= 0 && scores[j] < score) {
+				list[j + 1] = list[j];
+				scores[j + 1] = scores[j];
+				j--;
+			}
+
+			list[j + 1] = move;
+			scores[j + 1] = score;
+		}
+	}
+
+	/**
+	 * Verifica se uma avaliação indica mate (os limites infinitos da janela não
+	 * contam).
+	 */
+	private static boolean isMateScore(int score) {
+		return Math.abs(score) >= MATE - MAX_DEPTH && Math.abs(score) < INFINITY;
+	}
+
+	/**
+	 * Converte uma avaliação de mate para a distância a partir da posição, antes
+	 * de gravá-la na tabela.
+	 */
+	private static int toTable(int score, int ply) {
+		if (score >= MATE - MAX_DEPTH)
+			return score + ply;
+		if (score <= -MATE + MAX_DEPTH)
+			return score - ply;
+		return score;
+	}
+
+	private static int fromTable(int score, int ply) {
+		if (score >= MATE - MAX_DEPTH)
+			return score - ply;
+		if (score <= -MATE + MAX_DEPTH)
+			return score + ply;
+		return score;
+	}
+
+	/**
+	 * Sinaliza o fim do prazo da busca. Não preenche a pilha de chamadas.
+	 */
+	private static class SearchTimeout extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		SearchTimeout() {
+			super(null, null, false, false);
+		}
+	}
+
+}// class SearchEngine
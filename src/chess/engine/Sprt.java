@@ -0,0 +1,113 @@
+package chess.engine;
+
+/**
+ * Teste sequencial da razão de probabilidades (SPRT) entre duas hipóteses de
+ * diferença de força em Elo: H0 (elo0) e H1 (elo1), com elo1 maior que elo0.
+ * A razão de log-verossimilhança é a aproximação normal sobre a pontuação média
+ * dos jogos (vitória 1, empate 0,5, derrota 0), e o teste para quando ela sai
+ * do intervalo definido pelos erros alfa e beta.
+ */
+public class Sprt {
+
+	private final double elo0;
+	private final double elo1;
+	private final double lowerBound;
+	private final double upperBound;
+
+	/**
+	 * Cria um teste entre duas hipóteses.
+	 *
+	 * @param elo0  a diferença de Elo da hipótese nula
+	 * @param elo1  a diferença de Elo da hipótese alternativa
+	 * @param alpha a probabilidade de aceitar H1 sendo H0 verdadeira
+	 * @param beta  a probabilidade de aceitar H0 sendo H1 verdadeira
+	 */
+	public Sprt(double elo0, double elo1, double alpha, double beta) {
+
+		if (elo1 <= elo0 || alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1)
+			throw new IllegalArgumentException(elo0 + " " + elo1 + " " + alpha + " " + beta);
+
+		this.elo0 = elo0;
+		this.elo1 = elo1;
+		this.lowerBound = Math.log(beta / (1 - alpha));
+		this.upperBound = Math.log((1 - beta) / alpha);
+	}
+
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	public double getUpperBound() {
+		return upperBound;
+	}
+
+	/**
+	 * Calcula a razão de log-verossimilhança de H1 sobre H0.
+	 *
+	 * @param wins   as vitórias do primeiro motor
+	 * @param draws  os empates
+	 * @param losses as derrotas do primeiro motor
+	 * @return a razão de log-verossimilhança (0 sem jogos)
+	 */
+	public double llr(int wins, int draws, int losses) {
+
+		if (wins + draws + losses == 0)
+			return 0.0;
+
+		// Sem algum dos resultados a variância se anula; meio jogo de cada um a evita
+		double w = wins;
+		double d = draws;
+		double l = losses;
+
+		if (wins == 0 || draws == 0 || losses == 0) {
+			w += 0.5;
+			d += 0.5;
+			l += 0.5;
+		}
+
+		double games = w + d + l;
+		double score = (w + 0.5 * d) / games;
+		double variance = (w * square(1 - score) + d * square(0.5 - score) + l * square(score)) / games;
+
+		double score0 = expectedScore(elo0);
+		double score1 = expectedScore(elo1);
+
+		return games * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+	}
+
+	/**
+	 * Retorna a decisão do teste para os resultados especificados.
+	 *
+	 * @param wins   as vitórias do primeiro motor
+	 * @param draws  os empates
+	 * @param losses as derrotas do primeiro motor
+	 * @return a hipótese aceita, ou INCONCLUSIVE se o teste deve continuar
+	 */
+	public SprtStatus status(int wins, int draws, int losses) {
+
+		double llr = llr(wins, draws, losses);
+
+		if (llr >= upperBound)
+			return SprtStatus.H1_ACCEPTED;
+		if (llr <= lowerBound)
+			return SprtStatus.H0_ACCEPTED;
+
+		return SprtStatus.INCONCLUSIVE;
+	}
+
+	/**
+	 * Retorna a pontuação esperada de um jogador com a vantagem de Elo
+	 * especificada.
+	 *
+	 * @param elo a diferença de Elo
+	 * @return a pontuação esperada, entre 0 e 1
+	 */
+	public static double expectedScore(double elo) {
+		return 1 / (1 + Math.pow(10, -elo / 400));
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+}// class Sprt
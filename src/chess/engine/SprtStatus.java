@@ -0,0 +1,23 @@
+package chess.engine;
+
+/**
+ * Enumeração que representa a decisão do teste sequencial da razão de
+ * probabilidades (SPRT) de um torneio.
+ */
+public enum SprtStatus {
+
+	H0_ACCEPTED("H0 accepted"),
+	H1_ACCEPTED("H1 accepted"),
+	INCONCLUSIVE("Inconclusive");
+
+	private String title;
+
+	private SprtStatus(String title) {
+		this.title = title;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+}// enum SprtStatus
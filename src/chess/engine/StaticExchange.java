@@ -0,0 +1,265 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.archive.MoveCodec;
+import util.Pieces;
+
+/**
+ * Avaliação estática de trocas (SEE): o saldo de material de uma captura depois
+ * de todas as recapturas na mesma casa, em que cada lado captura sempre com a
+ * peça de menor valor e pode parar a sequência quando ela deixa de compensar.
+ *
+ * A sequência é resolvida sobre a matriz de peças, sem alterar o tabuleiro: as
+ * peças que já capturaram são retiradas de um conjunto de casas ocupadas, o que
+ * revela os atacantes de longo alcance que estavam atrás delas (raios X). Pinos
+ * e xeques são ignorados, como de costume no SEE.
+ *
+ * As casas são indexadas por linha * 8 + coluna do tabuleiro (a8 = 0). Cada
+ * instância reutiliza o vetor de ganhos entre avaliações e não é thread-safe.
+ */
+public class StaticExchange {
+
+	private static final int KING_VALUE = 20_000;
+	private static final int MAX_EXCHANGES = 32;
+
+	private static final int[][] KNIGHT_STEPS = { { -2, -1 }, { -2, 1 }, { -1, -2 }, { -1, 2 }, { 1, -2 }, { 1, 2 },
+			{ 2, -1 }, { 2, 1 } };
+	private static final int[][] KING_STEPS = { { -1, -1 }, { -1, 0 }, { -1, 1 }, { 0, -1 }, { 0, 1 }, { 1, -1 },
+			{ 1, 0 }, { 1, 1 } };
+	private static final int[][] ORTHOGONAL = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+	private static final int[][] DIAGONAL = { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+
+	private final Evaluator evaluator;
+	private final int[] gain = new int[MAX_EXCHANGES];
+
+	/**
+	 * Cria um avaliador de trocas com os valores materiais do avaliador
+	 * especificado.
+	 *
+	 * @param evaluator o avaliador de posições
+	 */
+	public StaticExchange(Evaluator evaluator) {
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Avalia a troca iniciada por um movimento na posição atual da partida.
+	 *
+	 * @param chessMatch a partida de xadrez (não é alterada)
+	 * @param move       o movimento codificado com MoveCodec
+	 * @return o saldo de material em centipeões para o lado que move
+	 */
+	public int evaluate(ChessMatch chessMatch, short move) {
+		return evaluate(chessMatch.getPieces(), move);
+	}
+
+	/**
+	 * Avalia a troca iniciada por um movimento.
+	 *
+	 * @param pieces a matriz de peças da posição (não é alterada)
+	 * @param move   o movimento codificado com MoveCodec
+	 * @return o saldo de material em centipeões para o lado que move (0 para um
+	 *         movimento sem captura cuja casa não é atacada)
+	 */
+	public int evaluate(ChessPiece[][] pieces, short move) {
+		return evaluate(pieces, occupancy(pieces), move);
+	}
+
+	/**
+	 * Avalia a troca iniciada por um movimento, com as casas ocupadas já
+	 * calculadas.
+	 *
+	 * @param pieces   a matriz de peças da posição (não é alterada)
+	 * @param occupied as casas ocupadas da posição (ChessMatch.copyPieces)
+	 * @param move     o movimento codificado com MoveCodec
+	 * @return o saldo de material em centipeões para o lado que move
+	 */
+	public int evaluate(ChessPiece[][] pieces, long occupied, short move) {
+
+		int source = toSquare(MoveCodec.source(move));
+		int target = toSquare(MoveCodec.target(move));
+		int targetRow = target / 8;
+		int targetColumn = target % 8;
+
+		ChessPiece attacker = piece(pieces, source);
+		ChessPiece victim = piece(pieces, target);
+		occupied &= ~(1L << source);
+
+		gain[0] = (victim == null) ? 0 : value(victim.getType());
+
+		// En passant: o peão capturado não está na casa de destino
+		if (victim == null && attacker.getType() == Pieces.PAWN && source % 8 != targetColumn) {
+			gain[0] = value(Pieces.PAWN);
+			occupied &= ~(1L << (source / 8 * 8 + targetColumn));
+		}
+
+		int onTarget = value(attacker.getType());
+		Pieces promotion = MoveCodec.promotion(move);
+		if (promotion != null) {
+			gain[0] += value(promotion) - value(Pieces.PAWN);
+			onTarget = value(promotion);
+		}
+
+		Color side = opponent(attacker.getColor());
+		int depth = 0;
+
+		while (depth + 1 < MAX_EXCHANGES) {
+
+			int square = leastValuableAttacker(pieces, occupied, targetRow, targetColumn, side);
+			if (square < 0)
+				break;
+
+			ChessPiece next = piece(pieces, square);
+
+			// O rei só recaptura se o oponente não puder retomar
+			if (next.getType() == Pieces.KING && leastValuableAttacker(pieces, occupied & ~(1L << square),
+					targetRow, targetColumn, opponent(side)) >= 0)
+				break;
+
+			depth++;
+			gain[depth] = onTarget - gain[depth - 1];
+
+			onTarget = value(next.getType());
+			occupied &= ~(1L << square);
+			side = opponent(side);
+		}
+
+		// Cada lado escolhe entre parar a troca e continuar capturando
+		while (depth > 0) {
+			gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+			depth--;
+		}
+
+		return gain[0];
+	}
+
+	/**
+	 * Retorna a casa do atacante de menor valor da cor especificada, entre as
+	 * casas ocupadas, ou -1 se não houver.
+	 */
+	private int leastValuableAttacker(ChessPiece[][] pieces, long occupied, int row, int column, Color color) {
+
+		int best = -1;
+		int bestValue = Integer.MAX_VALUE;
+
+		// Um peão branco ataca para cima (linha menor), então está na linha de baixo
+		int pawnRow = (color == Color.WHITE) ? row + 1 : row - 1;
+
+		for (int dc = -1; dc <= 1; dc += 2) {
+			int square = matching(pieces, occupied, pawnRow, column + dc, color, Pieces.PAWN, null);
+			if (square >= 0)
+				return square;
+		}
+
+		for (int[] step : KNIGHT_STEPS) {
+			int square = matching(pieces, occupied, row + step[0], column + step[1], color, Pieces.KNIGHT, null);
+			if (square >= 0) {
+				best = square;
+				bestValue = value(Pieces.KNIGHT);
+				break;
+			}
+		}
+
+		for (int[] step : DIAGONAL) {
+			int square = slider(pieces, occupied, row, column, step, color, Pieces.BISHOP);
+			if (square >= 0 && value(piece(pieces, square).getType()) < bestValue) {
+				best = square;
+				bestValue = value(piece(pieces, square).getType());
+			}
+		}
+
+		for (int[] step : ORTHOGONAL) {
+			int square = slider(pieces, occupied, row, column, step, color, Pieces.ROOK);
+			if (square >= 0 && value(piece(pieces, square).getType()) < bestValue) {
+				best = square;
+				bestValue = value(piece(pieces, square).getType());
+			}
+		}
+
+		if (best >= 0)
+			return best;
+
+		for (int[] step : KING_STEPS) {
+			int square = matching(pieces, occupied, row + step[0], column + step[1], color, Pieces.KING, null);
+			if (square >= 0)
+				return square;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Retorna a primeira peça ocupada no raio, se for da cor especificada e do
+	 * tipo de longo alcance ou uma rainha; -1 caso contrário.
+	 */
+	private int slider(ChessPiece[][] pieces, long occupied, int row, int column, int[] step, Color color,
+			Pieces type) {
+
+		int r = row + step[0];
+		int c = column + step[1];
+
+		while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+
+			int square = r * 8 + c;
+
+			if ((occupied & (1L << square)) != 0)
+				return matching(pieces, occupied, r, c, color, type, Pieces.QUEEN);
+
+			r += step[0];
+			c += step[1];
+		}
+
+		return -1;
+	}
+
+	private static int matching(ChessPiece[][] pieces, long occupied, int row, int column, Color color, Pieces type,
+			Pieces alternative) {
+
+		if (row < 0 || row >= 8 || column < 0 || column >= 8)
+			return -1;
+
+		int square = row * 8 + column;
+		ChessPiece piece = pieces[row][column];
+
+		if ((occupied & (1L << square)) == 0 || piece == null || piece.getColor() != color)
+			return -1;
+
+		return (piece.getType() == type || piece.getType() == alternative) ? square : -1;
+	}
+
+	private int value(Pieces type) {
+		return (type == Pieces.KING) ? KING_VALUE : evaluator.value(type);
+	}
+
+	private static long occupancy(ChessPiece[][] pieces) {
+
+		long occupied = 0L;
+
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				if (pieces[i][j] != null)
+					occupied |= 1L << (i * 8 + j);
+			}
+		}
+
+		return occupied;
+	}
+
+	private static ChessPiece piece(ChessPiece[][] pieces, int square) {
+		return pieces[square / 8][square % 8];
+	}
+
+	/**
+	 * Converte o índice de uma casa do MoveCodec (a1 = 0) para o do tabuleiro.
+	 */
+	private static int toSquare(int square) {
+		return (7 - square / 8) * 8 + square % 8;
+	}
+
+	private static Color opponent(Color color) {
+		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	}
+
+}// class StaticExchange
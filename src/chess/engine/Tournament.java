@@ -0,0 +1,228 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Color;
+import chess.analysis.AnalysisResult;
+
+/**
+ * Torneio de partidas entre dois motores (por exemplo, com pesos ou podas
+ * diferentes), jogadas em paralelo, uma por thread. As partidas partem de um
+ * conjunto de aberturas equilibradas, e cada abertura é jogada duas vezes, com
+ * as cores trocadas.
+ *
+ * Cada partida tem um relógio por jogador, com tempo base e incremento por
+ * lance; cada lance usa uma fração do tempo restante. A partida termina no
+ * mate, no afogamento, na tripla repetição, na regra dos cinquenta lances, na
+ * queda da bandeira ou, empatada, no limite de meios-lances.
+ *
+ * Depois de cada partida, o SPRT decide se o torneio pode parar; nesse caso,
+ * nenhuma partida nova é iniciada e as partidas em andamento são descartadas.
+ */
+public class Tournament {
+
+	/**
+	 * Aberturas equilibradas, com poucos lances, das linhas principais.
+	 */
+	public static final List<String> DEFAULT_OPENINGS = List.of(
+			"r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+			"rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2",
+			"rnbqkbnr/pppp1ppp/4p3/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2",
+			"rnbqkbnr/pp1ppppp/2p5/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2",
+			"rnbqkbnr/ppp1pppp/8/3p4/2PP4/8/PP2PPPP/RNBQKBNR b KQkq - 0 2",
+			"rnbqkb1r/pppppp1p/5np1/8/2PP4/8/PP2PPPP/RNBQKBNR w KQkq - 0 3",
+			"rnbqkbnr/pppp1ppp/8/4p3/2P5/8/PP1PPPPP/RNBQKBNR w KQkq - 0 2",
+			"rnbqkb1r/pppp1ppp/4pn2/8/2PP4/8/PP2PPPP/RNBQKBNR w KQkq - 0 3",
+			"r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+			"rnbqkbnr/ppp1pppp/8/3p4/3P4/5N2/PPP1PPPP/RNBQKB1R b KQkq - 1 2",
+			"rnbqkbnr/pp2pppp/3p4/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 0 3",
+			"rnbqkbnr/ppp2ppp/4p3/3p4/3PP3/8/PPP2PPP/RNBQKBNR w KQkq - 0 3");
+
+	private static final int MAX_PLIES = 400;
+	private static final int MOVES_TO_GO = 30;
+	private static final int DRAW = 0;
+	private static final int WHITE_WINS = 1;
+	private static final int BLACK_WINS = -1;
+
+	private final SearchEngine first;
+	private final SearchEngine second;
+	private final List<String> openings;
+	private final long baseMillis;
+	private final long incrementMillis;
+	private final Sprt sprt;
+
+	private int wins;
+	private int draws;
+	private int losses;
+	private volatile boolean finished;
+
+	/**
+	 * Cria um torneio entre dois motores.
+	 *
+	 * @param first           o primeiro motor, do ponto de vista do qual os
+	 *                        resultados são contados
+	 * @param second          o segundo motor
+	 * @param openings        as aberturas em FEN
+	 * @param baseMillis      o tempo inicial de cada jogador por partida
+	 * @param incrementMillis o incremento por lance
+	 * @param sprt            o teste que decide a parada antecipada
+	 * @throws ChessException se uma abertura for uma FEN inválida
+	 */
+	public Tournament(SearchEngine first, SearchEngine second, List<String> openings, long baseMillis,
+			long incrementMillis, Sprt sprt) {
+
+		if (openings.isEmpty())
+			throw new IllegalArgumentException("openings");
+
+		// Uma FEN inválida falha aqui, e não no meio do torneio
+		for (String fen : openings)
+			new ChessMatch(fen);
+
+		this.first = first;
+		this.second = second;
+		this.openings = List.copyOf(openings);
+		this.baseMillis = baseMillis;
+		this.incrementMillis = incrementMillis;
+		this.sprt = sprt;
+	}
+
+	/**
+	 * Joga o torneio até que o SPRT decida ou o número máximo de partidas seja
+	 * alcançado. Cada chamada começa um torneio novo.
+	 *
+	 * @param maxGames o número máximo de partidas
+	 * @param threads  o número de partidas simultâneas
+	 * @param listener recebe o resultado parcial depois de cada partida, em uma
+	 *                 das threads do torneio, ou null
+	 * @return o resultado final
+	 * @throws InterruptedException se a thread for interrompida
+	 */
+	public TournamentResult run(int maxGames, int threads, Consumer<TournamentResult> listener)
+			throws InterruptedException {
+
+		synchronized (this) {
+			wins = 0;
+			draws = 0;
+			losses = 0;
+			finished = false;
+		}
+
+		AtomicInteger nextGame = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> workers = new ArrayList<>();
+
+		for (int i = 0; i < threads; i++) {
+			workers.add(executor.submit(() -> {
+				for (int game = nextGame.getAndIncrement(); game < maxGames && !finished; game = nextGame
+						.getAndIncrement())
+					finish(playGame(game), listener);
+			}));
+		}
+
+		try {
+			for (Future<?> worker : workers)
+				worker.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			finished = true;
+			executor.shutdownNow();
+		}
+
+		return result();
+	}
+
+	/**
+	 * Joga uma partida. As partidas pares têm o primeiro motor com as brancas.
+	 *
+	 * @return o resultado do ponto de vista do primeiro motor (1, 0 ou -1)
+	 */
+	private int playGame(int game) {
+
+		boolean firstIsWhite = game % 2 == 0;
+		ChessMatch chessMatch = new ChessMatch(openings.get(game / 2 % openings.size()));
+		long[] clocks = { baseMillis, baseMillis };
+		short[] moves = new short[256];
+
+		int result = DRAW;
+
+		for (int ply = 0; ply < MAX_PLIES && !finished; ply++) {
+
+			Color side = chessMatch.getCurrentPlayer();
+
+			if (chessMatch.legalMoves(moves) == 0) {
+				result = chessMatch.isCheck() ? loss(side) : DRAW;
+				break;
+			}
+			if (chessMatch.isRepetition(3) || chessMatch.getHalfmoveClock() >= 100)
+				break;
+
+			SearchEngine engine = ((side == Color.WHITE) == firstIsWhite) ? first : second;
+			int clock = side.ordinal();
+			long budget = Math.min(clocks[clock] / MOVES_TO_GO + incrementMillis, clocks[clock] / 2);
+
+			long start = System.nanoTime();
+			AnalysisResult search = engine.search(chessMatch, SearchEngine.MAX_DEPTH, budget * 1_000_000L);
+			clocks[clock] -= (System.nanoTime() - start) / 1_000_000L;
+
+			if (clocks[clock] < 0 || search.getBestMove() == 0) {
+				result = loss(side);
+				break;
+			}
+
+			clocks[clock] += incrementMillis;
+			chessMatch.makeSearchMove(search.getBestMove());
+		}
+
+		return firstIsWhite ? result : -result;
+	}
+
+	private static int loss(Color side) {
+		return (side == Color.WHITE) ? BLACK_WINS : WHITE_WINS;
+	}
+
+	/**
+	 * Registra o resultado de uma partida e aplica o SPRT.
+	 */
+	private void finish(int result, Consumer<TournamentResult> listener) {
+
+		TournamentResult partial;
+
+		synchronized (this) {
+
+			if (finished)
+				return;
+
+			if (result > 0)
+				wins++;
+			else if (result < 0)
+				losses++;
+			else
+				draws++;
+
+			partial = result();
+			if (partial.getStatus() != SprtStatus.INCONCLUSIVE)
+				finished = true;
+		}
+
+		if (listener != null)
+			listener.accept(partial);
+	}
+
+	private synchronized TournamentResult result() {
+		return new TournamentResult(wins, draws, losses, sprt.llr(wins, draws, losses),
+				sprt.status(wins, draws, losses));
+	}
+
+}// class Tournament
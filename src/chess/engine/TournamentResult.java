@@ -0,0 +1,77 @@
+package chess.engine;
+
+/**
+ * Resultado imutável de um torneio entre dois motores, do ponto de vista do
+ * primeiro motor, com a decisão do SPRT sobre os jogos terminados.
+ */
+public final class TournamentResult {
+
+	private final int wins;
+	private final int draws;
+	private final int losses;
+	private final double llr;
+	private final SprtStatus status;
+
+	/**
+	 * Cria um resultado de torneio.
+	 *
+	 * @param wins   as vitórias do primeiro motor
+	 * @param draws  os empates
+	 * @param losses as derrotas do primeiro motor
+	 * @param llr    a razão de log-verossimilhança do SPRT
+	 * @param status a decisão do SPRT
+	 */
+	public TournamentResult(int wins, int draws, int losses, double llr, SprtStatus status) {
+		this.wins = wins;
+		this.draws = draws;
+		this.losses = losses;
+		this.llr = llr;
+		this.status = status;
+	}
+
+	public int getWins() {
+		return wins;
+	}
+
+	public int getDraws() {
+		return draws;
+	}
+
+	public int getLosses() {
+		return losses;
+	}
+
+	public int getGames() {
+		return wins + draws + losses;
+	}
+
+	public double getLlr() {
+		return llr;
+	}
+
+	public SprtStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Estima a diferença de Elo do primeiro motor a partir da pontuação média.
+	 *
+	 * @return a diferença de Elo, infinita se um dos motores venceu todos os jogos
+	 *         e 0 sem jogos
+	 */
+	public double getElo() {
+
+		if (getGames() == 0)
+			return 0.0;
+
+		double score = (wins + 0.5 * draws) / getGames();
+		return -400 * Math.log10(1 / score - 1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("+%d =%d -%d (%d jogos), Elo %+.1f, LLR %.2f: %s", wins, draws, losses, getGames(),
+				getElo(), llr, status.getTitle());
+	}
+
+}// class TournamentResult
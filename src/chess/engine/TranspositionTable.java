@@ -0,0 +1,80 @@
+package chess.engine;
+
+/**
+ * Tabela de transposição de uma busca: guarda, para cada posição visitada, a
+ * profundidade, a avaliação e o melhor lance encontrados. Cada chave ocupa uma
+ * única entrada, indexada pelos bits baixos da chave Zobrist, e uma nova
+ * entrada sempre substitui a anterior.
+ *
+ * Não é thread-safe; cada busca usa a sua própria tabela.
+ */
+class TranspositionTable {
+
+	static final byte EXACT = 0;
+	static final byte LOWER_BOUND = 1;
+	static final byte UPPER_BOUND = 2;
+
+	private final long[] keys;
+	private final short[] moves;
+	private final int[] scores;
+	private final byte[] depths;
+	private final byte[] flags;
+	private final int mask;
+
+	/**
+	 * Cria uma tabela com 2^bits entradas.
+	 *
+	 * @param bits o logaritmo do número de entradas
+	 */
+	TranspositionTable(int bits) {
+
+		int size = 1 << bits;
+
+		keys = new long[size];
+		moves = new short[size];
+		scores = new int[size];
+		depths = new byte[size];
+		flags = new byte[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Retorna o índice da entrada de uma chave, ou -1 se ela não estiver na
+	 * tabela.
+	 */
+	int probe(long key) {
+		int index = (int) key & mask;
+		return (keys[index] == key && depths[index] > 0) ? index : -1;
+	}
+
+	short move(int index) {
+		return moves[index];
+	}
+
+	int score(int index) {
+		return scores[index];
+	}
+
+	int depth(int index) {
+		return depths[index] - 1;
+	}
+
+	byte flag(int index) {
+		return flags[index];
+	}
+
+	/**
+	 * Grava o resultado da busca de uma posição.
+	 */
+	void store(long key, int depth, int score, byte flag, short move) {
+
+		int index = (int) key & mask;
+
+		keys[index] = key;
+		moves[index] = move;
+		scores[index] = score;
+		depths[index] = (byte) (depth + 1);
+		flags[index] = flag;
+	}
+
+}// class TranspositionTable
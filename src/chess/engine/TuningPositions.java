@@ -0,0 +1,162 @@
+package chess.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.archive.GameArchiveReader;
+import chess.archive.GameCursor;
+import chess.archive.GameResult;
+import chess.archive.MoveCodec;
+
+/**
+ * Extrai posições quietas das partidas de um arquivo de partidas para o ajuste
+ * dos pesos da avaliação. Cada segmento do arquivo é lido em paralelo e as
+ * posições são gravadas assim que cada partida termina, então o arquivo de
+ * partidas não precisa caber na memória.
+ *
+ * Uma posição é quieta se o lado a jogar não está em xeque, o lance jogado na
+ * partida não é captura nem promoção e nenhuma captura legal ganha material
+ * segundo o SEE. As primeiras jogadas de cada partida e as partidas sem
+ * resultado são ignoradas.
+ *
+ * Cada linha de saída tem a FEN e o resultado da partida do ponto de vista das
+ * brancas (1, 0.5 ou 0), separados por tabulação.
+ */
+public final class TuningPositions {
+
+	private static final int OPENING_PLIES = 8;
+	private static final int MAX_MOVES = 256;
+
+	private TuningPositions() {
+	}
+
+	/**
+	 * Extrai as posições quietas de um arquivo de partidas.
+	 *
+	 * @param archive o diretório do arquivo de partidas
+	 * @param output  o arquivo de posições gerado
+	 * @param threads o número de threads usadas na extração
+	 * @return o número de posições gravadas
+	 * @throws IOException se o arquivo não puder ser lido ou as posições gravadas
+	 */
+	public static long extract(Path archive, Path output, int threads) throws IOException {
+
+		GameArchiveReader reader = new GameArchiveReader(archive);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			return pool.submit(() -> IntStream.range(0, reader.getSegmentCount()).parallel()
+					.mapToLong(i -> extractSegment(reader.cursor(i), out)).sum()).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof UncheckedIOException)
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Reproduz as partidas de um segmento e grava as suas posições quietas.
+	 * Partidas com lances inválidos são aproveitadas até onde puderem ser
+	 * reproduzidas.
+	 */
+	private static long extractSegment(GameCursor cursor, Writer out) {
+
+		long startKey = new ChessMatch().getPositionKey();
+		StaticExchange exchange = new StaticExchange(new Evaluator());
+		short[] moves = new short[MAX_MOVES];
+		StringBuilder lines = new StringBuilder();
+		long count = 0;
+
+		while (cursor.next()) {
+
+			if (cursor.getStartPositionKey() != startKey || cursor.getResult() == GameResult.UNFINISHED)
+				continue;
+
+			String result = result(cursor.getResult());
+			ChessMatch chessMatch = new ChessMatch();
+			chessMatch.setReplayMode(true);
+			lines.setLength(0);
+
+			for (int i = 0; i < cursor.getMoveCount(); i++) {
+
+				short move = cursor.getMove(i);
+
+				if (i >= OPENING_PLIES && isQuiet(chessMatch, move, exchange, moves)) {
+					lines.append(chessMatch.getFen()).append('\t').append(result).append('\n');
+					count++;
+				}
+
+				try {
+					GameCursor.play(chessMatch, move);
+				} catch (ChessException e) {
+					break;
+				}
+			}
+
+			try {
+				synchronized (out) {
+					out.append(lines);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		return count;
+	}
+
+	private static boolean isQuiet(ChessMatch chessMatch, short playedMove, StaticExchange exchange,
+			short[] moves) {
+
+		if (chessMatch.isCheck() || MoveCodec.promotion(playedMove) != null)
+			return false;
+
+		ChessPiece[][] pieces = chessMatch.getPieces();
+
+		if (piece(pieces, MoveCodec.target(playedMove)) != null)
+			return false;
+
+		int count = chessMatch.legalMoves(moves);
+
+		for (int i = 0; i < count; i++) {
+			if (piece(pieces, MoveCodec.target(moves[i])) != null && exchange.evaluate(pieces, moves[i]) > 0)
+				return false;
+		}
+
+		return true;
+	}
+
+	private static ChessPiece piece(ChessPiece[][] pieces, int square) {
+		return pieces[7 - square / 8][square % 8];
+	}
+
+	private static String result(GameResult result) {
+
+		switch (result) {
+		case WHITE_WINS:
+			return "1";
+		case BLACK_WINS:
+			return "0";
+		default:
+			return "0.5";
+		}
+	}
+
+}// class TuningPositions
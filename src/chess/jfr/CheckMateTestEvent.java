@@ -0,0 +1,37 @@
+package chess.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido ao testar se um jogador está em xeque-mate. Desativado por
+ * padrão; ative-o na configuração da gravação.
+ */
+@Name("chess.CheckMateTest")
+@Label("Checkmate Test")
+@Category("Chess")
+@Description("Test whether a player is checkmated")
+@Enabled(false)
+public class CheckMateTestEvent extends Event {
+
+	@Label("Position Key")
+	public long positionKey;
+
+	@Label("Pieces On Board")
+	public int piecesOnBoard;
+
+	@Label("Color")
+	public String color;
+
+	@Label("Trial Moves")
+	@Description("Moves made and undone to filter out moves that leave the king in check")
+	public int trialMoves;
+
+	@Label("Checkmate")
+	public boolean checkMate;
+
+}// class CheckMateTestEvent
@@ -0,0 +1,33 @@
+package chess.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido ao testar se um jogador está em xeque. Desativado por
+ * padrão; ative-o na configuração da gravação.
+ */
+@Name("chess.CheckTest")
+@Label("Check Test")
+@Category("Chess")
+@Description("Test whether a player's king is attacked")
+@Enabled(false)
+public class CheckTestEvent extends Event {
+
+	@Label("Position Key")
+	public long positionKey;
+
+	@Label("Pieces On Board")
+	public int piecesOnBoard;
+
+	@Label("Color")
+	public String color;
+
+	@Label("In Check")
+	public boolean inCheck;
+
+}// class CheckTestEvent
@@ -0,0 +1,36 @@
+package chess.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido ao validar a posição de destino de um movimento.
+ * Desativado por padrão; ative-o na configuração da gravação.
+ */
+@Name("chess.MoveValidation")
+@Label("Move Validation")
+@Category("Chess")
+@Description("Validation of the target position of a move")
+@Enabled(false)
+public class MoveValidationEvent extends Event {
+
+	@Label("Position Key")
+	public long positionKey;
+
+	@Label("Pieces On Board")
+	public int piecesOnBoard;
+
+	@Label("Source")
+	public int source;
+
+	@Label("Target")
+	public int target;
+
+	@Label("Legal")
+	public boolean legal;
+
+}// class MoveValidationEvent
@@ -0,0 +1,30 @@
+package chess.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido ao substituir um peão promovido. Desativado por padrão;
+ * ative-o na configuração da gravação.
+ */
+@Name("chess.Promotion")
+@Label("Promotion")
+@Category("Chess")
+@Description("Replacement of a promoted pawn")
+@Enabled(false)
+public class PromotionEvent extends Event {
+
+	@Label("Position Key")
+	public long positionKey;
+
+	@Label("Pieces On Board")
+	public int piecesOnBoard;
+
+	@Label("Piece")
+	public String piece;
+
+}// class PromotionEvent
@@ -0,0 +1,39 @@
+package chess.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido a cada iteração do aprofundamento iterativo de uma busca.
+ * Desativado por padrão; ative-o na configuração da gravação.
+ */
+@Name("chess.SearchIteration")
+@Label("Search Iteration")
+@Category("Chess")
+@Description("One iterative deepening iteration of an engine search")
+@Enabled(false)
+public class SearchIterationEvent extends Event {
+
+	@Label("Position Key")
+	public long positionKey;
+
+	@Label("Pieces On Board")
+	public int piecesOnBoard;
+
+	@Label("Depth")
+	public int depth;
+
+	@Label("Nodes")
+	public long nodes;
+
+	@Label("Score")
+	public int score;
+
+	@Label("Best Move")
+	public String bestMove;
+
+}// class SearchIterationEvent
@@ -0,0 +1,161 @@
+package chess.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import chess.ChessMatch;
+import chess.archive.MoveCodec;
+
+/**
+ * Reconstrói as partidas em andamento a partir do journal de movimentos.
+ */
+public final class JournalRecovery {
+
+	private JournalRecovery() {
+	}
+
+	/**
+	 * Lê o journal e reconstrói em paralelo todas as partidas que não terminaram.
+	 * As partidas reconstruídas não têm journal associado; use
+	 * MoveJournal.attach para continuar registrando seus movimentos.
+	 * 
+	 * @param path    o caminho do arquivo do journal
+	 * @param threads o número de threads usadas na reconstrução
+	 * @return as partidas em andamento, indexadas pelo identificador
+	 * @throws IOException se o journal não puder ser lido
+	 */
+	public static Map<Long, ChessMatch> recover(Path path, int threads) throws IOException {
+
+		if (!Files.exists(path))
+			return new HashMap<>();
+
+		Map<Long, MatchLog> logs = new HashMap<>();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+			long valid = validLength(channel);
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, valid);
+
+			while (buffer.hasRemaining()) {
+
+				long matchId = buffer.getLong();
+				byte type = buffer.get();
+				buffer.get();
+				short payload = buffer.getShort();
+				buffer.getInt();
+
+				if (type == MoveJournal.TYPE_END)
+					logs.remove(matchId);
+				else if (type == MoveJournal.TYPE_MOVE)
+					logs.computeIfAbsent(matchId, id -> new MatchLog()).add(payload);
+				else
+					logs.putIfAbsent(matchId, new MatchLog());
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		try {
+			return pool.submit(() -> logs.entrySet().parallelStream()
+					.collect(Collectors.toConcurrentMap(Map.Entry::getKey, e -> e.getValue().replay()))).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Retorna o tamanho da parte válida do journal: registros completos cuja soma
+	 * de verificação confere.
+	 * 
+	 * @param channel o canal do arquivo do journal
+	 * @return o tamanho em bytes da parte válida
+	 * @throws IOException se o arquivo não puder ser lido
+	 */
+	static long validLength(FileChannel channel) throws IOException {
+
+		ByteBuffer buffer = ByteBuffer.allocate(MoveJournal.RECORD_SIZE * 4096);
+		CRC32 crc = new CRC32();
+		long position = 0;
+
+		while (true) {
+
+			buffer.clear();
+			int read = channel.read(buffer, position);
+
+			if (read < MoveJournal.RECORD_SIZE)
+				return position;
+
+			buffer.flip();
+
+			while (buffer.remaining() >= MoveJournal.RECORD_SIZE) {
+
+				int start = buffer.position();
+				byte type = buffer.get(start + 8);
+				int checksum = buffer.getInt(start + MoveJournal.CHECKSUM_OFFSET);
+
+				if (type != MoveJournal.TYPE_START && type != MoveJournal.TYPE_MOVE && type != MoveJournal.TYPE_END
+						|| checksum != MoveJournal.checksum(crc, buffer, start))
+					return position;
+
+				buffer.position(start + MoveJournal.RECORD_SIZE);
+				position += MoveJournal.RECORD_SIZE;
+			}
+		}
+	}
+
+	/**
+	 * Registros de uma partida, na ordem em que foram gravados.
+	 */
+	private static class MatchLog {
+
+		private short[] moves = new short[16];
+		private int size;
+
+		void add(short move) {
+
+			if (size == moves.length)
+				moves = Arrays.copyOf(moves, size * 2);
+
+			moves[size++] = move;
+		}
+
+		ChessMatch replay() {
+
+			ChessMatch chessMatch = new ChessMatch();
+			chessMatch.setReplayMode(true);
+
+			for (int i = 0; i < size; i++) {
+
+				short payload = moves[i];
+
+				chessMatch.performChessMove(MoveCodec.toChessPosition(MoveCodec.source(payload)),
+						MoveCodec.toChessPosition(MoveCodec.target(payload)), MoveCodec.promotion(payload));
+			}
+
+			chessMatch.setReplayMode(false);
+
+			return chessMatch;
+		}
+	}
+
+}// class JournalRecovery
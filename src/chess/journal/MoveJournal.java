@@ -0,0 +1,280 @@
+package chess.journal;
+
+import static util.Messages.MSG_ERROR_JOURNAL_CLOSED;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import chess.ChessPosition;
+import chess.MatchJournal;
+import chess.archive.MoveCodec;
+import util.Pieces;
+
+/**
+ * Journal de escrita antecipada compartilhado por várias partidas.
+ *
+ * Cada registro tem 16 bytes: identificador da partida (8), tipo (1), reservado
+ * (1), dados (2) e o CRC32 dos 12 bytes anteriores (4). Os dados de um
+ * movimento são o movimento codificado com MoveCodec, incluindo a peça de
+ * promoção. O tipo 3, usado pelas antigas promoções, está reservado.
+ *
+ * Os registros são acumulados em memória e uma thread de gravação os escreve em
+ * lotes, chamando FileChannel.force uma única vez por lote (group commit). Quem
+ * grava um registro fica bloqueado até que o lote que o contém esteja em disco.
+ *
+ * Um único arquivo é usado para todas as partidas para não manter um descritor
+ * de arquivo aberto por partida.
+ */
+public class MoveJournal implements Closeable {
+
+	public static final byte TYPE_START = 1;
+	public static final byte TYPE_MOVE = 2;
+	public static final byte TYPE_END = 4;
+
+	public static final int RECORD_SIZE = 16;
+
+	static final int CHECKSUM_OFFSET = 12;
+
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+	private final FileChannel channel;
+	private final Object lock = new Object();
+	private final CRC32 crc = new CRC32();
+
+	private ByteBuffer active;
+	private ByteBuffer flushing;
+
+	private long appendedRecords;
+	private long durableRecords;
+	private long commits;
+	private IOException failure;
+	private boolean closed;
+
+	private final Thread flusher;
+
+	/**
+	 * Abre o journal, descartando um registro incompleto no final do arquivo.
+	 * 
+	 * @param path o caminho do arquivo do journal
+	 * @throws IOException se o arquivo não puder ser aberto
+	 */
+	public MoveJournal(Path path) throws IOException {
+
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		long valid = JournalRecovery.validLength(channel);
+		channel.truncate(valid);
+		channel.position(valid);
+
+		active = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+		flushing = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+
+		flusher = new Thread(this::flushLoop, "move-journal-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Inicia o registro de uma nova partida.
+	 * 
+	 * @param matchId o identificador da partida
+	 * @return o journal da partida, para ser associado à ChessMatch
+	 */
+	public MatchJournal start(long matchId) {
+		append(matchId, TYPE_START, (short) 0);
+		return attach(matchId);
+	}
+
+	/**
+	 * Retorna o journal de uma partida já iniciada, como uma partida recuperada.
+	 * 
+	 * @param matchId o identificador da partida
+	 * @return o journal da partida, para ser associado à ChessMatch
+	 */
+	public MatchJournal attach(long matchId) {
+		return new Handle(matchId);
+	}
+
+	/**
+	 * Retorna o número de lotes gravados em disco.
+	 * 
+	 * @return o número de chamadas a FileChannel.force
+	 */
+	public long getCommitCount() {
+		synchronized (lock) {
+			return commits;
+		}
+	}
+
+	/**
+	 * Acrescenta um registro e aguarda até que ele esteja em disco.
+	 * 
+	 * @param matchId o identificador da partida
+	 * @param type    o tipo do registro (TYPE_*)
+	 * @param payload os dados do registro
+	 * @throws UncheckedIOException se o registro não puder ser gravado
+	 */
+	public void append(long matchId, byte type, short payload) {
+
+		synchronized (lock) {
+
+			try {
+				while (!closed && failure == null && active.remaining() < RECORD_SIZE)
+					lock.wait();
+
+				checkState();
+
+				int start = active.position();
+				active.putLong(matchId);
+				active.put(type);
+				active.put((byte) 0);
+				active.putShort(payload);
+				active.putInt(checksum(crc, active, start));
+
+				long sequence = ++appendedRecords;
+				lock.notifyAll();
+
+				// close() ainda grava os registros já acrescentados
+				while (durableRecords < sequence) {
+					if (failure != null)
+						throw new UncheckedIOException(failure);
+					lock.wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new UncheckedIOException(new InterruptedIOException());
+			}
+		}
+	}
+
+	/**
+	 * Grava os registros pendentes e fecha o journal.
+	 */
+	@Override
+	public void close() throws IOException {
+
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		channel.close();
+	}
+
+	/**
+	 * Calcula o CRC32 dos bytes de um registro que precedem a soma de
+	 * verificação.
+	 * 
+	 * @param crc    o calculador, reutilizado entre registros
+	 * @param buffer o buffer que contém o registro
+	 * @param offset a posição do registro no buffer
+	 * @return a soma de verificação do registro
+	 */
+	static int checksum(CRC32 crc, ByteBuffer buffer, int offset) {
+
+		ByteBuffer record = buffer.duplicate();
+		record.limit(offset + CHECKSUM_OFFSET).position(offset);
+
+		crc.reset();
+		crc.update(record);
+		return (int) crc.getValue();
+	}
+
+	private void checkState() {
+
+		if (failure != null)
+			throw new UncheckedIOException(failure);
+
+		if (closed)
+			throw new IllegalStateException(MSG_ERROR_JOURNAL_CLOSED);
+	}
+
+	/**
+	 * Laço da thread de gravação: troca os buffers, grava o lote e força a
+	 * gravação em disco. Registros acrescentados durante a gravação formam o
+	 * próximo lote.
+	 */
+	private void flushLoop() {
+
+		while (true) {
+
+			long batchEnd;
+
+			synchronized (lock) {
+
+				try {
+					while (active.position() == 0 && !closed)
+						lock.wait();
+				} catch (InterruptedException e) {
+					return;
+				}
+
+				if (active.position() == 0)
+					return;
+
+				ByteBuffer aux = active;
+				active = flushing;
+				flushing = aux;
+				batchEnd = appendedRecords;
+				lock.notifyAll();
+			}
+
+			try {
+				flushing.flip();
+				while (flushing.hasRemaining())
+					channel.write(flushing);
+				channel.force(false);
+				flushing.clear();
+			} catch (IOException e) {
+				synchronized (lock) {
+					failure = e;
+					lock.notifyAll();
+				}
+				return;
+			}
+
+			synchronized (lock) {
+				durableRecords = batchEnd;
+				commits++;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Journal de uma partida, associado a um identificador.
+	 */
+	private class Handle implements MatchJournal {
+
+		private final long matchId;
+
+		Handle(long matchId) {
+			this.matchId = matchId;
+		}
+
+		@Override
+		public void recordMove(ChessPosition source, ChessPosition target, Pieces promotion) {
+			append(matchId, TYPE_MOVE, MoveCodec.encode(source, target, promotion));
+		}
+
+		@Override
+		public void recordEnd() {
+			append(matchId, TYPE_END, (short) 0);
+		}
+	}
+
+}// class MoveJournal
@@ -0,0 +1,120 @@
+package chess.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com baldes fixos em potências de dois de
+ * nanossegundos. O balde i conta as medições entre 2^i e 2^(i+1) - 1 ns. Cada
+ * balde é um LongAdder, então threads concorrentes não disputam a mesma linha
+ * de cache.
+ */
+public class LatencyHistogram {
+
+	public static final int BUCKETS = 40;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Cria um histograma vazio.
+	 */
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets[i] = new LongAdder();
+	}
+
+	/**
+	 * Registra uma medição.
+	 * 
+	 * @param nanos a latência em nanossegundos
+	 */
+	public void record(long nanos) {
+
+		int bucket = (nanos <= 0) ? 0 : Math.min(63 - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+
+		buckets[bucket].increment();
+		count.increment();
+		sum.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Retorna a latência média.
+	 * 
+	 * @return a média em nanossegundos, ou 0 se não houver medições
+	 */
+	public double getMean() {
+		long n = count.sum();
+		return (n == 0) ? 0 : (double) sum.sum() / n;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Retorna o limite superior do balde que contém o percentil especificado.
+	 * 
+	 * @param percentile o percentil, entre 0 e 100
+	 * @return o limite superior do balde em nanossegundos, ou 0 se não houver
+	 *         medições
+	 */
+	public long getPercentile(double percentile) {
+
+		long[] counts = getBuckets();
+		long total = 0;
+
+		for (long c : counts)
+			total += c;
+
+		if (total == 0)
+			return 0;
+
+		long threshold = (long) Math.ceil(total * percentile / 100.0);
+		long seen = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= threshold)
+				return (1L << (i + 1)) - 1;
+		}
+
+		return getMax();
+	}
+
+	/**
+	 * Retorna a contagem de cada balde.
+	 * 
+	 * @return as contagens dos baldes
+	 */
+	public long[] getBuckets() {
+
+		long[] counts = new long[BUCKETS];
+
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] = buckets[i].sum();
+
+		return counts;
+	}
+
+	/**
+	 * Zera todas as medições.
+	 */
+	public void reset() {
+
+		for (LongAdder bucket : buckets)
+			bucket.reset();
+
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+}// class LatencyHistogram
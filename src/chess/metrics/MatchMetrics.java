@@ -0,0 +1,185 @@
+package chess.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import util.Pieces;
+
+/**
+ * Métricas dos pontos críticos de ChessMatch.
+ *
+ * A instrumentação é ativada com a propriedade de sistema
+ * {@code -Dchess.metrics=true}. Como ENABLED é uma constante, quando a
+ * instrumentação está desligada o JIT elimina todas as chamadas de contagem. Ao
+ * ser ativada, as métricas são publicadas como MXBean com o nome
+ * {@value #OBJECT_NAME}.
+ */
+public final class MatchMetrics implements MatchMetricsMXBean {
+
+	public static final boolean ENABLED = Boolean.getBoolean("chess.metrics");
+
+	public static final String OBJECT_NAME = "chess:type=MatchMetrics";
+
+	private static final LongAdder MAKE_MOVE = new LongAdder();
+	private static final LongAdder UNDO_MOVE = new LongAdder();
+	private static final LongAdder TEST_CHECK = new LongAdder();
+	private static final LongAdder TEST_CHECK_MATE = new LongAdder();
+	private static final LongAdder GET_PIECES = new LongAdder();
+	private static final LongAdder[] POSSIBLE_MOVES = new LongAdder[Pieces.values().length];
+	private static final LatencyHistogram PERFORM_CHESS_MOVE = new LatencyHistogram();
+
+	static {
+
+		for (int i = 0; i < POSSIBLE_MOVES.length; i++)
+			POSSIBLE_MOVES[i] = new LongAdder();
+
+		if (ENABLED)
+			register();
+	}
+
+	private MatchMetrics() {
+	}
+
+	public static void makeMove() {
+		if (ENABLED)
+			MAKE_MOVE.increment();
+	}
+
+	public static void undoMove() {
+		if (ENABLED)
+			UNDO_MOVE.increment();
+	}
+
+	public static void testCheck() {
+		if (ENABLED)
+			TEST_CHECK.increment();
+	}
+
+	public static void testCheckMate() {
+		if (ENABLED)
+			TEST_CHECK_MATE.increment();
+	}
+
+	public static void getPieces() {
+		if (ENABLED)
+			GET_PIECES.increment();
+	}
+
+	public static void possibleMoves(Pieces type) {
+		if (ENABLED)
+			POSSIBLE_MOVES[type.ordinal()].increment();
+	}
+
+	/**
+	 * Registra a duração de uma chamada de performChessMove.
+	 * 
+	 * @param nanos a duração em nanossegundos
+	 */
+	public static void performChessMove(long nanos) {
+		if (ENABLED)
+			PERFORM_CHESS_MOVE.record(nanos);
+	}
+
+	/**
+	 * Publica as métricas no servidor de MBeans da plataforma.
+	 */
+	private static void register() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new MatchMetrics(), new ObjectName(OBJECT_NAME));
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return ENABLED;
+	}
+
+	@Override
+	public long getMakeMoveCount() {
+		return MAKE_MOVE.sum();
+	}
+
+	@Override
+	public long getUndoMoveCount() {
+		return UNDO_MOVE.sum();
+	}
+
+	@Override
+	public long getTestCheckCount() {
+		return TEST_CHECK.sum();
+	}
+
+	@Override
+	public long getTestCheckMateCount() {
+		return TEST_CHECK_MATE.sum();
+	}
+
+	@Override
+	public long getGetPiecesCount() {
+		return GET_PIECES.sum();
+	}
+
+	@Override
+	public Map<String, Long> getPossibleMovesCounts() {
+
+		Map<String, Long> counts = new LinkedHashMap<>();
+
+		for (Pieces type : Pieces.values())
+			counts.put(type.name(), POSSIBLE_MOVES[type.ordinal()].sum());
+
+		return counts;
+	}
+
+	@Override
+	public long getPerformChessMoveCount() {
+		return PERFORM_CHESS_MOVE.getCount();
+	}
+
+	@Override
+	public double getPerformChessMoveMeanMicros() {
+		return PERFORM_CHESS_MOVE.getMean() / 1000.0;
+	}
+
+	@Override
+	public double getPerformChessMoveP50Micros() {
+		return PERFORM_CHESS_MOVE.getPercentile(50) / 1000.0;
+	}
+
+	@Override
+	public double getPerformChessMoveP99Micros() {
+		return PERFORM_CHESS_MOVE.getPercentile(99) / 1000.0;
+	}
+
+	@Override
+	public double getPerformChessMoveMaxMicros() {
+		return PERFORM_CHESS_MOVE.getMax() / 1000.0;
+	}
+
+	@Override
+	public long[] getPerformChessMoveHistogram() {
+		return PERFORM_CHESS_MOVE.getBuckets();
+	}
+
+	@Override
+	public void reset() {
+
+		MAKE_MOVE.reset();
+		UNDO_MOVE.reset();
+		TEST_CHECK.reset();
+		TEST_CHECK_MATE.reset();
+		GET_PIECES.reset();
+
+		for (LongAdder adder : POSSIBLE_MOVES)
+			adder.reset();
+
+		PERFORM_CHESS_MOVE.reset();
+	}
+
+}// class MatchMetrics
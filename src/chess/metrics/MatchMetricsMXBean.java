@@ -0,0 +1,52 @@
+package chess.metrics;
+
+import java.util.Map;
+
+/**
+ * Interface de gerenciamento das métricas de ChessMatch publicadas via JMX.
+ */
+public interface MatchMetricsMXBean {
+
+	boolean isEnabled();
+
+	long getMakeMoveCount();
+
+	long getUndoMoveCount();
+
+	long getTestCheckCount();
+
+	long getTestCheckMateCount();
+
+	long getGetPiecesCount();
+
+	/**
+	 * Retorna o número de chamadas de possibleMoves por tipo de peça.
+	 * 
+	 * @return as contagens indexadas pelo nome do tipo de peça
+	 */
+	Map<String, Long> getPossibleMovesCounts();
+
+	long getPerformChessMoveCount();
+
+	double getPerformChessMoveMeanMicros();
+
+	double getPerformChessMoveP50Micros();
+
+	double getPerformChessMoveP99Micros();
+
+	double getPerformChessMoveMaxMicros();
+
+	/**
+	 * Retorna as contagens do histograma de latência de performChessMove. O balde
+	 * i conta as medições entre 2^i e 2^(i+1) - 1 ns.
+	 * 
+	 * @return as contagens dos baldes
+	 */
+	long[] getPerformChessMoveHistogram();
+
+	/**
+	 * Zera todas as métricas.
+	 */
+	void reset();
+
+}// interface MatchMetricsMXBean
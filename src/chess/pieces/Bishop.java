@@ -1,9 +1,9 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
 import chess.ChessPiece;
 import chess.Color;
+import chess.metrics.MatchMetrics;
 import util.Pieces;
 
 /**
@@ -26,6 +26,11 @@ public class Bishop extends ChessPiece {
 		return Pieces.BISHOP.getAcronym();
 	}
 
+	@Override
+	public Pieces getType() {
+		return Pieces.BISHOP;
+	}
+
 	/**
 	 * Retorna uma matriz de booleanos indicando os movimentos possíveis para o
 	 * Bispo.
@@ -34,6 +39,9 @@ public class Bishop extends ChessPiece {
 	 */
 	@Override
 	public boolean[][] possibleMoves() {
+
+		MatchMetrics.possibleMoves(Pieces.BISHOP);
+
 		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
 
 		checkDirection(matrix, -1, -1); // nw
@@ -54,14 +62,16 @@ public class Bishop extends ChessPiece {
 	 */
 	private void checkDirection(boolean[][] matrix, int rowIncrement, int columnIncrement) {
 
-		Position positionAux = new Position(position.getRow() + rowIncrement, position.getColumn() + columnIncrement);
+		int row = position.getRow() + rowIncrement;
+		int column = position.getColumn() + columnIncrement;
 
-		while (getBoard().positionExists(positionAux) && !getBoard().thereIsAPiece(positionAux)) {
-			matrix[positionAux.getRow()][positionAux.getColumn()] = true;
-			positionAux.setValues(positionAux.getRow() + rowIncrement, positionAux.getColumn() + columnIncrement);
+		while (getBoard().positionExists(row, column) && getBoard().piece(row, column) == null) {
+			matrix[row][column] = true;
+			row += rowIncrement;
+			column += columnIncrement;
 		}
 
-		if (getBoard().positionExists(positionAux) && isThereOpponentPiece(positionAux))
-			matrix[positionAux.getRow()][positionAux.getColumn()] = true;
+		if (getBoard().positionExists(row, column) && isThereOpponentPiece(row, column))
+			matrix[row][column] = true;
 	}
 }// class Bishop
@@ -1,10 +1,11 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
 import chess.ChessMatch;
 import chess.ChessPiece;
+import chess.ChessPosition;
 import chess.Color;
+import chess.metrics.MatchMetrics;
 import util.Pieces;
 
 /**
@@ -32,26 +33,51 @@ public class King extends ChessPiece {
 		return Pieces.KING.getAcronym();
 	}
 
+	@Override
+	public Pieces getType() {
+		return Pieces.KING;
+	}
+
 	/**
 	 * Verifica se uma determinada posição pode ser movida pelo Rei.
 	 * 
-	 * @param position a posição a ser verificada
+	 * @param row    o índice da linha
+	 * @param column o índice da coluna
 	 * @return true se o Rei pode mover-se para a posição, false caso contrário
 	 */
-	private boolean canMove(Position position) {
-		ChessPiece piece = (ChessPiece) getBoard().piece(position);
+	private boolean canMove(int row, int column) {
+		ChessPiece piece = (ChessPiece) getBoard().piece(row, column);
 
 		return piece == null || piece.getColor() != getColor();
 	}
 
+	/**
+	 * Verifica se uma casa é atacada por alguma peça do oponente.
+	 * 
+	 * @param row    o índice da linha
+	 * @param column o índice da coluna
+	 * @return true se a casa for atacada, false caso contrário
+	 */
+	private boolean isAttacked(int row, int column) {
+
+		Color opponent = (getColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
+
+		return chessMatch.getAttackCount(ChessPosition.of(row * getBoard().getColumns() + column), opponent) > 0;
+	}
+
 	/**
 	 * Verifica se a torre na posição especificada pode fazer um roque.
 	 * 
-	 * @param position a posição da torre
+	 * @param row    o índice da linha da torre
+	 * @param column o índice da coluna da torre
 	 * @return true se a torre pode fazer um roque, false caso contrário
 	 */
-	private boolean testRookCastling(Position position) {
-		ChessPiece piece = (ChessPiece) getBoard().piece(position);
+	private boolean testRookCastling(int row, int column) {
+
+		if (!getBoard().positionExists(row, column))
+			return false;
+
+		ChessPiece piece = (ChessPiece) getBoard().piece(row, column);
 
 		return piece != null && piece instanceof Rook && piece.getColor() == getColor() && piece.getMoveCount() == 0;
 	}
@@ -64,6 +90,8 @@ public class King extends ChessPiece {
 	@Override
 	public boolean[][] possibleMoves() {
 
+		MatchMetrics.possibleMoves(Pieces.KING);
+
 		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
 
 		checkDirection(matrix, -1, 0);
@@ -75,8 +103,8 @@ public class King extends ChessPiece {
 		checkDirection(matrix, 1, -1);
 		checkDirection(matrix, 1, 1);
 
-		// Special move: castling
-		if (getMoveCount() == 0 && !chessMatch.isCheck()) {
+		// Special move: castling (the king can't leave, cross or land on an attacked square)
+		if (getMoveCount() == 0 && !isAttacked(position.getRow(), position.getColumn())) {
 			// Kingside castling
 			checkCastlingMove(matrix, 3, new int[] { 1, 2 });
 
@@ -97,10 +125,11 @@ public class King extends ChessPiece {
 	 */
 	private void checkDirection(boolean[][] matrix, int rowIncrement, int columnIncrement) {
 
-		Position positionAux = new Position(position.getRow() + rowIncrement, position.getColumn() + columnIncrement);
+		int row = position.getRow() + rowIncrement;
+		int column = position.getColumn() + columnIncrement;
 
-		if (getBoard().positionExists(positionAux) && canMove(positionAux))
-			matrix[positionAux.getRow()][positionAux.getColumn()] = true;
+		if (getBoard().positionExists(row, column) && canMove(row, column))
+			matrix[row][column] = true;
 	}
 
 	/**
@@ -115,22 +144,23 @@ public class King extends ChessPiece {
 	 */
 	private void checkCastlingMove(boolean[][] matrix, int rookColumnOffset, int[] intermediateOffsets) {
 
-		Position rookPosition = new Position(position.getRow(), position.getColumn() + rookColumnOffset);
+		int row = position.getRow();
+		int column = position.getColumn();
 
-		if (testRookCastling(rookPosition)) {
+		if (testRookCastling(row, column + rookColumnOffset)) {
 
 			boolean pathClear = true;
 
 			for (int offset : intermediateOffsets) {
 
-				Position pos = new Position(position.getRow(), position.getColumn() + offset);
-				if (getBoard().piece(pos) != null) {
+				if (getBoard().piece(row, column + offset) != null) {
 					pathClear = false;
 					break;
 				}
 			}
 
-			if (pathClear)
+			if (pathClear && !isAttacked(row, column + intermediateOffsets[0])
+					&& !isAttacked(row, column + intermediateOffsets[1]))
 				matrix[position.getRow()][position.getColumn() + intermediateOffsets[1]] = true;
 		}
 	}
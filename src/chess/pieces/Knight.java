@@ -1,9 +1,9 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
 import chess.ChessPiece;
 import chess.Color;
+import chess.metrics.MatchMetrics;
 import util.Pieces;
 
 /**
@@ -26,14 +26,20 @@ public class Knight extends ChessPiece {
 		return Pieces.KNIGHT.getAcronym();
 	}
 
+	@Override
+	public Pieces getType() {
+		return Pieces.KNIGHT;
+	}
+
 	/**
 	 * Verifica se uma determinada posição pode ser movida pelo Cavalo.
 	 * 
-	 * @param position a posição a ser verificada
+	 * @param row    o índice da linha
+	 * @param column o índice da coluna
 	 * @return true se o Cavalo pode mover-se para a posição, false caso contrário
 	 */
-	private boolean canMove(Position position) {
-		ChessPiece piece = (ChessPiece) getBoard().piece(position);
+	private boolean canMove(int row, int column) {
+		ChessPiece piece = (ChessPiece) getBoard().piece(row, column);
 
 		return piece == null || piece.getColor() != getColor();
 	}
@@ -46,6 +52,8 @@ public class Knight extends ChessPiece {
 	@Override
 	public boolean[][] possibleMoves() {
 
+		MatchMetrics.possibleMoves(Pieces.KNIGHT);
+
 		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
 
 		checkDirection(matrix, -1, -2);
@@ -70,9 +78,10 @@ public class Knight extends ChessPiece {
 	 */
 	private void checkDirection(boolean[][] matrix, int rowIncrement, int columnIncrement) {
 
-		Position positionAux = new Position(position.getRow() + rowIncrement, position.getColumn() + columnIncrement);
+		int row = position.getRow() + rowIncrement;
+		int column = position.getColumn() + columnIncrement;
 
-		if (getBoard().positionExists(positionAux) && canMove(positionAux))
-			matrix[positionAux.getRow()][positionAux.getColumn()] = true;
+		if (getBoard().positionExists(row, column) && canMove(row, column))
+			matrix[row][column] = true;
 	}
 }// class Knight
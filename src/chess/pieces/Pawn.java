@@ -1,10 +1,10 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.metrics.MatchMetrics;
 import util.Pieces;
 
 /**
@@ -33,6 +33,11 @@ public class Pawn extends ChessPiece {
 		return Pieces.PAWN.getAcronym();
 	}
 
+	@Override
+	public Pieces getType() {
+		return Pieces.PAWN;
+	}
+
 	/**
 	 * Verifica e marca os movimentos possíveis do Peão.
 	 * 
@@ -41,6 +46,8 @@ public class Pawn extends ChessPiece {
 	@Override
 	public boolean[][] possibleMoves() {
 
+		MatchMetrics.possibleMoves(Pieces.PAWN);
+
 		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
 
 		if (getColor() == Color.WHITE) {
@@ -65,19 +72,17 @@ public class Pawn extends ChessPiece {
 	 */
 	private void checkPawnMoves(boolean[][] matrix, int forwardStep, int doubleStep) {
 
-		Position currentPos = super.position;
-		Position front = new Position(currentPos.getRow() + forwardStep, currentPos.getColumn());
-
-		if (canMove(front))
-			matrix[front.getRow()][front.getColumn()] = true;
+		int row = position.getRow();
+		int column = position.getColumn();
 
-		Position doubleFront = new Position(currentPos.getRow() + doubleStep, currentPos.getColumn());
+		if (canMove(row + forwardStep, column))
+			matrix[row + forwardStep][column] = true;
 
-		if (canMove(doubleFront) && canMove(front) && getMoveCount() == 0)
-			matrix[doubleFront.getRow()][doubleFront.getColumn()] = true;
+		if (canMove(row + doubleStep, column) && canMove(row + forwardStep, column) && getMoveCount() == 0)
+			matrix[row + doubleStep][column] = true;
 
-		checkCaptureMoves(matrix, currentPos, forwardStep, -1);
-		checkCaptureMoves(matrix, currentPos, forwardStep, 1);
+		checkCaptureMoves(matrix, row, column, forwardStep, -1);
+		checkCaptureMoves(matrix, row, column, forwardStep, 1);
 	}
 
 	/**
@@ -91,17 +96,17 @@ public class Pawn extends ChessPiece {
 
 		if (position.getRow() == row) {
 
-			Position left = new Position(position.getRow(), position.getColumn() - 1);
+			int left = position.getColumn() - 1;
 
-			if (getBoard().positionExists(left) && isThereOpponentPiece(left)
-					&& getBoard().piece(left) == chessMatch.getEnPassantVulnerable())
-				matrix[left.getRow() + pace][left.getColumn()] = true;
+			if (getBoard().positionExists(row, left) && isThereOpponentPiece(row, left)
+					&& getBoard().piece(row, left) == chessMatch.getEnPassantVulnerable())
+				matrix[row + pace][left] = true;
 
-			Position right = new Position(position.getRow(), position.getColumn() + 1);
+			int right = position.getColumn() + 1;
 
-			if (getBoard().positionExists(right) && isThereOpponentPiece(right)
-					&& getBoard().piece(right) == chessMatch.getEnPassantVulnerable())
-				matrix[right.getRow() + pace][right.getColumn()] = true;
+			if (getBoard().positionExists(row, right) && isThereOpponentPiece(row, right)
+					&& getBoard().piece(row, right) == chessMatch.getEnPassantVulnerable())
+				matrix[row + pace][right] = true;
 		}
 	}
 
@@ -110,35 +115,36 @@ public class Pawn extends ChessPiece {
 	 * 
 	 * @param matrix      a matriz de booleanos que representa os movimentos
 	 *                    possíveis
-	 * @param currentPos  a posição atual do Peão
+	 * @param row         a linha atual do Peão
+	 * @param column      a coluna atual do Peão
 	 * @param forwardStep o número de linhas a serem avançadas pelo Peão
 	 * @param sideStep    o número de colunas a serem avançadas pelo Peão na lateral
 	 */
-	private void checkCaptureMoves(boolean[][] matrix, Position currentPos, int forwardStep, int sideStep) {
-
-		Position capture = new Position(currentPos.getRow() + forwardStep, currentPos.getColumn() + sideStep);
+	private void checkCaptureMoves(boolean[][] matrix, int row, int column, int forwardStep, int sideStep) {
 
-		if (canCapture(capture))
-			matrix[capture.getRow()][capture.getColumn()] = true;
+		if (canCapture(row + forwardStep, column + sideStep))
+			matrix[row + forwardStep][column + sideStep] = true;
 	}
 
 	/**
 	 * Verifica se uma determinada posição pode ser movida pelo Peão.
 	 * 
-	 * @param position a posição a ser verificada
+	 * @param row    o índice da linha
+	 * @param column o índice da coluna
 	 * @return true se a posição pode ser movida pelo Peão, false caso contrário
 	 */
-	private boolean canMove(Position position) {
-		return getBoard().positionExists(position) && !getBoard().thereIsAPiece(position);
+	private boolean canMove(int row, int column) {
+		return getBoard().positionExists(row, column) && getBoard().piece(row, column) == null;
 	}
 
 	/**
 	 * Verifica se uma determinada posição pode ser capturada pelo Peão.
 	 * 
-	 * @param position a posição a ser verificada
+	 * @param row    o índice da linha
+	 * @param column o índice da coluna
 	 * @return true se a posição pode ser capturada pelo Peão, false caso contrário
 	 */
-	private boolean canCapture(Position position) {
-		return getBoard().positionExists(position) && isThereOpponentPiece(position);
+	private boolean canCapture(int row, int column) {
+		return getBoard().positionExists(row, column) && isThereOpponentPiece(row, column);
 	}
 }// class Pawn
\ No newline at end of file
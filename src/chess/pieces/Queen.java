@@ -1,9 +1,9 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
 import chess.ChessPiece;
 import chess.Color;
+import chess.metrics.MatchMetrics;
 import util.Pieces;
 
 /**
@@ -26,6 +26,11 @@ public class Queen extends ChessPiece {
 		return Pieces.QUEEN.getAcronym();
 	}
 
+	@Override
+	public Pieces getType() {
+		return Pieces.QUEEN;
+	}
+
 	/**
 	 * Retorna uma matriz de booleanos indicando os movimentos possíveis da Rainha.
 	 * 
@@ -35,6 +40,8 @@ public class Queen extends ChessPiece {
 	@Override
 	public boolean[][] possibleMoves() {
 
+		MatchMetrics.possibleMoves(Pieces.QUEEN);
+
 		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
 
 		checkDirection(matrix, -1, 0); // above
@@ -60,14 +67,16 @@ public class Queen extends ChessPiece {
 	 */
 	private void checkDirection(boolean[][] matrix, int rowIncrement, int columnIncrement) {
 
-		Position positionAux = new Position(position.getRow() + rowIncrement, position.getColumn() + columnIncrement);
+		int row = position.getRow() + rowIncrement;
+		int column = position.getColumn() + columnIncrement;
 
-		while (getBoard().positionExists(positionAux) && !getBoard().thereIsAPiece(positionAux)) {
-			matrix[positionAux.getRow()][positionAux.getColumn()] = true;
-			positionAux.setValues(positionAux.getRow() + rowIncrement, positionAux.getColumn() + columnIncrement);
+		while (getBoard().positionExists(row, column) && getBoard().piece(row, column) == null) {
+			matrix[row][column] = true;
+			row += rowIncrement;
+			column += columnIncrement;
 		}
 
-		if (getBoard().positionExists(positionAux) && isThereOpponentPiece(positionAux))
-			matrix[positionAux.getRow()][positionAux.getColumn()] = true;
+		if (getBoard().positionExists(row, column) && isThereOpponentPiece(row, column))
+			matrix[row][column] = true;
 	}
 }// class Queen
@@ -9,7 +9,7 @@ public interface Messages {
 	String MSG_ERROR_INVALID_POSITION = "Position not on the board";
 	String MSG_ERROR_ALREADY_PIECE = "There is already a piece on position %s";
 	String MSG_ERROR_NOT_CHECK = "You can't put yourself in check";
-	String MSG_ERROR_NOT_PIECE_PROMOTED = "There is no piece to be promoted";
+	String MSG_ERROR_INVALID_PROMOTION = "Invalid promotion piece. Valid values are B, N, R and Q";
 	String MSG_ERROR_NOT_PIECE_SOURCE = "There is no piece on source position";
 	String MSG_ERROR_PIECE_NOT_YOURS = "The chosen piece is not yours";
 	String MSG_ERROR_NOT_POSSIBLE_MOVES = "There is no possible moves for the chosen piece";
@@ -18,16 +18,25 @@ public interface Messages {
 	String MSG_ERROR_INSTANCE_CHESS_PIECE = "Error instantiating ChessPosition. Valid values are from a1 to h8.";
 	String MSG_ERROR_INVALID_VALUE = "Invalid value!";
 	String MSG_ERROR_READING_POSITION = "Error reading ChessPosition. Valid values are from a1 to h8";
+	String MSG_ERROR_ARCHIVE_SEGMENT = "Invalid game archive segment: %s";
+	String MSG_ERROR_INDEX_SEGMENT = "Invalid position index segment: %s";
+	String MSG_ERROR_RECORD_TOO_LARGE = "Game with %d moves does not fit in an archive segment";
+	String MSG_ERROR_START_POSITION = "The match is not at the starting position of the game record";
+	String MSG_ERROR_JOURNAL_CLOSED = "The move journal is closed";
+	String MSG_ERROR_INVALID_FEN = "Invalid FEN (%s): %s";
+	String MSG_ERROR_INVALID_WEIGHTS = "Invalid evaluation weights (%s): %s";
 	
     String MSG_ENTER_PROMOTION_PIECE = "Enter piece for promotion (B/N/R/Q): ";
     String MSG_SOURCE_PROMPT = "Source: ";
     String MSG_TARGET_PROMPT = "Target: ";
     String MSG_TURN_PROMPT = "Turn: ";
     String MSG_WAITING_PLAYER = "Waiting player: ";
+    String MSG_ENGINE_MOVE = "Engine move: ";
     
     String CHECK = "CHECK";
     String CHECK_MATE = "CHECKMATE!";
     String WINNER = "Winner: ";
+    String DRAW = "DRAW: ";
     
     String TAB = "\t";
     String SPACE = " ";
@@ -23,6 +23,31 @@ public enum Pieces {
 		this.acronym = acronym;
 	}
 	
+	/**
+	 * Verifica se um peão pode ser promovido para este tipo de peça.
+	 * 
+	 * @return true para Bispo, Cavalo, Torre e Rainha
+	 */
+	public boolean isPromotionPiece() {
+		return this == BISHOP || this == KNIGHT || this == ROOK || this == QUEEN;
+	}
+
+	/**
+	 * Retorna o tipo de peça correspondente a uma sigla.
+	 * 
+	 * @param acronym a sigla da peça (B, K, N, P, Q ou R)
+	 * @return o tipo de peça, ou null se a sigla não existir
+	 */
+	public static Pieces fromAcronym(String acronym) {
+
+		for (Pieces p : Pieces.values()) {
+			if (p.getAcronym().equals(acronym))
+				return p;
+		}
+
+		return null;
+	}
+
 	public static String[] pieces() {
 		
 		String[] pieces = new String[Pieces.values().length];